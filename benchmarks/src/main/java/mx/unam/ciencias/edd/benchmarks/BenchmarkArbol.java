@@ -0,0 +1,85 @@
+package mx.unam.ciencias.edd.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mx.unam.ciencias.edd.laberinto.ArbolCaminos;
+import mx.unam.ciencias.edd.laberinto.ResolvedorDial;
+
+/**
+ * Mediciones de la consulta del puntaje que falta para llegar a la salida
+ * desde varios cuartos del laberinto: resolviendo el laberinto una vez por
+ * cuarto, o calculando una sola vez el árbol de trayectorias hacia la salida
+ * y consultándolo.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkArbol {
+
+    /** El número de cuartos desde los que se consulta. */
+    @Param({ "1", "100" })
+    public int consultas;
+
+    /**
+     * Resuelve el laberinto desde cada cuarto consultado hasta la salida.
+     *
+     * @param estado el estado con el laberinto resuelto.
+     * @return la suma de las longitudes de las trayectorias.
+     */
+    @Benchmark
+    public long resuelveCadaCuarto(EstadoLaberinto estado) {
+        ResolvedorDial dial = new ResolvedorDial(estado.cuartos, estado.lado, estado.lado);
+        int fin = estado.resuelto.getFinalLab().getIndice();
+
+        long suma = 0;
+        for (int i = 0; i < consultas; i++)
+            suma += dial.resuelve(cuarto(estado, i), fin).length;
+
+        return suma;
+    }
+
+    /**
+     * Calcula el árbol de trayectorias hacia la salida y lo consulta desde
+     * cada cuarto.
+     *
+     * @param estado el estado con el laberinto resuelto.
+     * @return la suma de las distancias a la salida.
+     */
+    @Benchmark
+    public long consultaArbol(EstadoLaberinto estado) {
+        ResolvedorDial dial = new ResolvedorDial(estado.cuartos, estado.lado, estado.lado);
+        ArbolCaminos arbol = dial.arbol(estado.resuelto.getFinalLab().getIndice());
+
+        long suma = 0;
+        for (int i = 0; i < consultas; i++)
+            suma += arbol.getDistancia(cuarto(estado, i)) + arbol.siguiente(cuarto(estado, i));
+
+        return suma;
+    }
+
+    /**
+     * Regresa el i-ésimo cuarto consultado; los cuartos se reparten de
+     * manera uniforme en el laberinto.
+     *
+     * @param estado el estado con el laberinto.
+     * @param i      el número de la consulta.
+     * @return el índice del cuarto.
+     */
+    private int cuarto(EstadoLaberinto estado, int i) {
+        return (int) ((long) i * estado.cuartos.length / consultas);
+    }
+}
@@ -0,0 +1,108 @@
+package mx.unam.ciencias.edd.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mx.unam.ciencias.edd.laberinto.LaberintoRandom;
+import mx.unam.ciencias.edd.laberinto.ResolvedorDeltaStepping;
+import mx.unam.ciencias.edd.laberinto.ResolvedorDial;
+
+/**
+ * Mediciones de la resolución de laberintos de millones de cuartos con
+ * delta-stepping para cada número de hilos, y con el algoritmo de Dial (que
+ * no usa hilos) como referencia; la curva de escalamiento se obtiene con
+ * <code>-p hilos=1,2,4,8,...</code> hasta el número de procesadores.
+ *
+ * Un laberinto generado es un árbol y sus cubetas tienen pocos cuartos, así
+ * que se le abre una de cada diez paredes interiores para que tenga ciclos,
+ * como los laberintos para los que sirve repartir el trabajo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkDeltaStepping {
+
+    /** El número de filas y columnas del laberinto. */
+    @Param({ "1024", "2048" })
+    public int lado;
+
+    /** El número de hilos de delta-stepping. */
+    @Param({ "1", "2", "4", "8" })
+    public int hilos;
+
+    /** La semilla del generador y de las paredes que se abren. */
+    @Param({ "1" })
+    public int semilla;
+
+    /* Los cuartos del laberinto con ciclos */
+    private byte[] cuartos;
+
+    /* El cuarto de entrada */
+    private int inicio;
+
+    /* El cuarto de salida */
+    private int fin;
+
+    /**
+     * Genera el laberinto y le abre una de cada diez paredes interiores.
+     */
+    @Setup(Level.Trial)
+    public void prepara() {
+        LaberintoRandom generado = new LaberintoRandom(lado, lado, true, semilla);
+        generado.creaLaberinto();
+        cuartos = generado.getBytesCuartos().clone();
+        inicio = generado.getInicioLab().getIndice();
+        fin = generado.getFinalLab().getIndice();
+
+        Random random = new Random(semilla);
+        for (int fila = 0; fila < lado; fila++)
+            for (int columna = 0; columna < lado; columna++) {
+                int cuarto = fila * lado + columna;
+                if (columna + 1 < lado && random.nextInt(10) == 0) {
+                    cuartos[cuarto] &= ~1;
+                    cuartos[cuarto + 1] &= ~4;
+                }
+                if (fila + 1 < lado && random.nextInt(10) == 0) {
+                    cuartos[cuarto] &= ~8;
+                    cuartos[cuarto + lado] &= ~2;
+                }
+            }
+    }
+
+    /**
+     * Resuelve el laberinto con delta-stepping.
+     *
+     * @return la trayectoria de la entrada a la salida.
+     */
+    @Benchmark
+    public int[] deltaStepping() {
+        return new ResolvedorDeltaStepping(cuartos, lado, lado, hilos).resuelve(inicio, fin);
+    }
+
+    /**
+     * Resuelve el laberinto con el algoritmo de Dial; no depende del número
+     * de hilos.
+     *
+     * @return la trayectoria de la entrada a la salida.
+     */
+    @Benchmark
+    public int[] dial() {
+        return new ResolvedorDial(cuartos, lado, lado).resuelve(inicio, fin);
+    }
+}
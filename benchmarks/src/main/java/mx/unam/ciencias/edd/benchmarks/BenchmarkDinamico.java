@@ -0,0 +1,143 @@
+package mx.unam.ciencias.edd.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mx.unam.ciencias.edd.laberinto.AlgoritmoResolvedor;
+import mx.unam.ciencias.edd.laberinto.Direccion;
+import mx.unam.ciencias.edd.laberinto.Laberinto;
+import mx.unam.ciencias.edd.laberinto.LaberintoDinamico;
+
+/**
+ * Mediciones del tiempo que tarda en quedar al día la solución de un laberinto
+ * después de abrir o cerrar una puerta, o de cambiar el puntaje de un cuarto:
+ * reparando el árbol de trayectorias de {@link LaberintoDinamico}, volviendo a
+ * calcular el árbol completo, o creando y resolviendo un {@link Laberinto}
+ * nuevo como antes.
+ *
+ * Las puertas que se cambian son paredes interiores cerradas del laberinto
+ * original; la primera vez que se cambia cada una se abre y la segunda se
+ * vuelve a cerrar, así que el laberinto siempre tiene solución.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkDinamico {
+
+    /* El número de cambios distintos que se hacen en ciclo */
+    private static final int CAMBIOS = 256;
+
+    /* El laberinto que se modifica */
+    private LaberintoDinamico laberinto;
+
+    /* Los cuartos de los cambios */
+    private int[] cuartos;
+
+    /* Las direcciones de las paredes de los cambios */
+    private Direccion[] direcciones;
+
+    /* El siguiente cambio */
+    private int siguiente;
+
+    /**
+     * Crea el laberinto modificable y elige las paredes que se cambiarán.
+     *
+     * @param estado el estado con los cuartos leídos.
+     */
+    @Setup(Level.Trial)
+    public void prepara(EstadoLaberinto estado) {
+        laberinto = new LaberintoDinamico(estado.cuartos, estado.lado, estado.lado);
+        cuartos = new int[CAMBIOS];
+        direcciones = new Direccion[CAMBIOS];
+
+        Random random = new Random(estado.semilla);
+        for (int i = 0; i < CAMBIOS; i++) {
+            int fila, columna;
+            boolean sur;
+            do {
+                fila = random.nextInt(estado.lado - 1);
+                columna = random.nextInt(estado.lado - 1);
+                sur = random.nextBoolean();
+            } while ((estado.cuartos[fila * estado.lado + columna] & (sur ? 8 : 1)) == 0);
+
+            cuartos[i] = fila * estado.lado + columna;
+            direcciones[i] = sur ? Direccion.SUR : Direccion.ESTE;
+        }
+    }
+
+    /**
+     * Abre o cierra una puerta y repara el árbol de trayectorias.
+     *
+     * @return la distancia de la entrada a la salida.
+     */
+    @Benchmark
+    public int alternaPared() {
+        cambiaPared();
+        return laberinto.getDistancia(laberinto.getInicio());
+    }
+
+    /**
+     * Cambia el puntaje de un cuarto por su complemento y repara el árbol de
+     * trayectorias.
+     *
+     * @return la distancia de la entrada a la salida.
+     */
+    @Benchmark
+    public int cambiaPuntaje() {
+        int cuarto = cuartos[siguiente];
+        siguiente = (siguiente + 1) % CAMBIOS;
+        laberinto.cambiaPuntaje(cuarto, 15 - ((laberinto.getCuartos()[cuarto] & 0xFF) >>> 4));
+        return laberinto.getDistancia(laberinto.getInicio());
+    }
+
+    /**
+     * Abre o cierra una puerta y vuelve a calcular el árbol completo.
+     *
+     * @return la distancia de la entrada a la salida.
+     */
+    @Benchmark
+    public int recalculaArbol() {
+        cambiaPared();
+        laberinto.recalcula();
+        return laberinto.getDistancia(laberinto.getInicio());
+    }
+
+    /**
+     * Abre o cierra una puerta y crea y resuelve un laberinto nuevo con los
+     * cuartos, como se hacía antes de poder modificarlo. Al cerrar la puerta
+     * el laberinto vuelve a ser un árbol, así que se desactiva el atajo para
+     * árboles y siempre se resuelve con Dial.
+     *
+     * @return el laberinto resuelto.
+     */
+    @Benchmark
+    public Laberinto creaLaberinto() {
+        cambiaPared();
+        int lado = laberinto.getFilas();
+        Laberinto nuevo = new Laberinto(laberinto.getCuartos().clone(), lado, lado, AlgoritmoResolvedor.DIAL);
+        nuevo.setAtajoArbol(false);
+        nuevo.creaLaberinto();
+        return nuevo;
+    }
+
+    /* Hace el siguiente cambio de pared */
+    private void cambiaPared() {
+        laberinto.alternaPared(cuartos[siguiente], direcciones[siguiente]);
+        siguiente = (siguiente + 1) % CAMBIOS;
+    }
+}
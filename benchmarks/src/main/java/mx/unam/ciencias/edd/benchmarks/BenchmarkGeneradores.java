@@ -0,0 +1,62 @@
+package mx.unam.ciencias.edd.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mx.unam.ciencias.edd.laberinto.AlgoritmoAleatorio;
+import mx.unam.ciencias.edd.laberinto.AlgoritmoGenerador;
+import mx.unam.ciencias.edd.laberinto.LaberintoRandom;
+
+/**
+ * Mediciones de la generación de un laberinto con cada uno de los algoritmos
+ * que se pueden elegir con <code>--algoritmo</code> y cada uno de los
+ * generadores de números aleatorios que se pueden elegir con
+ * <code>--rng</code>.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkGeneradores {
+
+    /** El número de filas y de columnas del laberinto. */
+    @Param({ "16", "64", "255" })
+    public int lado;
+
+    /** La semilla del generador. */
+    @Param({ "1", "1234" })
+    public int semilla;
+
+    /** El nombre del algoritmo en la linea de comandos. */
+    @Param({ "backtracker", "kruskal", "prim", "eller", "mosaico" })
+    public String algoritmo;
+
+    /** El nombre del generador de números aleatorios en la linea de comandos. */
+    @Param({ "random", "splittable", "xoshiro" })
+    public String aleatorio;
+
+    /**
+     * Genera un laberinto con el algoritmo elegido.
+     *
+     * @return el laberinto generado.
+     */
+    @Benchmark
+    public LaberintoRandom genera() {
+        LaberintoRandom laberinto = new LaberintoRandom(lado, lado, true, semilla,
+                AlgoritmoGenerador.deNombre(algoritmo), AlgoritmoAleatorio.deNombre(aleatorio));
+        laberinto.creaLaberinto();
+        return laberinto;
+    }
+}
@@ -0,0 +1,127 @@
+package mx.unam.ciencias.edd.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mx.unam.ciencias.edd.laberinto.AlgoritmoResolvedor;
+import mx.unam.ciencias.edd.laberinto.Laberinto;
+import mx.unam.ciencias.edd.laberinto.LaberintoABytes;
+import mx.unam.ciencias.edd.laberinto.LaberintoRandom;
+import mx.unam.ciencias.edd.laberinto.LaberintoSVG;
+import mx.unam.ciencias.edd.laberinto.VerificaFormatoArchivo;
+
+/**
+ * Mediciones de cada etapa del programa: generar un laberinto, leer y
+ * verificar un archivo MAZE, construir la gráfica, validarla y resolverla
+ * (o resolverla con el atajo para árboles), escribir los bytes del laberinto y dibujar el SVG, en memoria o
+ * escribiéndolo conforme se dibuja. Se reporta el número de
+ * operaciones por segundo; con <code>-prof gc</code> también se reporta la
+ * memoria que se pide por operación.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BenchmarkLaberinto {
+
+    /**
+     * Genera un laberinto aleatorio.
+     *
+     * @param estado el estado con el tamaño y la semilla.
+     * @return el laberinto generado.
+     */
+    @Benchmark
+    public LaberintoRandom genera(EstadoLaberinto estado) {
+        LaberintoRandom laberinto = new LaberintoRandom(estado.lado, estado.lado, true, estado.semilla);
+        laberinto.creaLaberinto();
+        return laberinto;
+    }
+
+    /**
+     * Lee y verifica los bytes de un archivo MAZE.
+     *
+     * @param estado el estado con los bytes del archivo.
+     * @return el verificador con los cuartos leídos.
+     * @throws IOException si hay un error al leer los bytes.
+     */
+    @Benchmark
+    public VerificaFormatoArchivo lee(EstadoLaberinto estado) throws IOException {
+        return estado.lee();
+    }
+
+    /**
+     * Construye la gráfica del laberinto, la valida y la resuelve con
+     * Dijkstra. Los laberintos generados son árboles, así que se desactiva
+     * el atajo para árboles.
+     *
+     * @param estado el estado con los cuartos leídos.
+     * @return el laberinto resuelto.
+     */
+    @Benchmark
+    public Laberinto resuelve(EstadoLaberinto estado) {
+        Laberinto laberinto = new Laberinto(estado.cuartos, estado.lado, estado.lado, AlgoritmoResolvedor.DIJKSTRA);
+        laberinto.setAtajoArbol(false);
+        laberinto.creaLaberinto();
+        return laberinto;
+    }
+
+    /**
+     * Valida el laberinto y, como es un árbol, toma la trayectoria de una
+     * búsqueda en profundidad desde la entrada, sin construir la gráfica.
+     *
+     * @param estado el estado con los cuartos leídos.
+     * @return el laberinto resuelto.
+     */
+    @Benchmark
+    public Laberinto resuelveArbol(EstadoLaberinto estado) {
+        Laberinto laberinto = new Laberinto(estado.cuartos, estado.lado, estado.lado, AlgoritmoResolvedor.DIJKSTRA);
+        laberinto.creaLaberinto();
+        return laberinto;
+    }
+
+    /**
+     * Escribe los bytes de un laberinto generado.
+     *
+     * @param estado el estado con el laberinto generado.
+     * @throws IOException si hay un error al escribir los bytes.
+     */
+    @Benchmark
+    public void escribeBytes(EstadoLaberinto estado) throws IOException {
+        new LaberintoABytes(estado.generado).escribeLaberinto(OutputStream.nullOutputStream());
+    }
+
+    /**
+     * Dibuja el SVG de un laberinto resuelto.
+     *
+     * @param estado el estado con el laberinto resuelto.
+     * @return el código del SVG.
+     */
+    @Benchmark
+    public String dibujaSVG(EstadoLaberinto estado) {
+        LaberintoSVG svg = new LaberintoSVG(estado.resuelto);
+        svg.creaLaberintoSVG();
+        return svg.getcodigoLaberinto();
+    }
+
+    /**
+     * Escribe el SVG de un laberinto resuelto conforme se dibuja, sin
+     * guardarlo en memoria.
+     *
+     * @param estado el estado con el laberinto resuelto.
+     * @throws IOException si hay un error al escribir la imagen.
+     */
+    @Benchmark
+    public void escribeSVG(EstadoLaberinto estado) throws IOException {
+        new LaberintoSVG(estado.resuelto).escribeLaberintoSVG(OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,57 @@
+package mx.unam.ciencias.edd.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mx.unam.ciencias.edd.laberinto.AlgoritmoResolvedor;
+import mx.unam.ciencias.edd.laberinto.Laberinto;
+
+/**
+ * Mediciones de la validación y resolución de un laberinto con cada uno de
+ * los algoritmos que se pueden elegir con <code>--resolvedor</code>, con y
+ * sin podar antes los callejones sin salida. Los laberintos generados son
+ * árboles, así que se desactiva el atajo para árboles: se mide siempre el
+ * algoritmo elegido.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkResolvedores {
+
+    /** El nombre del algoritmo en la linea de comandos. */
+    @Param({ "dijkstra", "csr", "dial", "a-estrella", "bidireccional", "delta" })
+    public String resolvedor;
+
+    /** Si se podan los callejones sin salida antes de resolver. */
+    @Param({ "false", "true" })
+    public boolean podar;
+
+    /**
+     * Valida y resuelve el laberinto con el algoritmo elegido.
+     *
+     * @param estado el estado con los cuartos leídos.
+     * @return el laberinto resuelto.
+     */
+    @Benchmark
+    public Laberinto resuelve(EstadoLaberinto estado) {
+        Laberinto laberinto = new Laberinto(estado.cuartos, estado.lado, estado.lado,
+                AlgoritmoResolvedor.deNombre(resolvedor));
+        laberinto.setPodar(podar);
+        laberinto.setAtajoArbol(false);
+        laberinto.creaLaberinto();
+        return laberinto;
+    }
+}
@@ -0,0 +1,77 @@
+package mx.unam.ciencias.edd.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import mx.unam.ciencias.edd.laberinto.AlgoritmoResolvedor;
+import mx.unam.ciencias.edd.laberinto.Laberinto;
+import mx.unam.ciencias.edd.laberinto.LaberintoABytes;
+import mx.unam.ciencias.edd.laberinto.LaberintoRandom;
+import mx.unam.ciencias.edd.laberinto.VerificaFormatoArchivo;
+
+/**
+ * Estado compartido por las mediciones: un laberinto cuadrado generado con
+ * una semilla fija, sus bytes en el formato MAZE, sus cuartos ya leídos y el
+ * laberinto ya resuelto. Cada etapa se mide a partir del resultado de las
+ * anteriores, que se preparan fuera de la medición.
+ */
+@State(Scope.Benchmark)
+public class EstadoLaberinto {
+
+    /** El número de filas y columnas del laberinto. */
+    @Param({ "16", "64", "255" })
+    public int lado;
+
+    /** La semilla del generador. */
+    @Param({ "1", "1234" })
+    public int semilla;
+
+    /** El laberinto generado. */
+    public LaberintoRandom generado;
+
+    /** Los bytes del laberinto en el formato MAZE. */
+    public byte[] archivo;
+
+    /** Los cuartos del laberinto como los regresa el verificador. */
+    public byte[] cuartos;
+
+    /** El laberinto ya resuelto. */
+    public Laberinto resuelto;
+
+    /**
+     * Genera, escribe, lee y resuelve el laberinto una vez por prueba.
+     *
+     * @throws IOException si hay un error al escribir o leer los bytes.
+     */
+    @Setup(Level.Trial)
+    public void prepara() throws IOException {
+        generado = new LaberintoRandom(lado, lado, true, semilla);
+        generado.creaLaberinto();
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        new LaberintoABytes(generado).escribeLaberinto(salida);
+        archivo = salida.toByteArray();
+
+        cuartos = lee().getCuartos();
+
+        resuelto = new Laberinto(cuartos, lado, lado, AlgoritmoResolvedor.DIJKSTRA);
+        resuelto.creaLaberinto();
+    }
+
+    /**
+     * Lee y verifica los bytes del laberinto.
+     *
+     * @return el verificador con los cuartos leídos.
+     * @throws IOException si hay un error al leer los bytes.
+     */
+    public VerificaFormatoArchivo lee() throws IOException {
+        return new VerificaFormatoArchivo(new ByteArrayInputStream(archivo));
+    }
+}
@@ -0,0 +1,89 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para conjuntos disjuntos de enteros (unión-búsqueda). Los elementos
+ * son los enteros de 0 a <i>n</i>-1 y al inicio cada uno está en su propio
+ * conjunto. Cada conjunto se representa con un árbol guardado en un arreglo
+ * de padres; las búsquedas comprimen la trayectoria a la raíz y las uniones
+ * cuelgan el árbol más chico del más grande, así que ambas operaciones toman
+ * tiempo prácticamente constante.
+ */
+public class ConjuntosDisjuntos {
+
+    /* El padre de cada elemento, o el elemento mismo si es raíz. */
+    private int[] padres;
+    /* El número de elementos del conjunto de cada raíz. */
+    private int[] tamanos;
+    /* El número de conjuntos. */
+    private int conjuntos;
+
+    /**
+     * Construye <i>n</i> conjuntos, cada uno con un solo elemento.
+     * @param n el número de elementos.
+     */
+    public ConjuntosDisjuntos(int n) {
+        padres = new int[n];
+        tamanos = new int[n];
+        for(int i = 0; i < n; i++) {
+            padres[i] = i;
+            tamanos[i] = 1;
+        }
+        conjuntos = n;
+    }
+
+    /**
+     * Regresa el representante del conjunto del elemento. En el camino, cada
+     * elemento se cuelga de su abuelo.
+     * @param elemento el elemento.
+     * @return el representante de su conjunto.
+     */
+    public int busca(int elemento) {
+        while(padres[elemento] != elemento) {
+            padres[elemento] = padres[padres[elemento]];
+            elemento = padres[elemento];
+        }
+        return elemento;
+    }
+
+    /**
+     * Une los conjuntos de los dos elementos.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return <code>true</code> si los elementos estaban en conjuntos
+     *         distintos, <code>false</code> si ya estaban en el mismo.
+     */
+    public boolean une(int a, int b) {
+        a = busca(a);
+        b = busca(b);
+        if(a == b)
+            return false;
+        if(tamanos[a] < tamanos[b]) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        padres[b] = a;
+        tamanos[a] += tamanos[b];
+        conjuntos--;
+        return true;
+    }
+
+    /**
+     * Nos dice si los dos elementos están en el mismo conjunto.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return <code>true</code> si están en el mismo conjunto,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean mismoConjunto(int a, int b) {
+        return busca(a) == busca(b);
+    }
+
+    /**
+     * Regresa el número de conjuntos.
+     * @return el número de conjuntos.
+     */
+    public int getConjuntos() {
+        return conjuntos;
+    }
+}
@@ -1,6 +1,7 @@
 package mx.unam.ciencias.edd;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Clase para gráficas. Una gráfica es un conjunto de vértices y aristas, tales
@@ -40,14 +41,19 @@ public class Grafica<T> implements Coleccion<T> {
         private Color color;
         /* La distancia del vértice. */
         private double distancia;
+        /* El vértice anterior en la trayectoria mínima, o null. */
+        private Vertice padre;
         /* El índice del vértice. */
         private int indice;
+        /* El número de vértices agregados antes que éste. */
+        private int orden;
         /* El diccionario de vecinos del vértice. */
         private Diccionario<T, Vecino> vecinos;
 
         /* Crea un nuevo vértice a partir de un elemento. */
         public Vertice(T elemento) {
             this.elemento = elemento; 
+            orden = agregados++;
             color = Color.NINGUNO; 
             vecinos = new Diccionario<T, Vecino>();
         }
@@ -82,7 +88,8 @@ public class Grafica<T> implements Coleccion<T> {
             return indice; 
         }
 
-        /* Compara dos vértices por distancia. */
+        /* Compara dos vértices por distancia; en los empates va primero el
+           que se agregó antes, para que el orden no dependa del montículo. */
         @Override public int compareTo(Vertice vertice) {
 
             if(distancia > vertice.distancia)
@@ -91,7 +98,7 @@ public class Grafica<T> implements Coleccion<T> {
             if(distancia < vertice.distancia)
                 return -1; 
             
-            return 0;
+            return orden - vertice.orden;
         }
     }
 
@@ -131,18 +138,186 @@ public class Grafica<T> implements Coleccion<T> {
         }
     }
 
-    /* Interface para poder usar lambdas al buscar el elemento que sigue al
-     * reconstruir un camino. */
-    @FunctionalInterface
-    private interface BuscadorCamino<T> {
-        /* Regresa true si el vértice se sigue del vecino. */
-        public boolean seSiguen(Grafica<T>.Vertice v, Grafica<T>.Vecino a);
+    /* Clase interna privada para los valores de los montículos de
+       dijkstraBidireccional. En los empates va primero el vértice que se
+       agregó antes, como en dijkstra. */
+    private class ValorVertice extends ValorIndexable<Vertice> {
+
+        /* Crea un valor con el vértice y la distancia dados. */
+        public ValorVertice(Vertice vertice, double distancia) {
+            super(vertice, distancia);
+        }
+
+        /* Compara por distancia y luego por el orden de los vértices. */
+        @Override public int compareTo(ValorIndexable<Vertice> valor) {
+            int comparacion = super.compareTo(valor);
+            if(comparacion != 0)
+                return comparacion;
+            return getElemento().orden - valor.getElemento().orden;
+        }
+    }
+
+    /* Clase interna privada para el punto de encuentro de las dos búsquedas
+       de dijkstraBidireccional. */
+    private class Encuentro {
+
+        /* El peso de la mejor trayectoria encontrada. */
+        private volatile double peso;
+        /* El último vértice de la mejor trayectoria del lado del origen. */
+        private int adelante;
+        /* El primer vértice de la mejor trayectoria del lado del destino. */
+        private int atras;
+        /* Si alguna de las búsquedas ya terminó. */
+        private volatile boolean terminado;
+
+        /* Crea un encuentro sin trayectoria. */
+        public Encuentro() {
+            peso = Double.MAX_VALUE;
+            adelante = atras = -1;
+        }
+
+        /* Propone una trayectoria que cruza de adelante a atras. Entre dos
+           trayectorias del mismo peso se queda con la de menores índices,
+           sin importar cuál se propuso primero. */
+        public synchronized void propone(double peso, int adelante, int atras) {
+            if(peso > this.peso)
+                return;
+            if(peso == this.peso && (adelante > this.adelante ||
+                                     (adelante == this.adelante && atras >= this.atras)))
+                return;
+            this.peso = peso;
+            this.adelante = adelante;
+            this.atras = atras;
+        }
+    }
+
+    /* Clase interna privada para cada una de las dos búsquedas de
+       dijkstraBidireccional. Cada búsqueda tiene su propio montículo de
+       valores indexables, porque los vértices sólo tienen un índice. */
+    private class BusquedaDijkstra implements Runnable {
+
+        /* El vértice donde comienza la búsqueda. */
+        private Vertice origen;
+        /* Si la búsqueda va desde el origen de la trayectoria. */
+        private boolean adelante;
+        /* Las distancias de esta búsqueda, como bits de un double. */
+        private AtomicLongArray distancias;
+        /* Las distancias de la otra búsqueda, como bits de un double. */
+        private AtomicLongArray otras;
+        /* El padre de cada vértice en esta búsqueda, o -1. */
+        private int[] padres;
+        /* Si cada vértice ya se revisó por completo en esta búsqueda. */
+        private boolean[] revisados;
+        /* El montículo de la búsqueda. */
+        private MonticuloMinimo<ValorIndexable<Vertice>> monticulo;
+        /* El valor en el montículo de cada vértice, o null. */
+        private ValorIndexable<Vertice>[] valores;
+        /* La distancia del último vértice revisado por completo. */
+        private volatile double tope;
+        /* La otra búsqueda. */
+        private BusquedaDijkstra otra;
+        /* El punto de encuentro de ambas búsquedas. */
+        private Encuentro encuentro;
+
+        /* Crea una búsqueda desde el vértice dado. */
+        public BusquedaDijkstra(Vertice origen, boolean adelante,
+                                AtomicLongArray distancias,
+                                AtomicLongArray otras, Encuentro encuentro) {
+            this.origen = origen;
+            this.adelante = adelante;
+            this.distancias = distancias;
+            this.otras = otras;
+            this.encuentro = encuentro;
+            padres = new int[distancias.length()];
+            for(int i = 0; i < padres.length; i++)
+                padres[i] = -1;
+            revisados = new boolean[padres.length];
+            monticulo = new MonticuloMinimo<>();
+            valores = nuevoArregloValores(padres.length);
+            valores[origen.indice] = new ValorVertice(origen, 0);
+            monticulo.agrega(valores[origen.indice]);
+        }
+
+        /* Corre la búsqueda hasta que las distancias de ambas búsquedas
+           sumadas no puedan mejorar la mejor trayectoria. */
+        @Override public void run() {
+            while(!encuentro.terminado){
+                if(monticulo.esVacia() || tope + otra.tope >= encuentro.peso){
+                    encuentro.terminado = true;
+                    break;
+                }
+
+                ValorIndexable<Vertice> minimo = monticulo.elimina();
+                double distancia = minimo.getValor();
+                revisa(minimo.getElemento(), distancia);
+
+                /* Se publica hasta aquí para que las trayectorias que pasan
+                   por el vértice ya se hayan propuesto. */
+                tope = distancia;
+            }
+        }
+
+        /* Sigue la búsqueda, ya sin la otra corriendo, hasta revisar el
+           destino. Sólo se revisan los vértices que pueden estar en una
+           trayectoria del peso dado: su distancia más la de la otra búsqueda
+           (o su tope, si ahí no se ha revisado) no debe pasar del peso. Los
+           vértices se revisan en el mismo orden que en dijkstra, así que los
+           padres de la trayectoria son los mismos. */
+        public void termina(int destino, double peso) {
+            while(!revisados[destino] && !monticulo.esVacia()){
+                ValorIndexable<Vertice> minimo = monticulo.elimina();
+                Vertice vertice = minimo.getElemento();
+                double distancia = minimo.getValor();
+                double resto = otra.revisados[vertice.indice] ?
+                    distancia(otras, vertice.indice) : otra.tope;
+                if(vertice.indice == destino || distancia + resto <= peso)
+                    revisa(vertice, distancia);
+            }
+        }
+
+        /* Revisa por completo un vértice que salió del montículo: propone
+           las trayectorias que pasan por él y actualiza a sus vecinos. */
+        private void revisa(Vertice vertice, double distancia) {
+            revisados[vertice.indice] = true;
+            propone(distancia, vertice.indice, vertice.indice);
+
+            for(Vecino v: vertice.vecinos){
+                int vecino = v.vecino.indice;
+                double nueva = distancia + v.peso;
+                if(nueva < distancia(distancias, vecino)){
+                    distancias.set(vecino, Double.doubleToLongBits(nueva));
+                    padres[vecino] = vertice.indice;
+                    if(valores[vecino] == null){
+                        valores[vecino] = new ValorVertice(v.vecino, nueva);
+                        monticulo.agrega(valores[vecino]);
+                    } else {
+                        valores[vecino].setValor(nueva);
+                        monticulo.reordena(valores[vecino]);
+                    }
+                }
+                propone(nueva, vertice.indice, vecino);
+            }
+        }
+
+        /* Propone la trayectoria que llega hasta el vértice a con la
+           distancia dada y sigue por el vértice b en la otra búsqueda. */
+        private void propone(double distancia, int a, int b) {
+            double otra = distancia(otras, b);
+            if(otra == Double.MAX_VALUE)
+                return;
+            if(adelante)
+                encuentro.propone(distancia + otra, a, b);
+            else
+                encuentro.propone(distancia + otra, b, a);
+        }
     }
 
     /* Vértices. */
     private Diccionario<T, Vertice> vertices;
     /* Número de aristas. */
     private int aristas;
+    /* Número de vértices que se han agregado. */
+    private int agregados;
 
     /**
      * Constructor único.
@@ -616,8 +791,10 @@ public class Grafica<T> implements Coleccion<T> {
             return trayectoria; 
         }
 
-        for(Vertice vertice: vertices)
+        for(Vertice vertice: vertices){
             vertice.distancia = Double.MAX_VALUE; 
+            vertice.padre = null;
+        }
             
         verticeOrigen.distancia = 0; 
         
@@ -631,6 +808,7 @@ public class Grafica<T> implements Coleccion<T> {
             for(Vecino v: vertice.vecinos){
                 if(v.vecino.distancia == Double.MAX_VALUE){
                     v.vecino.distancia = vertice.distancia + 1;
+                    v.vecino.padre = vertice;
                     cola.mete(v.vecino);
                 }
             }
@@ -639,25 +817,15 @@ public class Grafica<T> implements Coleccion<T> {
         if(verticeDestino.distancia == Double.MAX_VALUE)
             return trayectoria; 
         
-        Vertice u = verticeDestino;
-        trayectoria.agregaInicio(u);
-
-        while(!(u.elemento.equals(origen))){
-            for(Vecino v: u.vecinos){
-                if(u.distancia == v.vecino.distancia + 1){
-                    trayectoria.agregaInicio(v.vecino);
-                    u = v.vecino;
-                    break; 
-                }
-            }
-        }
-        
-        return trayectoria;      
+        return trayectoria(verticeDestino, trayectoria);
     }
 
     /**
      * Calcula la ruta de peso mínimo entre el elemento de origen y el elemento
-     * de destino.
+     * de destino. Cada vértice recuerda de qué vértice vino su mejor
+     * distancia, así que la ruta se obtiene siguiendo esos padres desde el
+     * destino, sin comparar distancias; con pesos enteros las distancias son
+     * exactas mientras no pasen de 2<sup>53</sup>.
      * @param origen el vértice origen.
      * @param destino el vértice destino.
      * @return una trayectoria de peso mínimo entre el vértice <code>origen</code> y
@@ -684,8 +852,10 @@ public class Grafica<T> implements Coleccion<T> {
             return trayectoria; 
         }
 
-        for(Vertice vertice: vertices)
+        for(Vertice vertice: vertices){
             vertice.distancia = Double.MAX_VALUE; 
+            vertice.padre = null;
+        }
 
         verticeOrigen.distancia = 0; 
 
@@ -707,6 +877,7 @@ public class Grafica<T> implements Coleccion<T> {
             for(Vecino v: vertice.vecinos){
                 if(v.vecino.distancia > vertice.distancia + v.peso){
                     v.vecino.distancia = vertice.distancia + v.peso;
+                    v.vecino.padre = vertice;
                     monticulo.reordena(v.vecino);
                 }
             }
@@ -715,20 +886,129 @@ public class Grafica<T> implements Coleccion<T> {
         if(verticeDestino.distancia == Double.MAX_VALUE)
             return trayectoria; 
 
-        Vertice u = verticeDestino; 
-        trayectoria.agregaInicio(u);
+        return trayectoria(verticeDestino, trayectoria);
 
-        while(!(u.elemento.equals(origen))){
-            for(Vecino v: u.vecinos){
-                if(u.distancia == v.vecino.distancia + v.peso){
-                    trayectoria.agregaInicio(v.vecino);
-                    u = v.vecino;
-                    break; 
-                }
-            }
+    }
+
+    /**
+     * Calcula la ruta de peso mínimo entre el elemento de origen y el elemento
+     * de destino con dos búsquedas de Dijkstra simultáneas en dos hilos: una
+     * desde el origen y otra desde el destino. Las búsquedas se detienen
+     * cuando la suma de las distancias que han alcanzado ya no puede mejorar
+     * la mejor trayectoria que cruza de una a la otra. Con pesos enteros la
+     * trayectoria es la misma que regresa {@link #dijkstra}, sin importar qué
+     * tan lejos llegó cada hilo.
+     * @param origen el vértice origen.
+     * @param destino el vértice destino.
+     * @return una trayectoria de peso mínimo entre el vértice <code>origen</code> y
+     *         el vértice <code>destino</code>. Si los vértices están en componentes
+     *         conexas distintas, regresa una lista vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     */
+    public Lista<VerticeGrafica<T>> dijkstraBidireccional(T origen, T destino) {
+
+        if(!contiene(origen))
+            throw new NoSuchElementException("El vertice " + origen + " no está en la gráfica");
+
+        if(!contiene(destino))
+            throw new NoSuchElementException("El vertice " + destino + " no está en la gráfica");
+
+        Vertice verticeOrigen = (Vertice)vertice(origen);
+        Vertice verticeDestino = (Vertice)vertice(destino);
+
+        Lista<VerticeGrafica<T>> trayectoria = new Lista<>();
+
+        if(origen.equals(destino)){
+            trayectoria.agregaFinal((VerticeGrafica<T>)verticeOrigen);
+            return trayectoria; 
         }
-        
-        return trayectoria;  
 
+        /* Los montículos de las búsquedas son de valores indexables, así que
+           el índice de cada vértice queda libre para numerarlo. */
+        int n = getElementos();
+        Vertice[] arreglo = nuevoArregloVertices(n);
+        AtomicLongArray adelante = new AtomicLongArray(n);
+        AtomicLongArray atras = new AtomicLongArray(n);
+
+        int i = 0;
+        for(Vertice vertice: vertices){
+            vertice.indice = i;
+            arreglo[i] = vertice;
+            adelante.set(i, Double.doubleToLongBits(Double.MAX_VALUE));
+            atras.set(i, Double.doubleToLongBits(Double.MAX_VALUE));
+            i++;
+        }
+
+        adelante.set(verticeOrigen.indice, Double.doubleToLongBits(0));
+        atras.set(verticeDestino.indice, Double.doubleToLongBits(0));
+
+        Encuentro encuentro = new Encuentro();
+        BusquedaDijkstra ida = new BusquedaDijkstra(verticeOrigen, true, adelante, atras, encuentro);
+        BusquedaDijkstra vuelta = new BusquedaDijkstra(verticeDestino, false, atras, adelante, encuentro);
+        ida.otra = vuelta;
+        vuelta.otra = ida;
+
+        Thread hilo = new Thread(vuelta);
+        hilo.start();
+        ida.run();
+
+        try {
+            hilo.join();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("La búsqueda desde el destino fue interrumpida");
+        }
+
+        if(encuentro.peso == Double.MAX_VALUE)
+            return trayectoria;
+
+        /* El encuentro depende de qué tan lejos llegó cada hilo; para que la
+           trayectoria no dependa de eso se sigue la búsqueda desde el origen
+           hasta el destino, que al revisarse ya tiene sus padres finales.
+           Sólo si el redondeo de pesos reales descarta toda trayectoria se
+           usa la del encuentro. */
+        ida.termina(verticeDestino.indice, encuentro.peso);
+        if(ida.revisados[verticeDestino.indice]){
+            for(int v = verticeDestino.indice; v != -1; v = ida.padres[v])
+                trayectoria.agregaInicio(arreglo[v]);
+            return trayectoria;
+        }
+
+        for(int v = encuentro.adelante; v != -1; v = ida.padres[v])
+            trayectoria.agregaInicio(arreglo[v]);
+
+        if(encuentro.atras != encuentro.adelante)
+            for(int v = encuentro.atras; v != -1; v = vuelta.padres[v])
+                trayectoria.agregaFinal(arreglo[v]);
+
+        return trayectoria;
+    }
+
+    /* Agrega al inicio de la lista los vértices de la trayectoria que
+       termina en el vértice dado, siguiendo a los padres hasta el origen. */
+    private Lista<VerticeGrafica<T>> trayectoria(Vertice destino,
+                                                 Lista<VerticeGrafica<T>> trayectoria) {
+        for(Vertice u = destino; u != null; u = u.padre)
+            trayectoria.agregaInicio(u);
+        return trayectoria;
+    }
+
+    /* Regresa la distancia guardada en el arreglo como bits de un double. */
+    private static double distancia(AtomicLongArray distancias, int i) {
+        return Double.longBitsToDouble(distancias.get(i));
+    }
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private Vertice[] nuevoArregloVertices(int n) {
+        return (Vertice[])(new Grafica.Vertice[n]);
+    }
+
+    /* Truco para crear arreglos genéricos. */
+    @SuppressWarnings("unchecked")
+    private ValorIndexable<Vertice>[] nuevoArregloValores(int n) {
+        return (ValorIndexable<Vertice>[])(new ValorIndexable[n]);
     }
 }
@@ -0,0 +1,403 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para gráficas inmutables cuyos vértices son los enteros de 0 a
+ * <i>n</i>-1, guardadas en formato CSR (<em>compressed sparse row</em>).</p>
+ *
+ * <p>Los vecinos del vértice <i>v</i> están en el arreglo de destinos, entre
+ * los índices <code>desplazamientos[v]</code> y
+ * <code>desplazamientos[v+1]</code>, y el peso de cada arista está en el
+ * mismo índice del arreglo de pesos. Así la gráfica no usa diccionarios ni
+ * envuelve a sus vértices en objetos, y los recorridos y el algoritmo de
+ * Dijkstra trabajan sólo con arreglos de enteros.</p>
+ */
+public class GraficaCSR {
+
+    /* Clase interna privada para iteradores de vecinos. */
+    private class Iterador implements Iterator<Vertice> {
+
+        /* El índice del siguiente vecino en el arreglo de destinos. */
+        private int indice;
+        /* El índice donde terminan los vecinos. */
+        private int fin;
+
+        /* Construye un iterador para los vecinos del vértice recibido. */
+        public Iterador(int vertice) {
+            indice = desplazamientos[vertice];
+            fin = desplazamientos[vertice+1];
+        }
+
+        /* Nos dice si hay un siguiente vecino. */
+        @Override public boolean hasNext() {
+            return indice < fin;
+        }
+
+        /* Regresa el siguiente vecino. */
+        @Override public Vertice next() {
+            if(indice >= fin)
+                throw new NoSuchElementException();
+            return new Vertice(destinos[indice++]);
+        }
+    }
+
+    /* Clase interna privada para vértices. Un vértice es sólo una vista de
+     * su número en la gráfica. */
+    private class Vertice implements VerticeGrafica<Integer> {
+
+        /* El número del vértice. */
+        private int vertice;
+
+        /* Crea un nuevo vértice a partir de su número. */
+        public Vertice(int vertice) {
+            this.vertice = vertice;
+        }
+
+        /* Regresa el elemento del vértice. */
+        @Override public Integer get() {
+            return vertice;
+        }
+
+        /* Regresa el grado del vértice. */
+        @Override public int getGrado() {
+            return desplazamientos[vertice+1] - desplazamientos[vertice];
+        }
+
+        /* Regresa el color del vértice; los recorridos no dejan color. */
+        @Override public Color getColor() {
+            return Color.NINGUNO;
+        }
+
+        /* Regresa un iterable para los vecinos. */
+        @Override public Iterable<? extends VerticeGrafica<Integer>> vecinos() {
+            Iterable<Vertice> iterable = () -> new Iterador(vertice);
+            return iterable;
+        }
+    }
+
+    /* Número de vértices. */
+    private int vertices;
+    /* Número de aristas. */
+    private int aristas;
+    /* Dónde empiezan los vecinos de cada vértice; tiene n+1 entradas. */
+    private int[] desplazamientos;
+    /* Los vecinos de todos los vértices, uno tras otro. */
+    private int[] destinos;
+    /* El peso de la arista hacia cada vecino. */
+    private int[] pesos;
+
+    /**
+     * Construye una gráfica a partir de una lista de aristas no dirigidas. La
+     * arista <i>i</i> conecta a <code>origenes[i]</code> con
+     * <code>destinos[i]</code> con peso <code>pesos[i]</code>. Los arreglos
+     * recibidos no se modifican, y pueden ser más grandes que el número de
+     * aristas.
+     * @param vertices el número de vértices.
+     * @param origenes el primer vértice de cada arista.
+     * @param destinos el segundo vértice de cada arista.
+     * @param pesos el peso de cada arista.
+     * @param aristas el número de aristas.
+     * @throws NoSuchElementException si algún extremo de una arista no es un
+     *         vértice de la gráfica.
+     * @throws IllegalArgumentException si una arista conecta un vértice
+     *         consigo mismo, o si tiene peso no positivo.
+     */
+    public GraficaCSR(int vertices, int[] origenes, int[] destinos,
+                      int[] pesos, int aristas) {
+        this.vertices = vertices;
+        this.aristas = aristas;
+        desplazamientos = new int[vertices+1];
+        this.destinos = new int[2*aristas];
+        this.pesos = new int[2*aristas];
+
+        /* Contamos el grado de cada vértice... */
+        for(int i = 0; i < aristas; i++){
+            int a = origenes[i];
+            int b = destinos[i];
+            if(a < 0 || a >= vertices)
+                throw new NoSuchElementException("El vertice " + a + " no está en la gráfica");
+            if(b < 0 || b >= vertices)
+                throw new NoSuchElementException("El vertice " + b + " no está en la gráfica");
+            if(a == b)
+                throw new IllegalArgumentException("No se puede conectar un vertice consigo mismo");
+            if(pesos[i] <= 0)
+                throw new IllegalArgumentException("No se pueden conectar 2 vertices con peso menor o igual a 0");
+            desplazamientos[a+1]++;
+            desplazamientos[b+1]++;
+        }
+
+        /* ...los acumulamos para saber dónde empieza cada vértice... */
+        for(int v = 0; v < vertices; v++)
+            desplazamientos[v+1] += desplazamientos[v];
+
+        /* ...y acomodamos cada arista en los dos sentidos. */
+        int[] siguiente = new int[vertices];
+        System.arraycopy(desplazamientos, 0, siguiente, 0, vertices);
+        for(int i = 0; i < aristas; i++){
+            int a = origenes[i];
+            int b = destinos[i];
+            this.destinos[siguiente[a]] = b;
+            this.pesos[siguiente[a]++] = pesos[i];
+            this.destinos[siguiente[b]] = a;
+            this.pesos[siguiente[b]++] = pesos[i];
+        }
+    }
+
+    /**
+     * Regresa el número de vértices en la gráfica.
+     * @return el número de vértices en la gráfica.
+     */
+    public int getElementos() {
+        return vertices;
+    }
+
+    /**
+     * Regresa el número de aristas.
+     * @return el número de aristas.
+     */
+    public int getAristas() {
+        return aristas;
+    }
+
+    /**
+     * Nos dice si el elemento está contenido en la gráfica.
+     * @param elemento el elemento.
+     * @return <code>true</code> si el elemento está contenido en la gráfica,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(int elemento) {
+        return elemento >= 0 && elemento < vertices;
+    }
+
+    /**
+     * Nos dice si dos elementos de la gráfica están conectados.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return <code>true</code> si a y b son vecinos, <code>false</code> en otro caso.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     */
+    public boolean sonVecinos(int a, int b) {
+        return buscaArista(a, b) != -1;
+    }
+
+    /**
+     * Regresa el peso de la arista que comparten los elementos recibidos.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return el peso de la arista que comparten los elementos.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si a o b no están conectados.
+     */
+    public int getPeso(int a, int b) {
+        int arista = buscaArista(a, b);
+        if(arista == -1)
+            throw new IllegalArgumentException("Los vertices no están concectados");
+        return pesos[arista];
+    }
+
+    /**
+     * Regresa el vértice correspondiente el elemento recibido.
+     * @param elemento el elemento del que queremos el vértice.
+     * @throws NoSuchElementException si elemento no es elemento de la gráfica.
+     * @return el vértice correspondiente el elemento recibido.
+     */
+    public VerticeGrafica<Integer> vertice(int elemento) {
+        revisaElemento(elemento);
+        return new Vertice(elemento);
+    }
+
+    /**
+     * Nos dice si la gráfica es conexa.
+     * @return <code>true</code> si la gráfica es conexa, <code>false</code> en
+     *         otro caso.
+     */
+    public boolean esConexa() {
+        if(vertices == 0)
+            return true;
+        int[] visitados = { 0 };
+        bfs(0, v -> visitados[0]++);
+        return visitados[0] == vertices;
+    }
+
+    /**
+     * Realiza la acción recibida en todos los vértices de la gráfica alcanzables
+     * desde el elemento recibido, en el orden determinado por BFS.
+     * @param elemento el elemento sobre cuyo vértice queremos comenzar el
+     *        recorrido.
+     * @param accion la acción a realizar.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public void bfs(int elemento, AccionVerticeGrafica<Integer> accion) {
+        recorreGrafica(elemento, accion, true);
+    }
+
+    /**
+     * Realiza la acción recibida en todos los vértices de la gráfica alcanzables
+     * desde el elemento recibido, en el orden determinado por DFS.
+     * @param elemento el elemento sobre cuyo vértice queremos comenzar el
+     *        recorrido.
+     * @param accion la acción a realizar.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public void dfs(int elemento, AccionVerticeGrafica<Integer> accion) {
+        recorreGrafica(elemento, accion, false);
+    }
+
+    /**
+     * Metodo auxiliar para implementar BFS o DFS. Usa un mismo arreglo como
+     * cola o como pila; como cada vértice se mete a lo más una vez, basta con
+     * un arreglo de tamaño <i>n</i>.
+     * @param elemento el elemento con el que se comienza el recorrido.
+     * @param accion la accion a realizar para cada vertice de la gráfica.
+     * @param cola si el arreglo se usa como cola (BFS) o como pila (DFS).
+     */
+    private void recorreGrafica(int elemento, AccionVerticeGrafica<Integer> accion,
+                                boolean cola) {
+        revisaElemento(elemento);
+        boolean[] descubiertos = new boolean[vertices];
+        int[] estructura = new int[vertices];
+        int cabeza = 0;
+        int rabo = 0;
+
+        descubiertos[elemento] = true;
+        estructura[rabo++] = elemento;
+
+        while(cabeza < rabo){
+            int v = cola ? estructura[cabeza++] : estructura[--rabo];
+            accion.actua(new Vertice(v));
+            for(int i = desplazamientos[v]; i < desplazamientos[v+1]; i++){
+                int u = destinos[i];
+                if(!descubiertos[u]){
+                    descubiertos[u] = true;
+                    estructura[rabo++] = u;
+                }
+            }
+        }
+    }
+
+    /**
+     * Calcula una trayectoria de distancia mínima entre dos vértices.
+     * @param origen el vértice de origen.
+     * @param destino el vértice de destino.
+     * @return Una lista con vértices de la gráfica, tal que forman una
+     *         trayectoria de distancia mínima entre los vértices <code>a</code> y
+     *         <code>b</code>. Si los elementos se encuentran en componentes conexos
+     *         distintos, el algoritmo regresa una lista vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     */
+    public Lista<VerticeGrafica<Integer>> trayectoriaMinima(int origen, int destino) {
+        revisaElemento(origen);
+        revisaElemento(destino);
+
+        int[] padres = nuevosPadres();
+        int[] cola = new int[vertices];
+        int cabeza = 0;
+        int rabo = 0;
+
+        padres[origen] = origen;
+        cola[rabo++] = origen;
+
+        while(cabeza < rabo && padres[destino] == -1){
+            int v = cola[cabeza++];
+            for(int i = desplazamientos[v]; i < desplazamientos[v+1]; i++){
+                int u = destinos[i];
+                if(padres[u] == -1){
+                    padres[u] = v;
+                    cola[rabo++] = u;
+                }
+            }
+        }
+
+        return reconstruyeTrayectoria(padres, origen, destino);
+    }
+
+    /**
+     * Calcula la ruta de peso mínimo entre el elemento de origen y el elemento
+     * de destino. El algoritmo termina en cuanto el destino sale del
+     * montículo.
+     * @param origen el vértice origen.
+     * @param destino el vértice destino.
+     * @return una trayectoria de peso mínimo entre el vértice <code>origen</code> y
+     *         el vértice <code>destino</code>. Si los vértices están en componentes
+     *         conexas distintas, regresa una lista vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     */
+    public Lista<VerticeGrafica<Integer>> dijkstra(int origen, int destino) {
+        revisaElemento(origen);
+        revisaElemento(destino);
+
+        int[] padres = nuevosPadres();
+        long[] distancias = new long[vertices];
+        for(int v = 0; v < vertices; v++)
+            distancias[v] = Long.MAX_VALUE;
+
+        MonticuloIndexado monticulo = new MonticuloIndexado(vertices);
+
+        padres[origen] = origen;
+        distancias[origen] = 0;
+        monticulo.agrega(origen, 0);
+
+        while(!monticulo.esVacia()){
+            int v = monticulo.elimina();
+            if(v == destino)
+                break;
+            for(int i = desplazamientos[v]; i < desplazamientos[v+1]; i++){
+                int u = destinos[i];
+                long distancia = distancias[v] + pesos[i];
+                if(distancia < distancias[u]){
+                    distancias[u] = distancia;
+                    padres[u] = v;
+                    monticulo.reordena(u, distancia);
+                }
+            }
+        }
+
+        return reconstruyeTrayectoria(padres, origen, destino);
+    }
+
+    /* Regresa un arreglo de padres donde ningún vértice ha sido alcanzado. */
+    private int[] nuevosPadres() {
+        int[] padres = new int[vertices];
+        for(int v = 0; v < vertices; v++)
+            padres[v] = -1;
+        return padres;
+    }
+
+    /* Reconstruye la trayectoria del origen al destino siguiendo a los
+     * padres desde el destino. */
+    private Lista<VerticeGrafica<Integer>> reconstruyeTrayectoria(int[] padres,
+                                                                 int origen,
+                                                                 int destino) {
+        Lista<VerticeGrafica<Integer>> trayectoria = new Lista<>();
+        if(padres[destino] == -1)
+            return trayectoria;
+
+        int v = destino;
+        trayectoria.agregaInicio(new Vertice(v));
+        while(v != origen){
+            v = padres[v];
+            trayectoria.agregaInicio(new Vertice(v));
+        }
+        return trayectoria;
+    }
+
+    /* Regresa el índice de la arista de a hacia b, o -1 si no existe. */
+    private int buscaArista(int a, int b) {
+        revisaElemento(a);
+        revisaElemento(b);
+        for(int i = desplazamientos[a]; i < desplazamientos[a+1]; i++)
+            if(destinos[i] == b)
+                return i;
+        return -1;
+    }
+
+    /* Lanza NoSuchElementException si el elemento no está en la gráfica. */
+    private void revisaElemento(int elemento) {
+        if(!contiene(elemento))
+            throw new NoSuchElementException("El vertice " + elemento + " no está en la gráfica");
+    }
+}
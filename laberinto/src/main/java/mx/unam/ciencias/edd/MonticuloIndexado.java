@@ -0,0 +1,191 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Clase para montículos mínimos indexados de enteros. Los elementos son los
+ * enteros de 0 a <i>n</i>-1 y cada uno tiene un valor entero largo; a
+ * diferencia de {@link MonticuloMinimo}, no hace falta envolver a los
+ * elementos en objetos {@link ComparableIndexable}, pues el índice de cada
+ * elemento en el árbol se guarda en un arreglo.
+ *
+ * Entre dos elementos con el mismo valor va primero el menor, así que el
+ * orden en que se eliminan los elementos sólo depende de sus valores, y no de
+ * qué otros elementos se agregaron ni de la forma del árbol.
+ */
+public class MonticuloIndexado {
+
+    /* El número de elementos en el árbol. */
+    private int elementos;
+    /* El árbol, como arreglo de elementos. */
+    private int[] arbol;
+    /* El índice de cada elemento en el árbol, o -1 si no está. */
+    private int[] indices;
+    /* El valor de cada elemento. */
+    private long[] valores;
+
+    /**
+     * Construye un montículo vacío para los elementos de 0 a <i>n</i>-1.
+     * @param n el número de elementos que puede tener el montículo.
+     */
+    public MonticuloIndexado(int n) {
+        arbol = new int[n];
+        indices = new int[n];
+        valores = new long[n];
+        for(int i = 0; i < n; i++)
+            indices[i] = -1;
+    }
+
+    /**
+     * Agrega un elemento al montículo con el valor dado.
+     * @param elemento el elemento a agregar.
+     * @param valor el valor del elemento.
+     * @throws IllegalArgumentException si el elemento ya está en el montículo.
+     */
+    public void agrega(int elemento, long valor) {
+        if(indices[elemento] != -1)
+            throw new IllegalArgumentException("El elemento " + elemento +
+                                               " ya está en el montículo");
+        arbol[elementos] = elemento;
+        indices[elemento] = elementos;
+        valores[elemento] = valor;
+        elementos++;
+        acomodaHaciaArriba(elementos-1);
+    }
+
+    /**
+     * Cambia el valor de un elemento del montículo y lo reordena; si el
+     * elemento no está en el montículo, lo agrega.
+     * @param elemento el elemento a reordenar.
+     * @param valor el nuevo valor del elemento.
+     */
+    public void reordena(int elemento, long valor) {
+        if(indices[elemento] == -1){
+            agrega(elemento, valor);
+            return;
+        }
+        long anterior = valores[elemento];
+        valores[elemento] = valor;
+        if(valor < anterior)
+            acomodaHaciaArriba(indices[elemento]);
+        else
+            acomodaHaciaAbajo(indices[elemento]);
+    }
+
+    /**
+     * Elimina el elemento mínimo del montículo.
+     * @return el elemento mínimo del montículo.
+     * @throws IllegalStateException si el montículo es vacío.
+     */
+    public int elimina() {
+        if(elementos == 0)
+            throw new IllegalStateException("No se puede eliminar un elemento " +
+                                            "de un monticulo vacío");
+        int minimo = arbol[0];
+        elementos--;
+        if(elementos > 0){
+            arbol[0] = arbol[elementos];
+            indices[arbol[0]] = 0;
+            acomodaHaciaAbajo(0);
+        }
+        indices[minimo] = -1;
+        return minimo;
+    }
+
+    /**
+     * Regresa el valor del elemento mínimo del montículo, sin eliminarlo.
+     * @return el valor del elemento mínimo del montículo.
+     * @throws NoSuchElementException si el montículo es vacío.
+     */
+    public long getValorMinimo() {
+        if(elementos == 0)
+            throw new NoSuchElementException("El montículo es vacío");
+        return valores[arbol[0]];
+    }
+
+    /**
+     * Regresa el último valor que tuvo el elemento en el montículo.
+     * @param elemento el elemento.
+     * @return el último valor del elemento.
+     */
+    public long getValor(int elemento) {
+        return valores[elemento];
+    }
+
+    /**
+     * Nos dice si un elemento está contenido en el montículo.
+     * @param elemento el elemento.
+     * @return <code>true</code> si el elemento está contenido,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(int elemento) {
+        return indices[elemento] != -1;
+    }
+
+    /**
+     * Nos dice si el montículo es vacío.
+     * @return <code>true</code> si ya no hay elementos en el montículo,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en el montículo.
+     * @return el número de elementos en el montículo.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Limpia el montículo de elementos, dejándolo vacío.
+     */
+    public void limpia() {
+        for(int i = 0; i < elementos; i++)
+            indices[arbol[i]] = -1;
+        elementos = 0;
+    }
+
+    /* Nos dice si el elemento a va antes que el b: si tiene menor valor, o el
+     * mismo valor y es menor. */
+    private boolean menor(int a, int b) {
+        return valores[a] < valores[b] || (valores[a] == valores[b] && a < b);
+    }
+
+    /* Sube el elemento en el índice dado mientras sea menor que su padre. */
+    private void acomodaHaciaArriba(int indice) {
+        int elemento = arbol[indice];
+        while(indice > 0){
+            int padre = (indice-1) / 2;
+            if(!menor(elemento, arbol[padre]))
+                break;
+            arbol[indice] = arbol[padre];
+            indices[arbol[indice]] = indice;
+            indice = padre;
+        }
+        arbol[indice] = elemento;
+        indices[elemento] = indice;
+    }
+
+    /* Baja el elemento en el índice dado mientras sea mayor que alguno de
+     * sus hijos. */
+    private void acomodaHaciaAbajo(int indice) {
+        int elemento = arbol[indice];
+        while(true){
+            int hijo = 2*indice + 1;
+            if(hijo >= elementos)
+                break;
+            if(hijo+1 < elementos && menor(arbol[hijo+1], arbol[hijo]))
+                hijo++;
+            if(!menor(arbol[hijo], elemento))
+                break;
+            arbol[indice] = arbol[hijo];
+            indices[arbol[indice]] = indice;
+            indice = hijo;
+        }
+        arbol[indice] = elemento;
+        indices[elemento] = indice;
+    }
+}
@@ -0,0 +1,45 @@
+package mx.unam.ciencias.edd.laberinto;
+
+import java.util.Random;
+
+/**
+ * Generador de números aleatorios con {@link Random}. Es el generador por
+ * omisión, con el que una semilla produce el mismo laberinto que siempre.
+ */
+public class AleatorioJava implements GeneradorAleatorio {
+
+    /* El RNG */
+    private Random random;
+
+    /**
+     * Constructor.
+     * 
+     * @param semilla la semilla del generador.
+     */
+    public AleatorioJava(long semilla) {
+        random = new Random(semilla);
+    }
+
+    @Override
+    public int siguienteEntero(int limite) {
+        return random.nextInt(limite);
+    }
+
+    @Override
+    public boolean siguienteBooleano() {
+        return random.nextBoolean();
+    }
+
+    @Override
+    public long siguienteLargo() {
+        return random.nextLong();
+    }
+
+    /**
+     * Regresa un generador con una semilla tomada de éste.
+     */
+    @Override
+    public GeneradorAleatorio divide() {
+        return new AleatorioJava(random.nextLong());
+    }
+}
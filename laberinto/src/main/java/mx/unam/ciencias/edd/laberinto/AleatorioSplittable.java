@@ -0,0 +1,51 @@
+package mx.unam.ciencias.edd.laberinto;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generador de números aleatorios con {@link SplittableRandom}, que no
+ * sincroniza su estado y se divide en generadores independientes.
+ */
+public class AleatorioSplittable implements GeneradorAleatorio {
+
+    /* El RNG */
+    private SplittableRandom random;
+
+    /**
+     * Constructor.
+     * 
+     * @param semilla la semilla del generador.
+     */
+    public AleatorioSplittable(long semilla) {
+        random = new SplittableRandom(semilla);
+    }
+
+    /**
+     * Constructor que envuelve a un generador ya existente.
+     * 
+     * @param random el generador.
+     */
+    private AleatorioSplittable(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public int siguienteEntero(int limite) {
+        return random.nextInt(limite);
+    }
+
+    @Override
+    public boolean siguienteBooleano() {
+        return random.nextBoolean();
+    }
+
+    @Override
+    public long siguienteLargo() {
+        return random.nextLong();
+    }
+
+    @Override
+    public GeneradorAleatorio divide() {
+        return new AleatorioSplittable(random.split());
+    }
+}
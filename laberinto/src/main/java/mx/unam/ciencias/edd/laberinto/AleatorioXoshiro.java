@@ -0,0 +1,131 @@
+package mx.unam.ciencias.edd.laberinto;
+
+/**
+ * Generador de números aleatorios xoshiro256** de Blackman y Vigna. El estado
+ * son cuatro enteros largos que se inicializan con SplitMix64 a partir de la
+ * semilla. Para dividirlo, el generador nuevo se queda con la secuencia
+ * actual y éste salta 2<sup>128</sup> números hacia adelante, así que las
+ * secuencias de ambos nunca se traslapan.
+ */
+public class AleatorioXoshiro implements GeneradorAleatorio {
+
+    /* El polinomio del salto de 2^128 números */
+    private static final long[] SALTO = {
+            0x180ec6d33cfd0abaL, 0xd5a61266f0c9392cL,
+            0xa9582618e03fc9aaL, 0x39abdc4529b1661cL
+    };
+
+    /* El estado del generador */
+    private long s0, s1, s2, s3;
+
+    /**
+     * Constructor.
+     * 
+     * @param semilla la semilla del generador.
+     */
+    public AleatorioXoshiro(long semilla) {
+        s0 = splitMix(semilla += 0x9E3779B97F4A7C15L);
+        s1 = splitMix(semilla += 0x9E3779B97F4A7C15L);
+        s2 = splitMix(semilla += 0x9E3779B97F4A7C15L);
+        s3 = splitMix(semilla + 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * Constructor que copia el estado de otro generador.
+     * 
+     * @param otro el generador a copiar.
+     */
+    private AleatorioXoshiro(AleatorioXoshiro otro) {
+        s0 = otro.s0;
+        s1 = otro.s1;
+        s2 = otro.s2;
+        s3 = otro.s3;
+    }
+
+    /**
+     * La función de mezcla de SplitMix64.
+     * 
+     * @param z el valor a mezclar.
+     * @return el valor mezclado.
+     */
+    private static long splitMix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public long siguienteLargo() {
+        long resultado = Long.rotateLeft(s1 * 5, 7) * 9;
+        long t = s1 << 17;
+
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+
+        return resultado;
+    }
+
+    /**
+     * Regresa un entero aleatorio en [0, limite) con el método de Lemire:
+     * se multiplica un número de 32 bits por el límite y se toman los 32 bits
+     * altos, rechazando los pocos valores que sesgarían el resultado.
+     */
+    @Override
+    public int siguienteEntero(int limite) {
+        if (limite <= 0)
+            throw new IllegalArgumentException("El limite debe ser positivo");
+
+        long m = (siguienteLargo() >>> 32) * limite;
+        long bajos = m & 0xFFFFFFFFL;
+
+        if (bajos < limite) {
+            long umbral = (0x100000000L - limite) % limite;
+            while (bajos < umbral) {
+                m = (siguienteLargo() >>> 32) * limite;
+                bajos = m & 0xFFFFFFFFL;
+            }
+        }
+
+        return (int) (m >>> 32);
+    }
+
+    @Override
+    public boolean siguienteBooleano() {
+        return siguienteLargo() < 0;
+    }
+
+    @Override
+    public GeneradorAleatorio divide() {
+        AleatorioXoshiro otro = new AleatorioXoshiro(this);
+        salta();
+        return otro;
+    }
+
+    /**
+     * Avanza el generador 2<sup>128</sup> números.
+     */
+    private void salta() {
+        long t0 = 0, t1 = 0, t2 = 0, t3 = 0;
+
+        for (long palabra : SALTO) {
+            for (int b = 0; b < 64; b++) {
+                if ((palabra & (1L << b)) != 0) {
+                    t0 ^= s0;
+                    t1 ^= s1;
+                    t2 ^= s2;
+                    t3 ^= s3;
+                }
+                siguienteLargo();
+            }
+        }
+
+        s0 = t0;
+        s1 = t1;
+        s2 = t2;
+        s3 = t3;
+    }
+}
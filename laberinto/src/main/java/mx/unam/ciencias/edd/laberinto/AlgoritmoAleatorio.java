@@ -0,0 +1,97 @@
+package mx.unam.ciencias.edd.laberinto;
+
+import java.util.Random;
+
+/*
+ * Enumeracion para los generadores de números aleatorios con los que se puede
+ * generar un laberinto.
+ */
+public enum AlgoritmoAleatorio {
+
+    /* java.util.Random, con el que las semillas producen los laberintos de siempre */
+    RANDOM("random"),
+
+    /* java.util.SplittableRandom */
+    SPLITTABLE("splittable"),
+
+    /* xoshiro256** */
+    XOSHIRO("xoshiro");
+
+    /* el nombre del algoritmo en la linea de comandos */
+    private String nombre;
+
+    /**
+     * Constructor.
+     *
+     * @param nombre el nombre del algoritmo en la linea de comandos.
+     */
+    private AlgoritmoAleatorio(String nombre) {
+        this.nombre = nombre;
+    }
+
+    /**
+     * Regresa el nombre del algoritmo en la linea de comandos.
+     *
+     * @return el nombre del algoritmo.
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Regresa un generador de números aleatorios de este tipo con la semilla
+     * dada.
+     *
+     * @param semilla la semilla del generador.
+     * @return el generador.
+     */
+    public GeneradorAleatorio generador(long semilla) {
+        switch (this) {
+            case SPLITTABLE:
+                return new AleatorioSplittable(semilla);
+            case XOSHIRO:
+                return new AleatorioXoshiro(semilla);
+            default:
+                return new AleatorioJava(semilla);
+        }
+    }
+
+    /**
+     * Regresa un generador de números aleatorios de este tipo con una
+     * semilla distinta en cada ejecución.
+     *
+     * @return el generador.
+     */
+    public GeneradorAleatorio generador() {
+        return generador(new Random().nextLong());
+    }
+
+    /**
+     * Regresa el algoritmo con el nombre dado.
+     *
+     * @param nombre el nombre del algoritmo en la linea de comandos.
+     * @return el algoritmo con ese nombre.
+     * @throws ExcepcionParametroInvalido si ningún algoritmo tiene ese nombre.
+     */
+    public static AlgoritmoAleatorio deNombre(String nombre) {
+        for (AlgoritmoAleatorio algoritmo : values())
+            if (algoritmo.nombre.equals(nombre))
+                return algoritmo;
+
+        throw new ExcepcionParametroInvalido("El generador aleatorio " + nombre + " no es valido");
+    }
+
+    /**
+     * Regresa los nombres de todos los algoritmos separados por '|'.
+     *
+     * @return los nombres de los algoritmos.
+     */
+    public static String nombres() {
+        String s = "";
+        for (AlgoritmoAleatorio algoritmo : values())
+            s += (s.isEmpty() ? "" : "|") + algoritmo.nombre;
+
+        return s;
+    }
+
+}
@@ -0,0 +1,72 @@
+package mx.unam.ciencias.edd.laberinto;
+
+/*
+ * Enumeracion para los algoritmos con los que se puede generar un laberinto.
+ */
+public enum AlgoritmoGenerador {
+
+    /* Búsqueda en profundidad que rompe paredes hacia cuartos sin visitar */
+    BACKTRACKER("backtracker"),
+
+    /* Kruskal aleatorio: paredes en orden aleatorio y unión-búsqueda */
+    KRUSKAL("kruskal"),
+
+    /* Prim aleatorio: crece el laberinto desde una frontera de cuartos */
+    PRIM("prim"),
+
+    /* Eller: renglón por renglón, guardando sólo el renglón actual */
+    ELLER("eller"),
+
+    /* Mosaicos generados en paralelo y unidos con un árbol generador */
+    MOSAICO("mosaico");
+
+    /* el nombre del algoritmo en la linea de comandos */
+    private String nombre;
+
+    /**
+     * Constructor.
+     *
+     * @param nombre el nombre del algoritmo en la linea de comandos.
+     */
+    private AlgoritmoGenerador(String nombre) {
+        this.nombre = nombre;
+    }
+
+    /**
+     * Regresa el nombre del algoritmo en la linea de comandos.
+     *
+     * @return el nombre del algoritmo.
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Regresa el algoritmo con el nombre dado.
+     *
+     * @param nombre el nombre del algoritmo en la linea de comandos.
+     * @return el algoritmo con ese nombre.
+     * @throws ExcepcionParametroInvalido si ningún algoritmo tiene ese nombre.
+     */
+    public static AlgoritmoGenerador deNombre(String nombre) {
+        for (AlgoritmoGenerador algoritmo : values())
+            if (algoritmo.nombre.equals(nombre))
+                return algoritmo;
+
+        throw new ExcepcionParametroInvalido("El algoritmo " + nombre + " no es valido");
+    }
+
+    /**
+     * Regresa los nombres de todos los algoritmos separados por '|'.
+     *
+     * @return los nombres de los algoritmos.
+     */
+    public static String nombres() {
+        String s = "";
+        for (AlgoritmoGenerador algoritmo : values())
+            s += (s.isEmpty() ? "" : "|") + algoritmo.nombre;
+
+        return s;
+    }
+
+}
@@ -0,0 +1,75 @@
+package mx.unam.ciencias.edd.laberinto;
+
+/*
+ * Enumeracion para los algoritmos con los que se puede resolver un laberinto.
+ */
+public enum AlgoritmoResolvedor {
+
+    /* Dijkstra sobre la gráfica con diccionarios */
+    DIJKSTRA("dijkstra"),
+
+    /* Dijkstra sobre la gráfica inmutable en formato CSR */
+    CSR("csr"),
+
+    /* Algoritmo de Dial directamente sobre los bytes de los cuartos */
+    DIAL("dial"),
+
+    /* A* con la distancia Manhattan al cuarto final como heurística */
+    A_ESTRELLA("a-estrella"),
+
+    /* Dijkstra desde la entrada y desde la salida en dos hilos */
+    BIDIRECCIONAL("bidireccional"),
+
+    /* Delta-stepping sobre los bytes de los cuartos, relajando en paralelo */
+    DELTA("delta");
+
+    /* el nombre del algoritmo en la linea de comandos */
+    private String nombre;
+
+    /**
+     * Constructor.
+     *
+     * @param nombre el nombre del algoritmo en la linea de comandos.
+     */
+    private AlgoritmoResolvedor(String nombre) {
+        this.nombre = nombre;
+    }
+
+    /**
+     * Regresa el nombre del algoritmo en la linea de comandos.
+     *
+     * @return el nombre del algoritmo.
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Regresa el algoritmo con el nombre dado.
+     *
+     * @param nombre el nombre del algoritmo en la linea de comandos.
+     * @return el algoritmo con ese nombre.
+     * @throws ExcepcionParametroInvalido si ningún algoritmo tiene ese nombre.
+     */
+    public static AlgoritmoResolvedor deNombre(String nombre) {
+        for (AlgoritmoResolvedor algoritmo : values())
+            if (algoritmo.nombre.equals(nombre))
+                return algoritmo;
+
+        throw new ExcepcionParametroInvalido("El resolvedor " + nombre + " no es valido");
+    }
+
+    /**
+     * Regresa los nombres de todos los algoritmos separados por '|'.
+     *
+     * @return los nombres de los algoritmos.
+     */
+    public static String nombres() {
+        String s = "";
+        for (AlgoritmoResolvedor algoritmo : values())
+            s += (s.isEmpty() ? "" : "|") + algoritmo.nombre;
+
+        return s;
+    }
+
+}
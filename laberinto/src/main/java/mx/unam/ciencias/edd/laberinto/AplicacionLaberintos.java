@@ -1,7 +1,12 @@
 package mx.unam.ciencias.edd.laberinto;
 
+import java.io.BufferedOutputStream;
 import java.io.InputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 /*
  * Clase para administrar el modo en el cual se ejecutará
@@ -9,6 +14,12 @@ import java.io.IOException;
  */
 public class AplicacionLaberintos {
 
+    /* el número máximo de bytes de la caché de soluciones en memoria */
+    private static final long MAXIMO_CACHE_MEMORIA = 64L << 20;
+
+    /* el número máximo de megabytes de la caché de soluciones en disco */
+    private static final long MAXIMO_CACHE_DISCO = 256;
+
     /* numero de columnas del laberinto */
     private int columnas;
 
@@ -30,6 +41,93 @@ public class AplicacionLaberintos {
     /* para saber si el usuario colocó la bandera -w */
     private boolean bandera_w;
 
+    /* para saber si el usuario colocó la bandera --resolvedor */
+    private boolean bandera_r;
+
+    /* para saber si el usuario colocó la bandera -f */
+    private boolean bandera_f;
+
+    /* el formato con el que se escribirá el laberinto generado */
+    private FormatoLaberinto formato = FormatoLaberinto.MAZE;
+
+    /* para saber si el usuario colocó la bandera --algoritmo */
+    private boolean bandera_a;
+
+    /* el algoritmo con el que se generará el laberinto */
+    private AlgoritmoGenerador algoritmo = AlgoritmoGenerador.BACKTRACKER;
+
+    /* para saber si el usuario colocó la bandera --rng */
+    private boolean bandera_x;
+
+    /* el generador de números aleatorios con el que se generará el laberinto */
+    private AlgoritmoAleatorio aleatorio = AlgoritmoAleatorio.RANDOM;
+
+    /* para saber si el usuario colocó la bandera --svg */
+    private boolean bandera_v;
+
+    /* para saber si el usuario colocó la bandera --mze */
+    private boolean bandera_m;
+
+    /* el archivo donde se escribe el laberinto generado con --svg */
+    private Path archivoMze;
+
+    /* para saber si el usuario colocó la bandera -n, o un rango de semillas */
+    private boolean bandera_n;
+
+    /* el número de laberintos que se generarán */
+    private int cantidad = 1;
+
+    /* para saber si el usuario colocó la bandera --directorio */
+    private boolean bandera_d;
+
+    /* el directorio donde se escriben los laberintos generados con -n */
+    private Path directorioLaberintos;
+
+    /* para saber si el usuario colocó la bandera --lote */
+    private boolean bandera_l;
+
+    /* el directorio con los archivos .mze del lote */
+    private Path directorioEntrada;
+
+    /* el directorio donde se escriben los archivos .svg del lote */
+    private Path directorioSalida;
+
+    /* para saber si el usuario colocó la bandera --hilos */
+    private boolean bandera_t;
+
+    /* el número de hilos con los que se resuelve el lote */
+    private int hilos = Runtime.getRuntime().availableProcessors();
+
+    /* para saber si el usuario colocó la bandera --estadisticas */
+    private boolean bandera_e;
+
+    /* para saber si el usuario colocó la bandera --cache */
+    private boolean bandera_c;
+
+    /* el directorio de la caché de soluciones en disco */
+    private Path directorioCache;
+
+    /* para saber si el usuario colocó la bandera --cache-maximo */
+    private boolean bandera_k;
+
+    /* el número máximo de megabytes de la caché de soluciones en disco */
+    private long maximoCache = MAXIMO_CACHE_DISCO;
+
+    /* para saber si el usuario colocó la bandera --arbol */
+    private boolean bandera_b;
+
+    /* el archivo donde se escribe el árbol de trayectorias a la salida */
+    private Path archivoArbol;
+
+    /* para saber si el usuario colocó la bandera --verificar */
+    private boolean bandera_i;
+
+    /* para saber si el usuario colocó la bandera --podar */
+    private boolean bandera_p;
+
+    /* el algoritmo con el que se resolverá el laberinto */
+    private AlgoritmoResolvedor resolvedor = AlgoritmoResolvedor.DIJKSTRA;
+
     /* para saber en que modo ejectuar el programa */
     private boolean entradaEstandar;
 
@@ -40,41 +138,115 @@ public class AplicacionLaberintos {
      */
     public AplicacionLaberintos(String[] args) {
 
-        if (args.length == 0) {
+        inicializaPropieades(args);
+
+        boolean generar = bandera_g || bandera_w || bandera_h || bandera_s || bandera_f || bandera_a || bandera_x
+                || bandera_v || bandera_m || bandera_n || bandera_d;
+
+        if (bandera_i && args.length > 1)
+            throw new ExcepcionParametroInvalido("La bandera '--verificar' no sirve con otras banderas");
+
+        if (bandera_l && bandera_p)
+            throw new ExcepcionParametroInvalido("La bandera '--podar' no sirve con '--lote'");
+
+        if ((generar || bandera_l) && bandera_b)
+            throw new ExcepcionParametroInvalido("La bandera '--arbol' solo sirve para resolver un laberinto");
+
+        if (generar && (bandera_c || bandera_k))
+            throw new ExcepcionParametroInvalido("La bandera '--cache' solo sirve para resolver laberintos");
+
+        if (bandera_k && !bandera_c)
+            throw new ExcepcionParametroInvalido("La bandera '--cache-maximo' solo sirve con '--cache'");
+
+        if (maximoCache < 1)
+            throw new ExcepcionParametroInvalido("El tamano maximo de la cache debe ser al menos 1 MB");
+
+        if (bandera_l) {
+            if (generar)
+                throw new ExcepcionParametroInvalido("La bandera '--lote' solo sirve para resolver laberintos");
+            if (bandera_e)
+                throw new ExcepcionParametroInvalido("La bandera '--estadisticas' no sirve con '--lote'");
+            if (hilos < 1)
+                throw new ExcepcionParametroInvalido("El numero de hilos debe ser al menos 1");
+            return;
+        }
+
+        if (bandera_t && algoritmo != AlgoritmoGenerador.MOSAICO && !bandera_n
+                && resolvedor != AlgoritmoResolvedor.DELTA)
+            throw new ExcepcionParametroInvalido("La bandera '--hilos' solo sirve con '--lote', " +
+                    "con '-n', con '--algoritmo mosaico' o con '--resolvedor delta'");
+
+        if (hilos < 1)
+            throw new ExcepcionParametroInvalido("El numero de hilos debe ser al menos 1");
+
+        if (!generar) {
             entradaEstandar = true;
-        } else {
-            inicializaPropieades(args);
+            return;
+        }
 
-            if (!bandera_g)
-                throw new IllegalArgumentException("No se especificó la bandera -g");
+        if (!bandera_g)
+            throw new IllegalArgumentException("No se especificó la bandera -g");
 
-            if (!bandera_w)
-                throw new IllegalArgumentException("No se especificó la bandera -w");
+        if (!bandera_w)
+            throw new IllegalArgumentException("No se especificó la bandera -w");
 
-            if (!bandera_h)
-                throw new IllegalArgumentException("No se especificó la bandera -h");
+        if (!bandera_h)
+            throw new IllegalArgumentException("No se especificó la bandera -h");
 
-            if (filas > 255 || filas < 2) {
-                throw new IndexOutOfBoundsException("El rango valido para las " +
-                        "filas del laberinto es 2 <= filas <= 255 ");
-            }
+        if (bandera_r && !bandera_v)
+            throw new ExcepcionParametroInvalido("La bandera '--resolvedor' solo sirve para resolver un laberinto");
 
-            if (columnas > 255 || columnas < 2) {
-                throw new IndexOutOfBoundsException("El rango valido para las " +
-                        "columnas del laberinto es 2 <= columnas <= 255 ");
-            }
+        if (bandera_p && !bandera_v)
+            throw new ExcepcionParametroInvalido("La bandera '--podar' solo sirve para resolver un laberinto");
+
+        if (bandera_e && !bandera_v)
+            throw new ExcepcionParametroInvalido("La bandera '--estadisticas' solo sirve para resolver un laberinto");
+
+        if (bandera_m && !bandera_v)
+            throw new ExcepcionParametroInvalido("La bandera '--mze' solo sirve con '--svg'");
+
+        if (bandera_n && !bandera_s)
+            throw new ExcepcionParametroInvalido("Para generar varios laberintos hace falta la " +
+                    "semilla del primero con '-s'");
+
+        if (bandera_n && bandera_v)
+            throw new ExcepcionParametroInvalido("La bandera '--svg' solo sirve para un laberinto");
 
-            if ((!bandera_s && args.length != 5)
-                    || (bandera_s && args.length != 7))
-                ProyectoLaberinto.uso();
+        if (bandera_d && !bandera_n)
+            throw new ExcepcionParametroInvalido("La bandera '--directorio' solo sirve con '-n'");
+
+        if (cantidad < 1)
+            throw new ExcepcionParametroInvalido("El numero de laberintos debe ser al menos 1");
+
+        if ((long) semilla + cantidad - 1 > Integer.MAX_VALUE)
+            throw new ExcepcionParametroInvalido("La ultima semilla no puede ser mayor a " + Integer.MAX_VALUE);
+
+        int maximo = formato.getMaximoLado();
+
+        if (filas > maximo || filas < 2) {
+            throw new IndexOutOfBoundsException("El rango valido para las " +
+                    "filas del laberinto es 2 <= filas <= " + maximo + " ");
+        }
+
+        if (columnas > maximo || columnas < 2) {
+            throw new IndexOutOfBoundsException("El rango valido para las " +
+                    "columnas del laberinto es 2 <= columnas <= " + maximo + " ");
+        }
+
+        if ((long) filas * columnas > FormatoLaberinto.MAXIMO_CUARTOS) {
+            throw new IndexOutOfBoundsException("El laberinto no puede tener mas de " +
+                    FormatoLaberinto.MAXIMO_CUARTOS + " cuartos");
         }
 
     }
 
     /**
-     * Busca las banderas "-s", "-w", "-h" y "-g" en los argumentos
-     * propocioandos por el usuario, para con estas poder
-     * determinar como crear el laberinto.
+     * Busca las banderas "-s", "-w", "-h", "-g", "-f", "-n", "--directorio",
+     * "--algoritmo", "--rng", "--svg", "--mze", "--resolvedor",
+     * "--estadisticas", "--lote", "--hilos", "--cache", "--cache-maximo",
+     * "--arbol", "--podar" y "--verificar" en los
+     * argumentos propocioandos por el usuario, para con estas poder
+     * determinar como crear o resolver el laberinto.
      * 
      * @param args arguementos de la linea de comandos.
      */
@@ -96,12 +268,30 @@ public class AplicacionLaberintos {
                     else
                         throw new ExcepcionParametroInvalido("No puede haber 2 banderas 's");
 
-                    semilla = Integer.parseInt(args[i + 1]);
+                    String valor = args[++i];
+                    int rango = valor.indexOf("..");
+
+                    if (rango < 0) {
+                        semilla = Integer.parseInt(valor);
+                    } else {
+                        if (bandera_n)
+                            throw new ExcepcionParametroInvalido("No se puede usar un rango de " +
+                                    "semillas junto con '-n'");
+
+                        semilla = Integer.parseInt(valor.substring(0, rango));
+                        long ultima = Integer.parseInt(valor.substring(rango + 2));
+                        if (ultima < semilla)
+                            throw new ExcepcionParametroInvalido("El rango de semillas " + valor + " es vacio");
+
+                        bandera_n = true;
+                        cantidad = (int) Math.min(ultima - semilla + 1, Integer.MAX_VALUE);
+                    }
                 } catch (ArrayIndexOutOfBoundsException e) {
                     throw new ArrayIndexOutOfBoundsException("Despues de la bandera " +
-                            "'-s' debe de ir una semilla para el generador");
+                            "'-s' debe de ir una semilla para el generador o un rango " +
+                            "<primera>..<ultima>");
                 } catch (NumberFormatException e) {
-                    throw new NumberFormatException("La semilla " + args[i + 1] + " no es valida");
+                    throw new NumberFormatException("La semilla " + args[i] + " no es valida");
                 }
             }
 
@@ -112,12 +302,12 @@ public class AplicacionLaberintos {
                     else
                         throw new ExcepcionParametroInvalido("No puede haber 2 banderas '-w'");
 
-                    columnas = Integer.parseInt(args[i + 1]);
+                    columnas = Integer.parseInt(args[++i]);
                 } catch (ArrayIndexOutOfBoundsException e) {
                     throw new ArrayIndexOutOfBoundsException("Despues de la bandera " +
                             "'-w' debe ir el numero de columnas del laberinto");
                 } catch (NumberFormatException e) {
-                    throw new NumberFormatException("El numero de columnas: " + args[i + 1] + " no es valido");
+                    throw new NumberFormatException("El numero de columnas: " + args[i] + " no es valido");
                 }
             }
 
@@ -128,25 +318,222 @@ public class AplicacionLaberintos {
                     else
                         throw new ExcepcionParametroInvalido("No puede haber 2 banderas '-h");
 
-                    filas = Integer.parseInt(args[i + 1]);
+                    filas = Integer.parseInt(args[++i]);
                 } catch (ArrayIndexOutOfBoundsException e) {
                     throw new ArrayIndexOutOfBoundsException("Despues de la bandera " +
                             "'-h' debe ir el numero de filas del laberinto");
                 } catch (NumberFormatException e) {
-                    throw new NumberFormatException("El numero de filas: " + args[i + 1] + " no es valido");
+                    throw new NumberFormatException("El numero de filas: " + args[i] + " no es valido");
                 }
             }
 
-            else {
+            else if (args[i].equals("-f")) {
                 try {
-                    if (filas != Integer.parseInt(args[i])
-                            && columnas != Integer.parseInt(args[i])
-                            && semilla != Integer.parseInt(args[i]))
-                        throw new ExcepcionParametroInvalido("El parametro " + args[i] + " no es valido");
+                    if (!bandera_f)
+                        bandera_f = true;
+                    else
+                        throw new ExcepcionParametroInvalido("No puede haber 2 banderas '-f'");
+
+                    formato = FormatoLaberinto.deNombre(args[++i]);
+                } catch (ArrayIndexOutOfBoundsException e) {
+                    throw new ArrayIndexOutOfBoundsException("Despues de la bandera " +
+                            "'-f' debe ir uno de: " + FormatoLaberinto.nombres());
+                }
+            }
+
+            else if (args[i].equals("--algoritmo")) {
+                try {
+                    if (!bandera_a)
+                        bandera_a = true;
+                    else
+                        throw new ExcepcionParametroInvalido("No puede haber 2 banderas '--algoritmo'");
+
+                    algoritmo = AlgoritmoGenerador.deNombre(args[++i]);
+                } catch (ArrayIndexOutOfBoundsException e) {
+                    throw new ArrayIndexOutOfBoundsException("Despues de la bandera " +
+                            "'--algoritmo' debe ir uno de: " + AlgoritmoGenerador.nombres());
+                }
+            }
+
+            else if (args[i].equals("--rng")) {
+                try {
+                    if (!bandera_x)
+                        bandera_x = true;
+                    else
+                        throw new ExcepcionParametroInvalido("No puede haber 2 banderas '--rng'");
+
+                    aleatorio = AlgoritmoAleatorio.deNombre(args[++i]);
+                } catch (ArrayIndexOutOfBoundsException e) {
+                    throw new ArrayIndexOutOfBoundsException("Despues de la bandera " +
+                            "'--rng' debe ir uno de: " + AlgoritmoAleatorio.nombres());
+                }
+            }
+
+            else if (args[i].equals("-n")) {
+                try {
+                    if (!bandera_n)
+                        bandera_n = true;
+                    else
+                        throw new ExcepcionParametroInvalido("No puede haber 2 banderas '-n', ni '-n' " +
+                                "junto con un rango de semillas");
+
+                    cantidad = Integer.parseInt(args[++i]);
+                } catch (ArrayIndexOutOfBoundsException e) {
+                    throw new ArrayIndexOutOfBoundsException("Despues de la bandera " +
+                            "'-n' debe ir el numero de laberintos");
                 } catch (NumberFormatException e) {
-                    throw new ExcepcionParametroInvalido("El parametro " + args[i] + " no es valido");
+                    throw new NumberFormatException("El numero de laberintos: " + args[i] + " no es valido");
+                }
+            }
+
+            else if (args[i].equals("--directorio")) {
+                try {
+                    if (!bandera_d)
+                        bandera_d = true;
+                    else
+                        throw new ExcepcionParametroInvalido("No puede haber 2 banderas '--directorio'");
+
+                    directorioLaberintos = Paths.get(args[++i]);
+                } catch (ArrayIndexOutOfBoundsException e) {
+                    throw new ArrayIndexOutOfBoundsException("Despues de la bandera " +
+                            "'--directorio' debe ir el directorio donde se escribiran los laberintos");
                 }
             }
+
+            else if (args[i].equals("--svg")) {
+                if (!bandera_v)
+                    bandera_v = true;
+                else
+                    throw new ExcepcionParametroInvalido("No puede haber 2 banderas '--svg'");
+            }
+
+            else if (args[i].equals("--mze")) {
+                try {
+                    if (!bandera_m)
+                        bandera_m = true;
+                    else
+                        throw new ExcepcionParametroInvalido("No puede haber 2 banderas '--mze'");
+
+                    archivoMze = Paths.get(args[++i]);
+                } catch (ArrayIndexOutOfBoundsException e) {
+                    throw new ArrayIndexOutOfBoundsException("Despues de la bandera " +
+                            "'--mze' debe ir el archivo donde se escribira el laberinto");
+                }
+            }
+
+            else if (args[i].equals("--resolvedor")) {
+                try {
+                    if (!bandera_r)
+                        bandera_r = true;
+                    else
+                        throw new ExcepcionParametroInvalido("No puede haber 2 banderas '--resolvedor'");
+
+                    resolvedor = AlgoritmoResolvedor.deNombre(args[++i]);
+                } catch (ArrayIndexOutOfBoundsException e) {
+                    throw new ArrayIndexOutOfBoundsException("Despues de la bandera " +
+                            "'--resolvedor' debe ir uno de: " + AlgoritmoResolvedor.nombres());
+                }
+            }
+
+            else if (args[i].equals("--lote")) {
+                try {
+                    if (!bandera_l)
+                        bandera_l = true;
+                    else
+                        throw new ExcepcionParametroInvalido("No puede haber 2 banderas '--lote'");
+
+                    directorioEntrada = Paths.get(args[++i]);
+                    directorioSalida = Paths.get(args[++i]);
+                } catch (ArrayIndexOutOfBoundsException e) {
+                    throw new ArrayIndexOutOfBoundsException("Despues de la bandera " +
+                            "'--lote' deben ir el directorio de entrada y el de salida");
+                }
+            }
+
+            else if (args[i].equals("--hilos")) {
+                try {
+                    if (!bandera_t)
+                        bandera_t = true;
+                    else
+                        throw new ExcepcionParametroInvalido("No puede haber 2 banderas '--hilos'");
+
+                    hilos = Integer.parseInt(args[++i]);
+                } catch (ArrayIndexOutOfBoundsException e) {
+                    throw new ArrayIndexOutOfBoundsException("Despues de la bandera " +
+                            "'--hilos' debe ir el numero de hilos");
+                } catch (NumberFormatException e) {
+                    throw new NumberFormatException("El numero de hilos: " + args[i] + " no es valido");
+                }
+            }
+
+            else if (args[i].equals("--cache")) {
+                try {
+                    if (!bandera_c)
+                        bandera_c = true;
+                    else
+                        throw new ExcepcionParametroInvalido("No puede haber 2 banderas '--cache'");
+
+                    directorioCache = Paths.get(args[++i]);
+                } catch (ArrayIndexOutOfBoundsException e) {
+                    throw new ArrayIndexOutOfBoundsException("Despues de la bandera " +
+                            "'--cache' debe ir el directorio de la cache de soluciones");
+                }
+            }
+
+            else if (args[i].equals("--cache-maximo")) {
+                try {
+                    if (!bandera_k)
+                        bandera_k = true;
+                    else
+                        throw new ExcepcionParametroInvalido("No puede haber 2 banderas '--cache-maximo'");
+
+                    maximoCache = Long.parseLong(args[++i]);
+                } catch (ArrayIndexOutOfBoundsException e) {
+                    throw new ArrayIndexOutOfBoundsException("Despues de la bandera " +
+                            "'--cache-maximo' debe ir el tamano maximo de la cache en MB");
+                } catch (NumberFormatException e) {
+                    throw new NumberFormatException("El tamano de la cache: " + args[i] + " no es valido");
+                }
+            }
+
+            else if (args[i].equals("--arbol")) {
+                try {
+                    if (!bandera_b)
+                        bandera_b = true;
+                    else
+                        throw new ExcepcionParametroInvalido("No puede haber 2 banderas '--arbol'");
+
+                    archivoArbol = Paths.get(args[++i]);
+                } catch (ArrayIndexOutOfBoundsException e) {
+                    throw new ArrayIndexOutOfBoundsException("Despues de la bandera " +
+                            "'--arbol' debe ir el archivo donde se escribira el arbol de trayectorias");
+                }
+            }
+
+            else if (args[i].equals("--verificar")) {
+                if (!bandera_i)
+                    bandera_i = true;
+                else
+                    throw new ExcepcionParametroInvalido("No puede haber 2 banderas '--verificar'");
+            }
+
+            else if (args[i].equals("--podar")) {
+                if (!bandera_p)
+                    bandera_p = true;
+                else
+                    throw new ExcepcionParametroInvalido("No puede haber 2 banderas '--podar'");
+            }
+
+            else if (args[i].equals("--estadisticas")) {
+                if (!bandera_e)
+                    bandera_e = true;
+                else
+                    throw new ExcepcionParametroInvalido("No puede haber 2 banderas '--estadisticas'");
+            }
+
+            else {
+                throw new ExcepcionParametroInvalido("El parametro " + args[i] + " no es valido");
+            }
         }
 
     }
@@ -156,12 +543,38 @@ public class AplicacionLaberintos {
      * si generará su propio labenrito con los datos proporcionados.
      */
     public void ejecuta() {
-        if (entradaEstandar)
+        if (bandera_l)
+            resuelveLote();
+        else if (bandera_i)
+            verificaEntradaEstandar();
+        else if (entradaEstandar)
             entradaEstandar();
         else
             generedarAleatorio();
     }
 
+    /**
+     * Resuelve todos los laberintos del directorio de entrada y escribe sus
+     * imágenes en el directorio de salida. Si algún archivo no se pudo
+     * resolver, el programa termina con estado 1.
+     */
+    private void resuelveLote() {
+        try {
+            /* en un lote siempre vale la pena la caché en memoria */
+            CacheSoluciones cache = bandera_c ? creaCache() : new CacheSoluciones(MAXIMO_CACHE_MEMORIA);
+
+            LoteLaberintos lote = new LoteLaberintos(directorioEntrada, directorioSalida, hilos, resolvedor,
+                    cache);
+            if (lote.ejecuta() > 0)
+                System.exit(1);
+        } catch (IOException e) {
+            System.out.println("Ocurrio un error al leer el directorio " + directorioEntrada +
+                    " o al crear el directorio " + directorioSalida +
+                    (bandera_c ? " o el directorio " + directorioCache : ""));
+            System.exit(1);
+        }
+    }
+
     /**
      * El programa lee bytes de la entrada estandar, y dichos bytes serán
      * verificados de acuerdo a las reglas a seguir para el formato de archivos.
@@ -174,21 +587,126 @@ public class AplicacionLaberintos {
             VerificaFormatoArchivo archivo = new VerificaFormatoArchivo(entrada);
             entrada.close();
 
-            Laberinto lab = new Laberinto(archivo.getValoresLaberinto(), archivo.getFilas(), archivo.getColumnas());
-            lab.creaLaberinto();
+            Laberinto lab = new Laberinto(archivo.getCuartos(), archivo.getFilas(), archivo.getColumnas(),
+                    resolvedor);
+            lab.setPodar(bandera_p);
+            lab.setHilos(hilos);
+            lab.creaLaberinto(bandera_c ? creaCache() : null);
+
+            if (bandera_p)
+                imprimePodados(lab);
 
             LaberintoSVG labSVG = new LaberintoSVG(lab);
 
-            labSVG.creaLaberintoSVG();
+            /* la imagen se escribe conforme se dibuja, sin guardarla */
+            labSVG.escribeLaberintoSVG(System.out);
+
+            if (bandera_e)
+                imprimeEstadisticas(lab);
+
+            if (bandera_b)
+                escribeArbol(lab);
+
+        } catch (IOException e) {
+            System.out.println("Ocurrio un error al leer de la entrada estandar" +
+                    " o al escribir en la salida estandar" +
+                    (bandera_c ? " o en el directorio " + directorioCache : "") +
+                    (bandera_b ? " o en el archivo " + archivoArbol : ""));
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Crea la caché de soluciones en el directorio que dio el usuario.
+     * 
+     * @return la caché de soluciones.
+     * @throws IOException en caso de que no se pueda crear o leer el
+     *                     directorio.
+     */
+    private CacheSoluciones creaCache() throws IOException {
+        return new CacheSoluciones(MAXIMO_CACHE_MEMORIA, directorioCache, maximoCache << 20);
+    }
+
+    /**
+     * Calcula el árbol de trayectorias de peso mínimo de todos los cuartos
+     * hacia la salida del laberinto, y lo escribe en el archivo que dio el
+     * usuario.
+     * 
+     * @param lab el laberinto ya resuelto.
+     * @throws IOException en caso de que no se pueda escribir el archivo.
+     */
+    private void escribeArbol(Laberinto lab) throws IOException {
+        ResolvedorDial dial = new ResolvedorDial(lab.getBytesCuartos(), lab.getFilas(), lab.getColumnas());
+        ArbolCaminos arbol = dial.arbol(lab.getFinalLab().getIndice());
+
+        try (OutputStream salida = new BufferedOutputStream(Files.newOutputStream(archivoArbol))) {
+            arbol.escribe(salida);
+        }
+    }
+
+    /**
+     * Imprime en la salida de error cuántos cuartos se podaron antes de
+     * resolver el laberinto.
+     * 
+     * @param lab el laberinto ya resuelto.
+     */
+    private void imprimePodados(Laberinto lab) {
+        System.err.println("Se podaron " + lab.getCuartosPodados() + " de " + lab.getBytesCuartos().length
+                + " cuartos");
+    }
+
+    /**
+     * El programa lee bytes de la entrada estandar y sólo verifica que sean
+     * un laberinto válido con solución, sin resolverlo ni dibujarlo.
+     */
+    private void verificaEntradaEstandar() {
+        try {
+            InputStream entrada = System.in;
+            VerificaFormatoArchivo archivo = new VerificaFormatoArchivo(entrada);
+            entrada.close();
 
-            System.out.println(labSVG.getcodigoLaberinto());
+            Laberinto lab = new Laberinto(archivo.getCuartos(), archivo.getFilas(), archivo.getColumnas(),
+                    resolvedor);
+            lab.verifica();
 
+            System.out.println("El laberinto es valido");
         } catch (IOException e) {
             System.out.println("Ocurrio un error al leer de la entrada estandar");
             System.exit(1);
         }
     }
 
+    /**
+     * Imprime en la salida de error cuántos cuartos expanden A* y el
+     * algoritmo de Dial (Dijkstra con cubetas, que se detiene al llegar a la
+     * salida) para resolver el laberinto, y el puntaje de la trayectoria de
+     * cada uno.
+     * 
+     * @param lab el laberinto ya resuelto.
+     */
+    private void imprimeEstadisticas(Laberinto lab) {
+        byte[] cuartos = lab.getBytesCuartos();
+        int inicio = lab.getInicioLab().getIndice();
+        int fin = lab.getFinalLab().getIndice();
+
+        ResolvedorCuadricula[] resolvedores = {
+                new ResolvedorDial(cuartos, lab.getFilas(), lab.getColumnas()),
+                new ResolvedorAEstrella(cuartos, lab.getFilas(), lab.getColumnas())
+        };
+        String[] nombres = { AlgoritmoResolvedor.DIAL.getNombre(), AlgoritmoResolvedor.A_ESTRELLA.getNombre() };
+
+        System.err.println("Cuartos: " + cuartos.length);
+        for (int i = 0; i < resolvedores.length; i++) {
+            int[] trayectoria = resolvedores[i].resuelve(inicio, fin);
+            long puntaje = 0;
+            for (int j = 1; j < trayectoria.length; j++)
+                puntaje += resolvedores[i].peso(trayectoria[j - 1], trayectoria[j]);
+
+            System.err.println(nombres[i] + ": " + resolvedores[i].getExpandidos()
+                    + " cuartos expandidos, puntaje " + puntaje);
+        }
+    }
+
     /**
      * Se crea un objeto instancia de la clase LaberintoRandom para generar un
      * laberinto
@@ -198,15 +716,103 @@ public class AplicacionLaberintos {
      * especificado.
      */
     private void generedarAleatorio() {
-        LaberintoRandom lab = new LaberintoRandom(filas, columnas, bandera_s, semilla);
+        if (bandera_n) {
+            generaSerie();
+            return;
+        }
+
+        if (bandera_v) {
+            generaResuelveDibuja();
+            return;
+        }
+
+        if (algoritmo == AlgoritmoGenerador.ELLER) {
+            generaEller();
+            return;
+        }
+
+        LaberintoRandom lab = new LaberintoRandom(filas, columnas, bandera_s, semilla, algoritmo, aleatorio);
+        lab.setHilos(hilos);
         lab.creaLaberinto();
 
         try {
-            LaberintoABytes escritor = new LaberintoABytes(lab);
+            LaberintoABytes escritor = new LaberintoABytes(lab, formato);
             escritor.escribeSalidaEstandarLaberinto();
         } catch (IOException e) {
             System.out.println("Ocurrio un error al escribir el laberitno en la salida estandar");
             System.exit(1);
         }
     }
+
+    /**
+     * Genera el laberinto con el algoritmo de Eller y lo escribe en la salida
+     * estandar renglón por renglón, sin guardarlo completo en memoria.
+     */
+    private void generaEller() {
+        LaberintoEller lab = new LaberintoEller(filas, columnas, bandera_s, semilla, aleatorio);
+
+        try {
+            lab.escribeLaberinto(System.out, formato);
+        } catch (IOException e) {
+            System.out.println("Ocurrio un error al escribir el laberitno en la salida estandar");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Genera un laberinto, lo resuelve y escribe su imagen SVG en la salida
+     * estandar, todo en memoria: el laberinto no se escribe ni se vuelve a
+     * leer. Si se pidió, también se escribe el laberinto en el archivo dado.
+     */
+    private void generaResuelveDibuja() {
+        LaberintoRandom generado = new LaberintoRandom(filas, columnas, bandera_s, semilla, algoritmo, aleatorio);
+        generado.setHilos(hilos);
+        generado.creaLaberinto();
+
+        try {
+            if (bandera_m) {
+                try (OutputStream salida = new BufferedOutputStream(Files.newOutputStream(archivoMze))) {
+                    new LaberintoABytes(generado, formato).escribeLaberinto(salida);
+                }
+            }
+
+            Laberinto lab = new Laberinto(generado, resolvedor);
+            lab.setPodar(bandera_p);
+            lab.setHilos(hilos);
+            lab.creaLaberinto();
+
+            if (bandera_p)
+                imprimePodados(lab);
+
+            new LaberintoSVG(lab).escribeLaberintoSVG(System.out);
+
+            if (bandera_e)
+                imprimeEstadisticas(lab);
+
+        } catch (IOException e) {
+            System.out.println("Ocurrio un error al escribir el laberinto en " + archivoMze +
+                    " o al escribir en la salida estandar");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Genera un laberinto por cada semilla de la serie y los escribe en el
+     * directorio dado, o en la salida estandar uno tras otro, cada uno
+     * precedido por su longitud.
+     */
+    private void generaSerie() {
+        SerieLaberintos serie = new SerieLaberintos(filas, columnas, semilla, cantidad, algoritmo, aleatorio,
+                formato, hilos);
+
+        try {
+            if (bandera_d)
+                serie.escribeDirectorio(directorioLaberintos);
+            else
+                serie.escribeFlujo(System.out);
+        } catch (IOException e) {
+            System.out.println("Ocurrio un error al escribir los laberintos: " + e.getMessage());
+            System.exit(1);
+        }
+    }
 }
@@ -0,0 +1,305 @@
+package mx.unam.ciencias.edd.laberinto;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Árbol de trayectorias de peso mínimo de todos los cuartos de un laberinto
+ * hacia un mismo cuarto raíz (normalmente la salida). Por cada cuarto se
+ * guarda su distancia a la raíz y, en 2 bits, la dirección de la puerta por la
+ * que hay que salir para acercarse a ella; así, el siguiente paso y el puntaje
+ * que falta desde cualquier cuarto se consultan en tiempo constante, sin
+ * volver a resolver el laberinto.
+ *
+ * El árbol se puede escribir y leer en un formato binario: la palabra ARBL,
+ * las filas, las columnas y la raíz en 4 bytes cada una, la distancia de cada
+ * cuarto en 4 bytes (-1 si no se alcanza la raíz), y las direcciones, 4 por
+ * byte empezando por los bits menos significativos. Todos los enteros van en
+ * big-endian.
+ */
+public class ArbolCaminos {
+
+    /* La palabra con la que empieza el formato del árbol */
+    private static final int MAGIA = 0x4152424C;
+
+    /* Las direcciones en el orden de sus bits: 0 Este, 1 Norte, 2 Oeste, 3 Sur */
+    private static final Direccion[] DIRECCIONES = {
+            Direccion.ESTE, Direccion.NORTE, Direccion.OESTE, Direccion.SUR
+    };
+
+    /* El número de filas del laberinto */
+    private int filas;
+
+    /* El número de columnas del laberinto */
+    private int columnas;
+
+    /* El índice del cuarto raíz */
+    private int raiz;
+
+    /* La distancia de cada cuarto a la raíz, o -1 si no la alcanza */
+    private int[] distancias;
+
+    /* La dirección hacia el padre de cada cuarto, 2 bits por cuarto */
+    private byte[] direcciones;
+
+    /**
+     * Constructor a partir de las distancias y los padres que calcula una
+     * búsqueda desde la raíz.
+     *
+     * @param filas      el número de filas del laberinto.
+     * @param columnas   el número de columnas del laberinto.
+     * @param raiz       el índice del cuarto raíz.
+     * @param distancias la distancia de cada cuarto a la raíz, o
+     *                   {@link Integer#MAX_VALUE} si no la alcanza. El árbol
+     *                   se queda con el arreglo.
+     * @param padres     el padre de cada cuarto, o -1 si no tiene.
+     */
+    ArbolCaminos(int filas, int columnas, int raiz, int[] distancias, int[] padres) {
+        this(filas, columnas, raiz, distancias, new byte[(distancias.length + 3) / 4]);
+
+        for (int v = 0; v < distancias.length; v++) {
+            if (distancias[v] == Integer.MAX_VALUE) {
+                distancias[v] = -1;
+                continue;
+            }
+            if (padres[v] == -1)
+                continue;
+
+            int diferencia = padres[v] - v;
+            int direccion;
+            if (diferencia == columnas)
+                direccion = 3;
+            else if (diferencia == -columnas)
+                direccion = 1;
+            else if (diferencia == 1)
+                direccion = 0;
+            else
+                direccion = 2;
+
+            direcciones[v >>> 2] |= direccion << (2 * (v & 3));
+        }
+    }
+
+    /**
+     * Constructor a partir de las distancias y las direcciones ya
+     * calculadas.
+     *
+     * @param filas       el número de filas del laberinto.
+     * @param columnas    el número de columnas del laberinto.
+     * @param raiz        el índice del cuarto raíz.
+     * @param distancias  la distancia de cada cuarto a la raíz, o -1.
+     * @param direcciones las direcciones hacia el padre, 2 bits por cuarto.
+     */
+    private ArbolCaminos(int filas, int columnas, int raiz, int[] distancias, byte[] direcciones) {
+        this.filas = filas;
+        this.columnas = columnas;
+        this.raiz = raiz;
+        this.distancias = distancias;
+        this.direcciones = direcciones;
+    }
+
+    /**
+     * Regresa el índice del cuarto raíz.
+     *
+     * @return el índice del cuarto raíz.
+     */
+    public int getRaiz() {
+        return raiz;
+    }
+
+    /**
+     * Regresa el número de filas del laberinto.
+     *
+     * @return el número de filas del laberinto.
+     */
+    public int getFilas() {
+        return filas;
+    }
+
+    /**
+     * Regresa el número de columnas del laberinto.
+     *
+     * @return el número de columnas del laberinto.
+     */
+    public int getColumnas() {
+        return columnas;
+    }
+
+    /**
+     * Regresa el puntaje de una trayectoria de peso mínimo del cuarto dado a
+     * la raíz.
+     *
+     * @param cuarto el índice del cuarto.
+     * @return el puntaje que falta para llegar a la raíz, o -1 si desde el
+     *         cuarto no se puede llegar.
+     */
+    public int getDistancia(int cuarto) {
+        return distancias[cuarto];
+    }
+
+    /**
+     * Regresa la dirección de la puerta por la que hay que salir del cuarto
+     * dado para seguir una trayectoria de peso mínimo a la raíz.
+     *
+     * @param cuarto el índice del cuarto.
+     * @return la dirección del siguiente paso, o null si el cuarto es la raíz
+     *         o si desde él no se puede llegar.
+     */
+    public Direccion getDireccion(int cuarto) {
+        if (cuarto == raiz || distancias[cuarto] == -1)
+            return null;
+
+        return DIRECCIONES[bits(cuarto)];
+    }
+
+    /**
+     * Regresa el siguiente cuarto de una trayectoria de peso mínimo del
+     * cuarto dado a la raíz.
+     *
+     * @param cuarto el índice del cuarto.
+     * @return el índice del siguiente cuarto, o -1 si el cuarto es la raíz o
+     *         si desde él no se puede llegar.
+     */
+    public int siguiente(int cuarto) {
+        if (cuarto == raiz || distancias[cuarto] == -1)
+            return -1;
+
+        return vecino(cuarto, bits(cuarto));
+    }
+
+    /**
+     * Regresa una trayectoria de peso mínimo del cuarto dado a la raíz.
+     *
+     * @param cuarto el índice del cuarto.
+     * @return los índices de los cuartos de la trayectoria, del cuarto a la
+     *         raíz; si desde el cuarto no se puede llegar, un arreglo vacío.
+     */
+    public int[] trayectoria(int cuarto) {
+        if (distancias[cuarto] == -1)
+            return new int[0];
+
+        int longitud = 1;
+        for (int v = cuarto; v != raiz; v = siguiente(v))
+            longitud++;
+
+        int[] trayectoria = new int[longitud];
+        int v = cuarto;
+        for (int i = 0; i < longitud; i++, v = siguiente(v))
+            trayectoria[i] = v;
+
+        return trayectoria;
+    }
+
+    /**
+     * Escribe el árbol en la salida dada, en su formato binario.
+     *
+     * @param salida la salida donde se escribirá el árbol.
+     * @throws IOException en caso de que haya un error escribiendo en la
+     *                     salida.
+     */
+    public void escribe(OutputStream salida) throws IOException {
+        DataOutputStream datos = new DataOutputStream(salida);
+        datos.writeInt(MAGIA);
+        datos.writeInt(filas);
+        datos.writeInt(columnas);
+        datos.writeInt(raiz);
+        for (int distancia : distancias)
+            datos.writeInt(distancia);
+        datos.write(direcciones);
+        datos.flush();
+    }
+
+    /**
+     * Lee un árbol escrito con {@link #escribe}.
+     *
+     * @param entrada la entrada de donde se leerá el árbol.
+     * @return el árbol leído.
+     * @throws IOException en caso de que haya un error leyendo de la entrada,
+     *                     de que la entrada no tenga el formato del árbol, o
+     *                     de que alguna dirección no lleve a un cuarto vecino
+     *                     alcanzable y más cercano a la raíz.
+     */
+    public static ArbolCaminos lee(InputStream entrada) throws IOException {
+        DataInputStream datos = new DataInputStream(entrada);
+        if (datos.readInt() != MAGIA)
+            throw new IOException("La entrada no es un arbol de trayectorias");
+
+        int filas = datos.readInt();
+        int columnas = datos.readInt();
+        int raiz = datos.readInt();
+        long cuartos = (long) filas * columnas;
+        if (filas < 1 || columnas < 1 || cuartos > FormatoLaberinto.MAXIMO_CUARTOS || raiz < 0 || raiz >= cuartos)
+            throw new IOException("Las dimensiones del arbol de trayectorias no son validas");
+
+        int[] distancias = new int[(int) cuartos];
+        for (int i = 0; i < distancias.length; i++)
+            distancias[i] = datos.readInt();
+
+        byte[] direcciones = new byte[(distancias.length + 3) / 4];
+        datos.readFully(direcciones);
+
+        ArbolCaminos arbol = new ArbolCaminos(filas, columnas, raiz, distancias, direcciones);
+        arbol.verifica();
+        return arbol;
+    }
+
+    /**
+     * Verifica que la raíz tenga distancia 0 y que desde cualquier otro
+     * cuarto alcanzable la dirección lleve a un cuarto vecino alcanzable con
+     * distancia estrictamente menor; así toda trayectoria termina en la raíz.
+     *
+     * @throws IOException si el árbol no cumple con lo anterior.
+     */
+    private void verifica() throws IOException {
+        if (distancias[raiz] != 0)
+            throw new IOException("La distancia de la raiz del arbol de trayectorias no es 0");
+
+        for (int v = 0; v < distancias.length; v++) {
+            if (v == raiz || distancias[v] == -1)
+                continue;
+
+            if (distancias[v] < 0)
+                throw new IOException("La distancia del cuarto " + v + " no es valida");
+
+            int u = vecino(v, bits(v));
+            if (u == -1 || distancias[u] == -1 || distancias[u] >= distancias[v])
+                throw new IOException("La direccion del cuarto " + v + " no acerca a la raiz");
+        }
+    }
+
+    /**
+     * Regresa el cuarto vecino en la dirección dada.
+     *
+     * @param cuarto    el índice del cuarto.
+     * @param direccion los bits de la dirección.
+     * @return el índice del vecino, o -1 si el cuarto está en la frontera del
+     *         laberinto en esa dirección.
+     */
+    private int vecino(int cuarto, int direccion) {
+        int columna = cuarto % columnas;
+        switch (direccion) {
+            case 0:
+                return columna + 1 < columnas ? cuarto + 1 : -1;
+            case 1:
+                return cuarto >= columnas ? cuarto - columnas : -1;
+            case 2:
+                return columna > 0 ? cuarto - 1 : -1;
+            default:
+                return cuarto + columnas < distancias.length ? cuarto + columnas : -1;
+        }
+    }
+
+    /**
+     * Regresa los 2 bits de la dirección del cuarto dado.
+     *
+     * @param cuarto el índice del cuarto.
+     * @return los bits de la dirección.
+     */
+    private int bits(int cuarto) {
+        return (direcciones[cuarto >>> 2] >>> (2 * (cuarto & 3))) & 3;
+    }
+
+}
@@ -0,0 +1,462 @@
+package mx.unam.ciencias.edd.laberinto;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché de soluciones de laberintos, indexada por el contenido del laberinto:
+ * la llave es el SHA-256 del algoritmo con el que se resolvió, las dimensiones
+ * y los bytes de los cuartos, así que dos archivos con los mismos cuartos
+ * comparten su solución sin importar su nombre.
+ *
+ * La solución se guarda como el índice del primer cuarto seguido de 2 bits
+ * por paso (0 Este, 1 Norte, 2 Oeste, 3 Sur). Hay dos niveles: uno en memoria
+ * que descarta primero las soluciones usadas hace más tiempo, y uno opcional
+ * en un directorio, con un archivo por solución, que al pasar de su tamaño
+ * máximo borra primero los archivos usados hace más tiempo.
+ *
+ * La caché se puede usar desde varios hilos a la vez.
+ */
+public class CacheSoluciones {
+
+    /* La extensión de los archivos de la caché en disco */
+    private static final String EXTENSION = ".sol";
+
+    /* Los bytes que se cuentan por cada entrada en memoria además de su solución */
+    private static final int COSTO_ENTRADA = 128;
+
+    /* Las soluciones en memoria, de la usada hace más tiempo a la más reciente */
+    private LinkedHashMap<String, byte[]> memoria;
+
+    /* Los bytes que ocupan las soluciones en memoria */
+    private long bytesMemoria;
+
+    /* El número máximo de bytes de las soluciones en memoria */
+    private long maximoMemoria;
+
+    /* El directorio de la caché en disco, o null si sólo hay caché en memoria */
+    private Path directorio;
+
+    /* Los bytes que ocupan los archivos de la caché en disco */
+    private AtomicLong bytesDisco;
+
+    /* El número máximo de bytes de los archivos de la caché en disco */
+    private long maximoDisco;
+
+    /* Para que sólo un hilo a la vez recorte la caché en disco */
+    private final Object recorte = new Object();
+
+    /**
+     * Constructor para una caché sólo en memoria.
+     *
+     * @param maximoMemoria el número máximo de bytes en memoria.
+     */
+    public CacheSoluciones(long maximoMemoria) {
+        this.maximoMemoria = maximoMemoria;
+        memoria = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Constructor para una caché en memoria y en el directorio dado. Si el
+     * directorio no existe, se crea.
+     *
+     * @param maximoMemoria el número máximo de bytes en memoria.
+     * @param directorio    el directorio de la caché en disco.
+     * @param maximoDisco   el número máximo de bytes en el directorio.
+     * @throws IOException en caso de que no se pueda crear o leer el
+     *                     directorio.
+     */
+    public CacheSoluciones(long maximoMemoria, Path directorio, long maximoDisco) throws IOException {
+        this(maximoMemoria);
+        this.directorio = directorio;
+        this.maximoDisco = maximoDisco;
+
+        Files.createDirectories(directorio);
+        long bytes = 0;
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio, "*" + EXTENSION)) {
+            for (Path archivo : archivos)
+                bytes += Files.size(archivo);
+        }
+        bytesDisco = new AtomicLong(bytes);
+        recortaDisco();
+    }
+
+    /**
+     * Calcula la llave de un laberinto: el SHA-256, en hexadecimal, del
+     * algoritmo, las filas, las columnas y los bytes de los cuartos.
+     *
+     * @param cuartos   los bytes de los cuartos, renglón por renglón.
+     * @param filas     el número de filas del laberinto.
+     * @param columnas  el número de columnas del laberinto.
+     * @param algoritmo el algoritmo con el que se resuelve el laberinto.
+     * @return la llave del laberinto.
+     */
+    public String llave(byte[] cuartos, int filas, int columnas, AlgoritmoResolvedor algoritmo) {
+        MessageDigest sha;
+        try {
+            sha = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            /* toda implementación de Java tiene SHA-256 */
+            throw new IllegalStateException(e);
+        }
+
+        sha.update(algoritmo.getNombre().getBytes(StandardCharsets.US_ASCII));
+        byte[] dimensiones = new byte[8];
+        escribeEntero(dimensiones, 0, filas);
+        escribeEntero(dimensiones, 4, columnas);
+        sha.update(dimensiones);
+        sha.update(cuartos);
+
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : sha.digest())
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+
+        return hex.toString();
+    }
+
+    /**
+     * Busca la solución del laberinto con la llave dada, primero en memoria
+     * y después en disco; si está en disco, se sube a memoria. Una solución
+     * que no va de un cuarto de la frontera a otro por puertas abiertas de
+     * los cuartos dados (un archivo dañado) se trata como si no estuviera y
+     * su archivo se borra, para que al guardar la solución se reemplace.
+     *
+     * @param llave    la llave del laberinto.
+     * @param cuartos  los bytes de los cuartos, renglón por renglón.
+     * @param filas    el número de filas del laberinto.
+     * @param columnas el número de columnas del laberinto.
+     * @return los índices de los cuartos de la solución, o null si no está.
+     */
+    public int[] busca(String llave, byte[] cuartos, int filas, int columnas) {
+        byte[] solucion;
+        synchronized (this) {
+            solucion = memoria.get(llave);
+        }
+
+        boolean deDisco = false;
+        if (solucion == null && directorio != null) {
+            solucion = leeDisco(llave);
+            deDisco = solucion != null;
+        }
+
+        if (solucion == null)
+            return null;
+
+        int[] trayectoria = decodifica(solucion, cuartos, filas, columnas);
+        if (trayectoria == null && deDisco)
+            borraDisco(llave, solucion.length);
+        else if (deDisco)
+            guardaMemoria(llave, solucion);
+
+        return trayectoria;
+    }
+
+    /**
+     * Guarda la solución del laberinto con la llave dada en memoria y, si
+     * hay directorio, en disco.
+     *
+     * @param llave       la llave del laberinto.
+     * @param columnas    el número de columnas del laberinto.
+     * @param trayectoria los índices de los cuartos de la solución.
+     * @throws IOException en caso de que no se pueda escribir en el
+     *                     directorio.
+     */
+    public void guarda(String llave, int columnas, int[] trayectoria) throws IOException {
+        byte[] solucion = codifica(trayectoria, columnas);
+        guardaMemoria(llave, solucion);
+
+        if (directorio != null)
+            escribeDisco(llave, solucion);
+    }
+
+    /**
+     * Guarda una solución en memoria y descarta las usadas hace más tiempo
+     * mientras se pase del máximo.
+     *
+     * @param llave    la llave del laberinto.
+     * @param solucion la solución codificada.
+     */
+    private synchronized void guardaMemoria(String llave, byte[] solucion) {
+        byte[] anterior = memoria.put(llave, solucion);
+        if (anterior != null)
+            bytesMemoria -= anterior.length + COSTO_ENTRADA;
+        bytesMemoria += solucion.length + COSTO_ENTRADA;
+
+        Iterator<Map.Entry<String, byte[]>> iterador = memoria.entrySet().iterator();
+        while (bytesMemoria > maximoMemoria && iterador.hasNext()) {
+            bytesMemoria -= iterador.next().getValue().length + COSTO_ENTRADA;
+            iterador.remove();
+        }
+    }
+
+    /**
+     * Lee la solución con la llave dada del disco y marca el archivo como
+     * usado.
+     *
+     * @param llave la llave del laberinto.
+     * @return la solución codificada, o null si no está en disco.
+     */
+    private byte[] leeDisco(String llave) {
+        Path archivo = directorio.resolve(llave + EXTENSION);
+        try {
+            byte[] solucion = Files.readAllBytes(archivo);
+            Files.setLastModifiedTime(archivo, FileTime.fromMillis(System.currentTimeMillis()));
+            return solucion;
+        } catch (IOException e) {
+            /* otro hilo o proceso pudo haberlo borrado al recortar */
+            return null;
+        }
+    }
+
+    /**
+     * Borra del disco la solución con la llave dada.
+     *
+     * @param llave la llave del laberinto.
+     * @param bytes el tamaño del archivo.
+     */
+    private void borraDisco(String llave, int bytes) {
+        try {
+            if (Files.deleteIfExists(directorio.resolve(llave + EXTENSION)))
+                bytesDisco.addAndGet(-bytes);
+        } catch (IOException e) {
+            /* si no se puede borrar, sólo se sigue ignorando */
+        }
+    }
+
+    /**
+     * Escribe una solución en disco. Se escribe primero en un archivo
+     * temporal y luego se mueve, para que otros procesos que compartan el
+     * directorio nunca lean un archivo a medias.
+     *
+     * @param llave    la llave del laberinto.
+     * @param solucion la solución codificada.
+     * @throws IOException en caso de que no se pueda escribir el archivo.
+     */
+    private void escribeDisco(String llave, byte[] solucion) throws IOException {
+        Path archivo = directorio.resolve(llave + EXTENSION);
+        if (Files.exists(archivo))
+            return;
+
+        Path temporal = Files.createTempFile(directorio, llave, ".tmp");
+        try {
+            Files.write(temporal, solucion);
+            try {
+                Files.move(temporal, archivo, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+
+        if (bytesDisco.addAndGet(solucion.length) > maximoDisco)
+            recortaDisco();
+    }
+
+    /**
+     * Borra los archivos usados hace más tiempo hasta que la caché en disco
+     * no pase de su tamaño máximo.
+     *
+     * @throws IOException en caso de que no se pueda leer el directorio.
+     */
+    private void recortaDisco() throws IOException {
+        synchronized (recorte) {
+            if (bytesDisco.get() <= maximoDisco)
+                return;
+
+            List<Path> archivos = new ArrayList<>();
+            try (DirectoryStream<Path> lista = Files.newDirectoryStream(directorio, "*" + EXTENSION)) {
+                for (Path archivo : lista)
+                    archivos.add(archivo);
+            }
+
+            List<FileTime> tiempos = new ArrayList<>();
+            List<Long> tamanos = new ArrayList<>();
+            long bytes = 0;
+            for (int i = 0; i < archivos.size(); i++) {
+                try {
+                    tiempos.add(Files.getLastModifiedTime(archivos.get(i)));
+                    tamanos.add(Files.size(archivos.get(i)));
+                    bytes += tamanos.get(i);
+                } catch (NoSuchFileException e) {
+                    archivos.remove(i--);
+                }
+            }
+
+            Integer[] orden = new Integer[archivos.size()];
+            for (int i = 0; i < orden.length; i++)
+                orden[i] = i;
+            Arrays.sort(orden, (a, b) -> tiempos.get(a).compareTo(tiempos.get(b)));
+
+            for (int i = 0; i < orden.length && bytes > maximoDisco; i++) {
+                Files.deleteIfExists(archivos.get(orden[i]));
+                bytes -= tamanos.get(orden[i]);
+            }
+            bytesDisco.set(bytes);
+        }
+    }
+
+    /**
+     * Codifica una trayectoria: el índice del primer cuarto y el número de
+     * pasos en 4 bytes cada uno, y luego 2 bits por paso.
+     *
+     * @param trayectoria los índices de los cuartos de la trayectoria.
+     * @param columnas    el número de columnas del laberinto.
+     * @return la trayectoria codificada.
+     */
+    private static byte[] codifica(int[] trayectoria, int columnas) {
+        int pasos = trayectoria.length - 1;
+        byte[] solucion = new byte[8 + (pasos + 3) / 4];
+        escribeEntero(solucion, 0, trayectoria[0]);
+        escribeEntero(solucion, 4, pasos);
+
+        for (int i = 0; i < pasos; i++) {
+            int diferencia = trayectoria[i + 1] - trayectoria[i];
+            int direccion;
+            if (diferencia == columnas)
+                direccion = 3;
+            else if (diferencia == -columnas)
+                direccion = 1;
+            else if (diferencia == 1)
+                direccion = 0;
+            else if (diferencia == -1)
+                direccion = 2;
+            else
+                throw new IllegalArgumentException("La trayectoria tiene dos cuartos que no son adyacentes");
+
+            solucion[8 + i / 4] |= direccion << (2 * (i % 4));
+        }
+
+        return solucion;
+    }
+
+    /**
+     * Decodifica una trayectoria. Si la trayectoria se sale del laberinto,
+     * cruza una pared, o no empieza y termina en cuartos de la frontera con
+     * puerta hacia afuera (un archivo de la caché dañado), se regresa null,
+     * como si no estuviera.
+     *
+     * @param solucion la trayectoria codificada.
+     * @param cuartos  los bytes de los cuartos, renglón por renglón.
+     * @param filas    el número de filas del laberinto.
+     * @param columnas el número de columnas del laberinto.
+     * @return los índices de los cuartos de la trayectoria, o null.
+     */
+    private static int[] decodifica(byte[] solucion, byte[] cuartos, int filas, int columnas) {
+        if (solucion.length < 8)
+            return null;
+
+        int pasos = leeEntero(solucion, 4);
+        if (pasos < 0 || solucion.length != 8 + (pasos + 3) / 4)
+            return null;
+
+        int[] trayectoria = new int[pasos + 1];
+        int actual = leeEntero(solucion, 0);
+        if (actual < 0 || actual >= filas * columnas || !salida(cuartos, actual, filas, columnas))
+            return null;
+
+        trayectoria[0] = actual;
+
+        for (int i = 0; i < pasos; i++) {
+            int direccion = (solucion[8 + i / 4] >> (2 * (i % 4))) & 3;
+            int siguiente = vecino(actual, direccion, filas, columnas);
+            if (siguiente == -1 || (cuartos[actual] & (1 << direccion)) != 0
+                || (cuartos[siguiente] & (1 << ((direccion + 2) % 4))) != 0)
+                return null;
+
+            actual = siguiente;
+            trayectoria[i + 1] = actual;
+        }
+
+        return salida(cuartos, actual, filas, columnas) ? trayectoria : null;
+    }
+
+    /**
+     * Regresa el vecino de un cuarto en la dirección dada (0 Este, 1 Norte,
+     * 2 Oeste, 3 Sur), o -1 si está fuera del laberinto.
+     *
+     * @param cuarto    el índice del cuarto.
+     * @param direccion la dirección.
+     * @param filas     el número de filas del laberinto.
+     * @param columnas  el número de columnas del laberinto.
+     * @return el índice del vecino, o -1.
+     */
+    private static int vecino(int cuarto, int direccion, int filas, int columnas) {
+        int columna = cuarto % columnas;
+        switch (direccion) {
+            case 0:
+                return columna + 1 < columnas ? cuarto + 1 : -1;
+            case 1:
+                return cuarto >= columnas ? cuarto - columnas : -1;
+            case 2:
+                return columna > 0 ? cuarto - 1 : -1;
+            default:
+                return cuarto + columnas < filas * columnas ? cuarto + columnas : -1;
+        }
+    }
+
+    /**
+     * Nos dice si un cuarto está en la frontera y no tiene pared hacia
+     * afuera del laberinto, como la entrada y la salida.
+     *
+     * @param cuartos  los bytes de los cuartos, renglón por renglón.
+     * @param cuarto   el índice del cuarto.
+     * @param filas    el número de filas del laberinto.
+     * @param columnas el número de columnas del laberinto.
+     * @return <code>true</code> si el cuarto tiene puerta hacia afuera.
+     */
+    private static boolean salida(byte[] cuartos, int cuarto, int filas, int columnas) {
+        for (int direccion = 0; direccion < 4; direccion++)
+            if (vecino(cuarto, direccion, filas, columnas) == -1
+                && (cuartos[cuarto] & (1 << direccion)) == 0)
+                return true;
+
+        return false;
+    }
+
+    /**
+     * Escribe un entero en big-endian en el arreglo dado.
+     *
+     * @param arreglo el arreglo.
+     * @param inicio  la posición del primer byte del entero.
+     * @param valor   el entero a escribir.
+     */
+    private static void escribeEntero(byte[] arreglo, int inicio, int valor) {
+        for (int i = inicio + 3; i >= inicio; i--) {
+            arreglo[i] = (byte) valor;
+            valor >>>= 8;
+        }
+    }
+
+    /**
+     * Lee un entero en big-endian del arreglo dado.
+     *
+     * @param arreglo el arreglo.
+     * @param inicio  la posición del primer byte del entero.
+     * @return el entero.
+     */
+    private static int leeEntero(byte[] arreglo, int inicio) {
+        int valor = 0;
+        for (int i = inicio; i < inicio + 4; i++)
+            valor = (valor << 8) | (arreglo[i] & 0xFF);
+
+        return valor;
+    }
+
+}
@@ -1,12 +0,0 @@
-package mx.unam.ciencias.edd.laberinto;
-
-/* Enumeracion para saber cuando un cuarto ya fue visitado */
-public enum ColorCuarto {
-
-    /* El cuarto ya fue visitado */
-    VISITADO,
-
-    /* El cuarto aún no es visitado */
-    NO_VISITADO;
-
-}
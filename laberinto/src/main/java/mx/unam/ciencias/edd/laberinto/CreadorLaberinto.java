@@ -1,42 +1,35 @@
 package mx.unam.ciencias.edd.laberinto;
 
-import mx.unam.ciencias.edd.Diccionario;
+import mx.unam.ciencias.edd.Color;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.VerticeGrafica;
 
 /*Clase que funciona como esquema para crear un laberinto */
 public abstract class CreadorLaberinto {
 
-    /* Clase interna protegida para los cuartos de un laberitno */
-    protected class Cuarto implements CuartoLaberinto {
+    /* Máscara de la pared Este en el byte de un cuarto */
+    protected static final int PARED_ESTE = 1;
 
-        /* el valor de la pared Este */
-        protected boolean paredEste;
+    /* Máscara de la pared Norte en el byte de un cuarto */
+    protected static final int PARED_NORTE = 2;
 
-        /* el valor de la pared Norte */
-        protected boolean paredNorte;
+    /* Máscara de la pared Oeste en el byte de un cuarto */
+    protected static final int PARED_OESTE = 4;
 
-        /* el valor de la pared Oeste */
-        protected boolean paredOeste;
+    /* Máscara de la pared Sur en el byte de un cuarto */
+    protected static final int PARED_SUR = 8;
 
-        /* el valor de la pared Sur */
-        protected boolean paredSur;
+    /* Máscara de las cuatro paredes de un cuarto */
+    protected static final int PAREDES = 0x0F;
 
-        /* el valor del punaje del cuarto */
-        protected int puntaje;
-
-        /*
-         * la fila donde se encuentra el cuarto respecto a
-         * la matriz de cuartos del laberinto
-         */
-        protected int fila;
-
-        /*
-         * la columna donde se encuentra el cuarto respecto a
-         * la matriz de cuartos del laberinto
-         */
-        protected int columna;
-
-        /* diccionario de los vecinos del cuarto */
-        protected Diccionario<Integer, CuartoVecino> vecinos;
+    /*
+     * Clase interna protegida para los cuartos de un laberitno. Un cuarto no
+     * guarda sus paredes ni su puntaje: es sólo una vista del byte que le
+     * corresponde en el arreglo de cuartos del laberinto. Un cuarto también
+     * es un vértice del laberinto visto como gráfica, cuyos vecinos son los
+     * cuartos con los que comparte una puerta.
+     */
+    protected class Cuarto implements CuartoLaberinto, VerticeGrafica<Integer> {
 
         /*
          * el indice del cuarto respecto a la matriz de cuartos
@@ -44,64 +37,13 @@ public abstract class CreadorLaberinto {
          */
         protected int indice;
 
-        /* para saber si el cuarto ya fue visitado o no */
-        protected ColorCuarto color;
-
         /**
          * Constructor.
-         * 
-         * @param fila    la fila dodne se encuentra el cuarto.
-         * @param columna la columna donde se encuentra el cuarto.
-         * @param puntaje el valor del puntaje del cuarto.
+         *
+         * @param indice el índice del cuarto en el arreglo de cuartos.
          */
-        protected Cuarto(int fila, int columna, int puntaje) {
-
-            this.fila = fila;
-            this.columna = columna;
-            this.puntaje = puntaje;
-
-            paredEste = true;
-            paredNorte = true;
-            paredOeste = true;
-            paredSur = true;
-
-            indice = (fila * columnas) + columna;
-
-            color = ColorCuarto.NO_VISITADO;
-
-            vecinos = new Diccionario<Integer, CuartoVecino>();
-        }
-
-        /*
-         * Constructor vacío
-         */
-        protected Cuarto() {
-        }
-
-        /**
-         * Constructor.
-         * 
-         * @param dato    el byte con el que se contruirá el cuarto.
-         * @param fila    la fila donde se encuentra el cuarto.
-         * @param columna la columna donde se encuentra el cuarto.
-         */
-        protected Cuarto(byte dato, int fila, int columna) {
-
-            this.fila = fila;
-            this.columna = columna;
-
-            setParedEste(dato);
-            setParedNorte(dato);
-            setParedOeste(dato);
-            setParedSur(dato);
-
-            setPuntajeCuarto(dato);
-
-            setNumeroCuarto(fila, columna);
-
-            color = ColorCuarto.NO_VISITADO;
-
-            vecinos = new Diccionario<Integer, CuartoVecino>();
+        protected Cuarto(int indice) {
+            this.indice = indice;
         }
 
         /**
@@ -109,7 +51,7 @@ public abstract class CreadorLaberinto {
          */
         @Override
         public int getPuntaje() {
-            return puntaje;
+            return puntaje(indice);
         }
 
         /*
@@ -117,7 +59,7 @@ public abstract class CreadorLaberinto {
          */
         @Override
         public boolean getParedEste() {
-            return paredEste;
+            return tienePared(indice, PARED_ESTE);
         }
 
         /**
@@ -125,7 +67,7 @@ public abstract class CreadorLaberinto {
          */
         @Override
         public boolean getParedNorte() {
-            return paredNorte;
+            return tienePared(indice, PARED_NORTE);
         }
 
         /**
@@ -133,7 +75,7 @@ public abstract class CreadorLaberinto {
          */
         @Override
         public boolean getParedOeste() {
-            return paredOeste;
+            return tienePared(indice, PARED_OESTE);
         }
 
         /**
@@ -141,7 +83,7 @@ public abstract class CreadorLaberinto {
          */
         @Override
         public boolean getParedSur() {
-            return paredSur;
+            return tienePared(indice, PARED_SUR);
         }
 
         /**
@@ -149,7 +91,7 @@ public abstract class CreadorLaberinto {
          */
         @Override
         public int getColumna() {
-            return columna;
+            return indice % columnas;
         }
 
         /**
@@ -157,7 +99,7 @@ public abstract class CreadorLaberinto {
          */
         @Override
         public int getFila() {
-            return fila;
+            return indice / columnas;
         }
 
         /**
@@ -169,103 +111,67 @@ public abstract class CreadorLaberinto {
         }
 
         /**
-         * Verifica que la pared Este del cuarto recibdo
-         * (coorespondiente al bit en la posición número 0) exista.
-         * 
-         * @param numero el byte a analizar.
-         */
-        public void setParedEste(byte numero) {
-            paredEste = ((numero & 1) > 0) ? true : false;
-        }
-
-        /**
-         * Verifica que la pared Norte del cuarto recibdo
-         * (coorespondiente al bit en la posición número 1) exista.
-         * 
-         * @param numero el byte a analizar.
+         * Regresa el índice del cuarto como elemento del vértice.
          */
-        public void setParedNorte(byte numero) {
-            paredNorte = ((numero & 2) > 0) ? true : false;
+        @Override
+        public Integer get() {
+            return indice;
         }
 
         /**
-         * Verifica que la pared Oeste del cuarto recibdo
-         * (coorespondiente al bit en la posición número 2) exista.
-         * 
-         * @param numero el byte a analizar.
+         * Regresa el número de cuartos con los que el cuarto comparte una
+         * puerta.
          */
-        public void setParedOeste(byte numero) {
-            paredOeste = ((numero & 4) > 0) ? true : false;
-        }
+        @Override
+        public int getGrado() {
+            int grado = 0;
+            for (VerticeGrafica<Integer> vecino : vecinos())
+                grado++;
 
-        /**
-         * Verifica que la pared Sur del cuarto recibdo
-         * (coorespondiente al bit en la posición número 3) exista.
-         * 
-         * @param numero el byte a analizar.
-         */
-        public void setParedSur(byte numero) {
-            paredSur = ((numero & 8) > 0) ? true : false;
+            return grado;
         }
 
         /**
-         * Recorre el byte 4 veces a la izquierda (sin tomar en
-         * cuenta el signo) para quedarnos con los 4 bits más significatios
-         * del byte y tomar ese valor como el puntaje del cuarto.
-         * 
-         * @param numero el byte.
+         * Los cuartos no tienen color como vértices.
          */
-        protected void setPuntajeCuarto(byte numero) {
-            puntaje = ((numero & 0xFF) >>> 4);
+        @Override
+        public Color getColor() {
+            return Color.NINGUNO;
         }
 
         /**
-         * Regresa el número de cuarto de un byte correspondiente
-         * al que se encuentra en la fila i y columna j de la
-         * matriz de cuartos.
-         * 
-         * @param i la fila del cuarto.
-         * @param j la columna del cuarto.
+         * Regresa los cuartos con los que el cuarto comparte una puerta; las
+         * puertas de la frontera no llevan a ningún cuarto.
          */
-        protected void setNumeroCuarto(int i, int j) {
-            indice = (columnas * i) + j;
-        }
-
-    }
+        @Override
+        public Iterable<? extends VerticeGrafica<Integer>> vecinos() {
+            Lista<Cuarto> vecinos = new Lista<Cuarto>();
+            int fila = getFila();
+            int columna = getColumna();
 
-    /**
-     * Clase interna protegida para los cuartos Vecinos.
-     */
-    protected class CuartoVecino {
+            if (!getParedEste() && columna + 1 < columnas)
+                vecinos.agregaFinal(new Cuarto(indice + 1));
 
-        /* un cuarto adyacente a el cuarto */
-        Cuarto vecino;
+            if (!getParedNorte() && fila > 0)
+                vecinos.agregaFinal(new Cuarto(indice - columnas));
 
-        /*
-         * la direccion en la que se encuentra este vecino
-         * respecto al cuarto del que es vecino
-         */
-        Direccion direccion;
+            if (!getParedOeste() && columna > 0)
+                vecinos.agregaFinal(new Cuarto(indice - 1));
 
-        /* para saber si el vecino ya fue visitado o no */
-        ColorCuarto color;
+            if (!getParedSur() && fila + 1 < filas)
+                vecinos.agregaFinal(new Cuarto(indice + columnas));
 
-        /**
-         * Constructor.
-         * 
-         * @param vecino    el cuarto vecino.
-         * @param direccion la direccion en la que está el cuarto vecino
-         *                  respecto al cuarto del que es vecino.
-         */
-        public CuartoVecino(Cuarto vecino, Direccion direccion) {
-            this.vecino = vecino;
-            this.direccion = direccion;
-            color = ColorCuarto.NO_VISITADO;
+            return vecinos;
         }
+
     }
 
-    /* los cuartos del laberinto puestos en una matriz */
-    protected Cuarto[][] cuartos;
+    /*
+     * los cuartos del laberinto, renglón por renglón; cada cuarto ocupa un
+     * byte con el mismo formato que en el archivo: las paredes en los 4 bits
+     * menos significativos y el puntaje en los 4 más significativos
+     */
+    protected byte[] cuartos;
 
     /* el número de filas del laberinto */
     protected int filas;
@@ -281,21 +187,36 @@ public abstract class CreadorLaberinto {
 
     /**
      * Constructor.
-     * 
+     *
      * @param filas    el número de filas del laberinto.
      * @param columnas el número de columnas del laberinto.
      */
     public CreadorLaberinto(int filas, int columnas) {
-        cuartos = new Cuarto[filas][columnas];
+        cuartos = new byte[filas * columnas];
+        this.filas = filas;
+        this.columnas = columnas;
+        inicioLab = new Cuarto(0);
+        finalLab = new Cuarto(0);
+    }
+
+    /**
+     * Constructor para un laberinto cuyos cuartos ya existen.
+     *
+     * @param cuartos  los bytes de los cuartos, renglón por renglón.
+     * @param filas    el número de filas del laberinto.
+     * @param columnas el número de columnas del laberinto.
+     */
+    protected CreadorLaberinto(byte[] cuartos, int filas, int columnas) {
+        this.cuartos = cuartos;
         this.filas = filas;
         this.columnas = columnas;
-        inicioLab = new Cuarto();
-        finalLab = new Cuarto();
+        inicioLab = new Cuarto(0);
+        finalLab = new Cuarto(0);
     }
 
     /**
      * Regresa el número de filas del laberinto.
-     * 
+     *
      * @return las filas del laberinto.
      */
     public int getFilas() {
@@ -304,7 +225,7 @@ public abstract class CreadorLaberinto {
 
     /**
      * Regresa el número de columnas del laberinto.
-     * 
+     *
      * @return las columnas del laberinto.
      */
     public int getColumnas() {
@@ -317,9 +238,52 @@ public abstract class CreadorLaberinto {
     /* Crea un laberitno vacío para que sea "moldeado" después */
     protected abstract void creaEsqueletoLaberinto();
 
+    /**
+     * Regresa el índice del cuarto en la fila y columna dadas.
+     *
+     * @param fila    la fila del cuarto.
+     * @param columna la columna del cuarto.
+     * @return el índice del cuarto en el arreglo de cuartos.
+     */
+    protected int indice(int fila, int columna) {
+        return (fila * columnas) + columna;
+    }
+
+    /**
+     * Nos dice si el cuarto con el índice dado tiene la pared recibida.
+     *
+     * @param indice el índice del cuarto.
+     * @param pared  la máscara de la pared.
+     * @return true si la pared existe, false en otro caso.
+     */
+    protected boolean tienePared(int indice, int pared) {
+        return (cuartos[indice] & pared) != 0;
+    }
+
+    /**
+     * "Rompe" la pared recibida del cuarto con el índice dado.
+     *
+     * @param indice el índice del cuarto.
+     * @param pared  la máscara de la pared.
+     */
+    protected void quitaPared(int indice, int pared) {
+        cuartos[indice] &= ~pared;
+    }
+
+    /**
+     * Regresa el puntaje del cuarto con el índice dado, que corresponde a los
+     * 4 bits más significativos de su byte.
+     *
+     * @param indice el índice del cuarto.
+     * @return el puntaje del cuarto.
+     */
+    protected int puntaje(int indice) {
+        return (cuartos[indice] & 0xFF) >>> 4;
+    }
+
     /**
      * Regresa el Cuarto donde se inicia la solucion del laberinto.
-     * 
+     *
      * @return el inicio del laberinto visto como un cuarto de solo lectura.
      */
     public CuartoLaberinto getInicioLab() {
@@ -328,7 +292,7 @@ public abstract class CreadorLaberinto {
 
     /**
      * Regresa el Cuarto dónde se termina la solucion del laberinto.
-     * 
+     *
      * @return el final del laberinto visto como un cuarto de solo lectura.
      */
     public CuartoLaberinto getFinalLab() {
@@ -336,12 +300,23 @@ public abstract class CreadorLaberinto {
     }
 
     /**
-     * Regresa los cuartos del laberinto.
-     * 
-     * @return una matriz con los cuartos del laberinto vistos como
-     *         cuartos de solo lectura.
+     * Regresa el cuarto del laberinto en la fila y columna dadas.
+     *
+     * @param fila    la fila del cuarto.
+     * @param columna la columna del cuarto.
+     * @return el cuarto visto como un cuarto de solo lectura.
+     */
+    public CuartoLaberinto getCuarto(int fila, int columna) {
+        return new Cuarto(indice(fila, columna));
+    }
+
+    /**
+     * Regresa los bytes de los cuartos del laberinto, renglón por renglón y
+     * con el mismo formato que en el archivo.
+     *
+     * @return el arreglo con un byte por cuarto.
      */
-    public CuartoLaberinto[][] getCuartoLaberintos() {
+    public byte[] getBytesCuartos() {
         return cuartos;
     }
 
@@ -0,0 +1,113 @@
+package mx.unam.ciencias.edd.laberinto;
+
+/*
+ * Enumeracion para los formatos de archivo de un laberinto. Ambos empiezan
+ * con 4 bytes que los identifican y terminan con un byte por cuarto; sólo
+ * cambia cómo se guardan las filas y las columnas.
+ */
+public enum FormatoLaberinto {
+
+    /* El formato clásico: un byte para las filas y uno para las columnas */
+    MAZE("maze", new byte[] { 0x4d, 0x41, 0x5a, 0x45 }),
+
+    /*
+     * El formato extendido: un byte con el ancho de las dimensiones (2 o 4) y
+     * luego las filas y las columnas con ese número de bytes, en big-endian
+     */
+    MAZ2("maz2", new byte[] { 0x4d, 0x41, 0x5a, 0x32 });
+
+    /*
+     * El número máximo de cuartos de un laberinto. Una puerta pesa a lo más
+     * 31, así que con este límite cualquier distancia cabe en un int.
+     */
+    public static final int MAXIMO_CUARTOS = Integer.MAX_VALUE / 32;
+
+    /* el nombre del formato en la linea de comandos */
+    private String nombre;
+
+    /* los primeros 4 bytes de un archivo con este formato */
+    private byte[] magia;
+
+    /**
+     * Constructor.
+     *
+     * @param nombre el nombre del formato en la linea de comandos.
+     * @param magia  los primeros 4 bytes de un archivo con este formato.
+     */
+    private FormatoLaberinto(String nombre, byte[] magia) {
+        this.nombre = nombre;
+        this.magia = magia;
+    }
+
+    /**
+     * Regresa el nombre del formato en la linea de comandos.
+     *
+     * @return el nombre del formato.
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Regresa una copia de los primeros 4 bytes de un archivo con este formato.
+     *
+     * @return los 4 bytes que identifican al formato.
+     */
+    public byte[] getMagia() {
+        return magia.clone();
+    }
+
+    /**
+     * Regresa el número máximo de filas o columnas que se pueden guardar con
+     * este formato.
+     *
+     * @return el máximo de filas o columnas.
+     */
+    public int getMaximoLado() {
+        return this == MAZE ? 255 : MAXIMO_CUARTOS / 2;
+    }
+
+    /**
+     * Regresa el formato con el nombre dado.
+     *
+     * @param nombre el nombre del formato en la linea de comandos.
+     * @return el formato con ese nombre.
+     * @throws ExcepcionParametroInvalido si ningún formato tiene ese nombre.
+     */
+    public static FormatoLaberinto deNombre(String nombre) {
+        for (FormatoLaberinto formato : values())
+            if (formato.nombre.equals(nombre))
+                return formato;
+
+        throw new ExcepcionParametroInvalido("El formato " + nombre + " no es valido");
+    }
+
+    /**
+     * Regresa el formato cuyos primeros 4 bytes son los dados.
+     *
+     * @param bytes un arreglo con al menos 4 bytes.
+     * @return el formato que empieza con esos bytes, o null si ninguno.
+     */
+    public static FormatoLaberinto deMagia(byte[] bytes) {
+        for (FormatoLaberinto formato : values())
+            if (bytes[0] == formato.magia[0] && bytes[1] == formato.magia[1]
+                    && bytes[2] == formato.magia[2] && bytes[3] == formato.magia[3])
+                return formato;
+
+        return null;
+    }
+
+    /**
+     * Regresa los nombres de todos los formatos separados por '|'.
+     *
+     * @return los nombres de los formatos.
+     */
+    public static String nombres() {
+        String s = "";
+        for (FormatoLaberinto formato : values())
+            s += (s.isEmpty() ? "" : "|") + formato.nombre;
+
+        return s;
+    }
+
+}
@@ -0,0 +1,40 @@
+package mx.unam.ciencias.edd.laberinto;
+
+/**
+ * Interfaz para los generadores de números aleatorios con los que se genera
+ * un laberinto. Un generador se puede dividir en otro independiente, para
+ * repartir el trabajo entre varios hilos sin compartir un mismo generador.
+ */
+public interface GeneradorAleatorio {
+
+    /**
+     * Regresa un entero aleatorio entre 0 (incluido) y el límite (excluido).
+     * 
+     * @param limite el límite superior; debe ser positivo.
+     * @return un entero aleatorio en [0, limite).
+     */
+    public int siguienteEntero(int limite);
+
+    /**
+     * Regresa un booleano aleatorio.
+     * 
+     * @return un booleano aleatorio.
+     */
+    public boolean siguienteBooleano();
+
+    /**
+     * Regresa un entero largo aleatorio.
+     * 
+     * @return un entero largo aleatorio.
+     */
+    public long siguienteLargo();
+
+    /**
+     * Regresa un generador nuevo, independiente de éste, que produce otra
+     * secuencia; dividir el mismo generador en el mismo estado siempre
+     * regresa el mismo generador.
+     * 
+     * @return un generador independiente.
+     */
+    public GeneradorAleatorio divide();
+}
@@ -1,8 +1,12 @@
 package mx.unam.ciencias.edd.laberinto;
 
+import java.io.IOException;
+
+import mx.unam.ciencias.edd.ConjuntosDisjuntos;
 import mx.unam.ciencias.edd.VerticeGrafica;
 import mx.unam.ciencias.edd.Lista;
 import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCSR;
 
 /**
  * Clase para crear un laberinto.
@@ -27,6 +31,53 @@ public class Laberinto extends CreadorLaberinto {
     /* el laberinto visto como una grafica */
     protected Grafica<Integer> laberinto;
 
+    /* el algoritmo con el que se resolverá el laberinto */
+    protected AlgoritmoResolvedor algoritmo;
+
+    /*
+     * las puertas del laberinto vistas como aristas (los dos cuartos que
+     * conectan y su puntaje), para construir la gráfica CSR
+     */
+    protected int[] origenes;
+    protected int[] destinos;
+    protected int[] pesos;
+
+    /* el número de puertas entre dos cuartos del laberinto */
+    protected int puertas;
+
+    /*
+     * para saber si los cuartos los generó el programa, en cuyo caso no hace
+     * falta verificar que las paredes de los cuartos sean consistentes
+     */
+    protected boolean generado;
+
+    /* para saber si se podan los callejones sin salida antes de resolver */
+    protected boolean podar;
+
+    /* los cuartos podados, o null si no se podó */
+    protected boolean[] podados;
+
+    /* el número de cuartos podados */
+    protected int cuartosPodados;
+
+    /*
+     * para saber si se puede tomar el atajo de los laberintos con una sola
+     * trayectoria entre cualesquiera dos cuartos
+     */
+    protected boolean atajoArbol = true;
+
+    /* para saber si el laberinto resultó ser un árbol */
+    protected boolean arbol;
+
+    /*
+     * los cuartos unidos por puertas mientras se verifican las paredes, o
+     * null si no se están verificando
+     */
+    protected ConjuntosDisjuntos conjuntos;
+
+    /* el número de hilos con los que se resuelve con delta-stepping */
+    protected int hilos = 1;
+
     /**
      * Constructor.
      * 
@@ -35,12 +86,54 @@ public class Laberinto extends CreadorLaberinto {
      * @param columnas número de columnas del laberinto.
      */
     public Laberinto(byte[][] datos, int filas, int columnas) {
+        this(datos, filas, columnas, AlgoritmoResolvedor.DIJKSTRA);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param datos     los bytes recibidos por entrada estandar.
+     * @param filas     número de filas del laberinto.
+     * @param columnas  número de columnas del laberinto.
+     * @param algoritmo el algoritmo con el que se resolverá el laberinto.
+     */
+    public Laberinto(byte[][] datos, int filas, int columnas, AlgoritmoResolvedor algoritmo) {
         super(filas, columnas);
         this.datos = datos;
+        this.algoritmo = algoritmo;
+        cuartosEspeciales = 0;
+        laberinto = new Grafica<>();
+    }
+
+    /**
+     * Constructor que recibe los bytes de los cuartos renglón por renglón;
+     * el laberinto usa el mismo arreglo, sin copiarlo.
+     * 
+     * @param cuartos   los bytes de los cuartos, renglón por renglón.
+     * @param filas     número de filas del laberinto.
+     * @param columnas  número de columnas del laberinto.
+     * @param algoritmo el algoritmo con el que se resolverá el laberinto.
+     */
+    public Laberinto(byte[] cuartos, int filas, int columnas, AlgoritmoResolvedor algoritmo) {
+        super(cuartos, filas, columnas);
+        this.algoritmo = algoritmo;
         cuartosEspeciales = 0;
         laberinto = new Grafica<>();
     }
 
+    /**
+     * Constructor para resolver un laberinto que acaba de generar el
+     * programa; el laberinto usa los mismos bytes del laberinto generado, sin
+     * copiarlos, y confía en que sus paredes son consistentes.
+     * 
+     * @param generado  el laberinto generado.
+     * @param algoritmo el algoritmo con el que se resolverá el laberinto.
+     */
+    public Laberinto(LaberintoRandom generado, AlgoritmoResolvedor algoritmo) {
+        this(generado.getBytesCuartos(), generado.getFilas(), generado.getColumnas(), algoritmo);
+        this.generado = true;
+    }
+
     /**
      * Crea una grafica sin aristas, donde cada vertice
      * es la posicion de cada cuarto del laberinto de acuerdo
@@ -51,28 +144,356 @@ public class Laberinto extends CreadorLaberinto {
             laberinto.agrega(i);
     }
 
+    /**
+     * Reserva espacio para todas las puertas que puede haber entre dos
+     * cuartos del laberinto.
+     */
+    protected void creaAristasLaberintoVacias() {
+        int maximo = filas * (columnas - 1) + (filas - 1) * columnas;
+        origenes = new int[maximo];
+        destinos = new int[maximo];
+        pesos = new int[maximo];
+        puertas = 0;
+    }
+
     /**
      * Crea un laberinto con los bytes recibidos por entrada estandar.
      */
     @Override
     public void creaLaberinto() {
-        creaGraficaLaberintoVacia();
         creaEsqueletoLaberinto();
         verificaCuartosFrontera();
-        procesaLaberinto();
+
+        if (podar)
+            podaCallejones();
+
+        /* si el programa generó el laberinto, ya se sabe que es válido */
+        if (!generado)
+            verificaLaberinto();
+
+        /*
+         * con exactamente una puerta menos que cuartos, el laberinto es un
+         * árbol si es conexo, y entonces la trayectoria entre la entrada y la
+         * salida es única: basta una búsqueda en profundidad, sin montículo
+         */
+        if (atajoArbol && cuentaPuertas() == cuartos.length - 1L && resuelveArbol()) {
+            arbol = true;
+            return;
+        }
+
+        if (algoritmo == AlgoritmoResolvedor.DIJKSTRA || algoritmo == AlgoritmoResolvedor.BIDIRECCIONAL)
+            creaGraficaLaberintoVacia();
+        else if (algoritmo == AlgoritmoResolvedor.CSR)
+            creaAristasLaberintoVacias();
+
+        /*
+         * las paredes ya se verificaron, así que recorrer las puertas sólo
+         * construye la gráfica; los algoritmos que trabajan sobre los bytes
+         * de los cuartos no la ocupan
+         */
+        if (algoritmo == AlgoritmoResolvedor.DIJKSTRA || algoritmo == AlgoritmoResolvedor.CSR
+                || algoritmo == AlgoritmoResolvedor.BIDIRECCIONAL)
+            procesaLaberinto();
+
         resuelveLaberinto();
     }
 
     /**
-     * Crea un cuarto con y por cada byte recibido por entrada estandar
+     * Verifica el laberinto sin resolverlo: que los cuartos de la frontera
+     * tengan sus paredes, que las paredes de los cuartos adyacentes sean
+     * consistentes y que se pueda llegar de la entrada a la salida.
+     * 
+     * @throws ExcepcionFormatoCuartosInvalido si las paredes no son válidas.
+     * @throws ExcepcionLaberintoInvalido      si no se puede llegar de la
+     *                                         entrada a la salida.
      */
-    @Override
-    protected void creaEsqueletoLaberinto() {
+    public void verifica() {
+        creaEsqueletoLaberinto();
+        verificaCuartosFrontera();
+        verificaLaberinto();
+    }
+
+    /**
+     * Verifica que las paredes de los cuartos adyacentes sean consistentes y,
+     * en la misma pasada, une en conjuntos disjuntos a los cuartos que
+     * conecta cada puerta; al final, la entrada y la salida deben estar en el
+     * mismo conjunto. Así un laberinto sin solución se rechaza antes de
+     * construir ninguna gráfica ni montículo.
+     * 
+     * @throws ExcepcionFormatoCuartosInvalido si las paredes no son
+     *                                         consistentes.
+     * @throws ExcepcionLaberintoInvalido      si no se puede llegar de la
+     *                                         entrada a la salida.
+     */
+    protected void verificaLaberinto() {
+        conjuntos = new ConjuntosDisjuntos(cuartos.length);
+        try {
+            procesaLaberinto();
+
+            if (!conjuntos.mismoConjunto(inicioLab.indice, finalLab.indice))
+                throw new ExcepcionLaberintoInvalido("El archivo es invalido pues no se puede"
+                        + " recorrer del cuarto de entrada al cuarto de salida");
+        } finally {
+            conjuntos = null;
+        }
+    }
+
+    /**
+     * Indica si se puede tomar el atajo para los laberintos que son árboles
+     * (por omisión sí); sin el atajo, todo laberinto se resuelve con el
+     * algoritmo elegido.
+     * 
+     * @param atajoArbol <code>true</code> para permitir el atajo.
+     */
+    public void setAtajoArbol(boolean atajoArbol) {
+        this.atajoArbol = atajoArbol;
+    }
+
+    /**
+     * Define el número de hilos con los que se relajan las puertas cuando el
+     * laberinto se resuelve con delta-stepping (por omisión uno).
+     * 
+     * @param hilos el número de hilos.
+     */
+    public void setHilos(int hilos) {
+        this.hilos = hilos;
+    }
+
+    /**
+     * Nos dice si el laberinto se resolvió con el atajo para árboles.
+     * 
+     * @return <code>true</code> si el laberinto es un árbol y se resolvió
+     *         con una búsqueda en profundidad.
+     */
+    public boolean esArbol() {
+        return arbol;
+    }
+
+    /**
+     * Cuenta las puertas entre dos cuartos del laberinto, con la misma pared
+     * que usa {@link #procesaLaberinto}.
+     * 
+     * @return el número de puertas.
+     */
+    protected long cuentaPuertas() {
+        long puertas = 0;
+        for (int f = 0; f < filas; f++) {
+            for (int c = 0; c < columnas; c++) {
+                int i = indice(f, c);
+
+                if (c + 1 < columnas && !tienePared(i, PARED_ESTE))
+                    puertas++;
+
+                if (f + 1 < filas && !tienePared(i, PARED_SUR))
+                    puertas++;
+            }
+        }
+
+        return puertas;
+    }
+
+    /**
+     * Resuelve el laberinto como árbol: una búsqueda en profundidad iterativa
+     * desde la entrada guarda el padre de cada cuarto, y la trayectoria se
+     * reconstruye desde la salida. Si la búsqueda no alcanza todos los
+     * cuartos, el laberinto no es conexo (y por lo tanto tiene algún ciclo),
+     * así que no es un árbol.
+     * 
+     * @return <code>true</code> si el laberinto es un árbol y ya se resolvió,
+     *         <code>false</code> en otro caso.
+     */
+    protected boolean resuelveArbol() {
+        int[] padres = new int[cuartos.length];
+        for (int i = 0; i < padres.length; i++)
+            padres[i] = -1;
+
+        int[] pila = new int[cuartos.length];
+        int tope = 0;
+        int inicio = inicioLab.indice;
+        padres[inicio] = inicio;
+        pila[tope++] = inicio;
+        int alcanzados = 1;
+
+        while (tope > 0) {
+            int v = pila[--tope];
+            int f = v / columnas;
+            int c = v - f * columnas;
+
+            for (int d = 0; d < 4; d++) {
+                int u = vecinoPuerta(v, f, c, d);
+                if (u != -1 && padres[u] == -1) {
+                    padres[u] = v;
+                    pila[tope++] = u;
+                    alcanzados++;
+                }
+            }
+        }
+
+        if (alcanzados != cuartos.length)
+            return false;
+
+        int longitud = 1;
+        for (int v = finalLab.indice; v != inicio; v = padres[v])
+            longitud++;
+
+        int[] trayectoria = new int[longitud];
+        for (int v = finalLab.indice; longitud > 0; v = padres[v])
+            trayectoria[--longitud] = v;
+
+        solucion = trayectoriaCuartos(trayectoria);
+        return true;
+    }
+
+    /**
+     * Crea el laberinto usando la caché de soluciones dada. Si la solución
+     * de estos cuartos ya está en la caché, sólo se revisa que vaya de la
+     * frontera a la frontera por puertas abiertas: no se verifican los demás
+     * cuartos, ni se construye la gráfica, ni se resuelve. Si no está, o está
+     * dañada, se crea el laberinto como siempre y su solución se guarda en la
+     * caché.
+     * 
+     * @param cache la caché de soluciones, o null para no usar ninguna.
+     * @throws IOException en caso de que no se pueda escribir en la caché
+     *                     en disco.
+     */
+    public void creaLaberinto(CacheSoluciones cache) throws IOException {
+        if (cache == null) {
+            creaLaberinto();
+            return;
+        }
+
+        creaEsqueletoLaberinto();
+        String llave = cache.llave(cuartos, filas, columnas, algoritmo);
+        int[] trayectoria = cache.busca(llave, cuartos, filas, columnas);
+
+        if (trayectoria != null) {
+            inicioLab = new Cuarto(trayectoria[0]);
+            finalLab = new Cuarto(trayectoria[trayectoria.length - 1]);
+            solucion = trayectoriaCuartos(trayectoria);
+            return;
+        }
+
+        creaLaberinto();
+        cache.guarda(llave, columnas, getTrayectoria());
+    }
+
+    /**
+     * Indica si se deben podar los callejones sin salida antes de resolver
+     * el laberinto.
+     * 
+     * @param podar <code>true</code> para podar los callejones.
+     */
+    public void setPodar(boolean podar) {
+        this.podar = podar;
+    }
+
+    /**
+     * Regresa el número de cuartos que se podaron antes de resolver el
+     * laberinto.
+     * 
+     * @return el número de cuartos podados, o 0 si no se podó.
+     */
+    public int getCuartosPodados() {
+        return cuartosPodados;
+    }
+
+    /**
+     * Poda los callejones sin salida del laberinto: quita una y otra vez los
+     * cuartos con a lo más una puerta que no sean la entrada ni la salida,
+     * hasta que no quede ninguno. Un cuarto así no puede estar en ninguna
+     * trayectoria de la entrada a la salida, así que la trayectoria de peso
+     * mínimo no cambia; en un laberinto perfecto sólo sobrevive la
+     * trayectoria misma. Las puertas se cuentan con la misma pared que usa
+     * {@link #procesaLaberinto}, que sigue verificando todas las paredes.
+     */
+    protected void podaCallejones() {
+        int[] grados = new int[cuartos.length];
         for (int f = 0; f < filas; f++) {
             for (int c = 0; c < columnas; c++) {
-                cuartos[f][c] = new Cuarto(datos[f][c], f, c);
+                int i = indice(f, c);
+
+                if (c + 1 < columnas && !tienePared(i, PARED_ESTE)) {
+                    grados[i]++;
+                    grados[i + 1]++;
+                }
+
+                if (f + 1 < filas && !tienePared(i, PARED_SUR)) {
+                    grados[i]++;
+                    grados[i + columnas]++;
+                }
+            }
+        }
+
+        podados = new boolean[cuartos.length];
+        int[] cola = new int[cuartos.length];
+        int cabeza = 0;
+        int rabo = 0;
+
+        for (int i = 0; i < cuartos.length; i++) {
+            if (grados[i] <= 1 && i != inicioLab.indice && i != finalLab.indice) {
+                podados[i] = true;
+                cola[rabo++] = i;
+            }
+        }
+
+        while (cabeza < rabo) {
+            int v = cola[cabeza++];
+            int f = v / columnas;
+            int c = v - f * columnas;
+
+            for (int d = 0; d < 4; d++) {
+                int u = vecinoPuerta(v, f, c, d);
+                if (u == -1 || podados[u])
+                    continue;
+
+                if (--grados[u] == 1 && u != inicioLab.indice && u != finalLab.indice) {
+                    podados[u] = true;
+                    cola[rabo++] = u;
+                }
             }
         }
+
+        cuartosPodados = rabo;
+    }
+
+    /**
+     * Regresa el vecino de un cuarto en la dirección dada (0 Este, 1 Norte,
+     * 2 Oeste, 3 Sur) si hay una puerta entre ambos, según la pared Este o
+     * Sur del cuarto de la izquierda o de arriba.
+     * 
+     * @param v         el índice del cuarto.
+     * @param fila      la fila del cuarto.
+     * @param columna   la columna del cuarto.
+     * @param direccion la dirección del vecino.
+     * @return el índice del vecino, o -1 si no hay puerta.
+     */
+    private int vecinoPuerta(int v, int fila, int columna, int direccion) {
+        switch (direccion) {
+            case 0:
+                return (columna + 1 < columnas && !tienePared(v, PARED_ESTE)) ? v + 1 : -1;
+            case 1:
+                return (fila > 0 && !tienePared(v - columnas, PARED_SUR)) ? v - columnas : -1;
+            case 2:
+                return (columna > 0 && !tienePared(v - 1, PARED_ESTE)) ? v - 1 : -1;
+            default:
+                return (fila + 1 < filas && !tienePared(v, PARED_SUR)) ? v + columnas : -1;
+        }
+    }
+
+    /**
+     * Copia renglón por renglón los bytes recibidos por entrada estandar al
+     * arreglo de cuartos del laberinto, si se recibieron como matriz.
+     */
+    @Override
+    protected void creaEsqueletoLaberinto() {
+        if (datos == null)
+            return;
+
+        for (int f = 0; f < filas; f++)
+            System.arraycopy(datos[f], 0, cuartos, indice(f, 0), columnas);
+
+        /* los bytes ya están en el arreglo de cuartos */
+        datos = null;
     }
 
     /**
@@ -82,15 +503,13 @@ public class Laberinto extends CreadorLaberinto {
     protected void procesaLaberinto() {
         for (int f = 0; f < filas; f++) {
             for (int c = 0; c < columnas; c++) {
-                try {
-                    procesaCuartos(cuartos[f][c], cuartos[f][c + 1], Direccion.ESTE);
-                } catch (ArrayIndexOutOfBoundsException e) {
-                }
+                int i = indice(f, c);
 
-                try {
-                    procesaCuartos(cuartos[f][c], cuartos[f + 1][c], Direccion.SUR);
-                } catch (ArrayIndexOutOfBoundsException e) {
-                }
+                if (c + 1 < columnas)
+                    procesaCuartos(i, i + 1, Direccion.ESTE);
+
+                if (f + 1 < filas)
+                    procesaCuartos(i, i + columnas, Direccion.SUR);
             }
         }
     }
@@ -102,11 +521,11 @@ public class Laberinto extends CreadorLaberinto {
      * debe tener su tercer bit menos significativo apagado, porque corresponde
      * a su puerta Oeste: x0xx.
      * 
-     * @param cuartoActual    un cuarto del laberinto.
-     * @param vecinoActual    un cuarto adyacente al cuarto del laberinto.
-     * @param direccionVecino la dirección en la que está el vecino del cuarto.
+     * @param actual    el índice de un cuarto del laberinto.
+     * @param vecino    el índice de un cuarto adyacente al cuarto del laberinto.
+     * @param direccion la dirección en la que está el vecino del cuarto.
      */
-    protected void procesaCuartos(Cuarto actual, Cuarto vecino, Direccion direccion) {
+    protected void procesaCuartos(int actual, int vecino, Direccion direccion) {
 
         boolean paredActual = false;
         boolean paredVecino = false;
@@ -114,13 +533,13 @@ public class Laberinto extends CreadorLaberinto {
         switch (direccion) {
 
             case ESTE:
-                paredActual = actual.paredEste;
-                paredVecino = vecino.paredOeste;
+                paredActual = tienePared(actual, PARED_ESTE);
+                paredVecino = tienePared(vecino, PARED_OESTE);
                 break;
 
             case SUR:
-                paredActual = actual.paredSur;
-                paredVecino = vecino.paredNorte;
+                paredActual = tienePared(actual, PARED_SUR);
+                paredVecino = tienePared(vecino, PARED_NORTE);
                 break;
 
             case NORTE:
@@ -135,11 +554,41 @@ public class Laberinto extends CreadorLaberinto {
                 throw new ExcepcionFormatoCuartosInvalido(
                         "Dos cuartos adyacentes deben de ser consistentes con sus puertas");
             } else {
-                laberinto.conecta(actual.indice, vecino.indice, actual.puntaje + vecino.puntaje + 1);
+                conectaCuartos(actual, vecino, puntaje(actual) + puntaje(vecino) + 1);
             }
         }
     }
 
+    /**
+     * Agrega la puerta entre dos cuartos a la representación del laberinto
+     * que ocupa el algoritmo con el que se resolverá. Los algoritmos que
+     * trabajan directamente sobre los bytes de los cuartos no ocupan nada más.
+     * Mientras se verifican las paredes, sólo se unen los conjuntos de ambos
+     * cuartos.
+     * 
+     * @param actual el índice de un cuarto del laberinto.
+     * @param vecino el índice de un cuarto adyacente al cuarto del laberinto.
+     * @param peso   el puntaje de la puerta entre los dos cuartos.
+     */
+    protected void conectaCuartos(int actual, int vecino, int peso) {
+        if (conjuntos != null) {
+            conjuntos.une(actual, vecino);
+            return;
+        }
+
+        if (podados != null && (podados[actual] || podados[vecino]))
+            return;
+
+        if (algoritmo == AlgoritmoResolvedor.DIJKSTRA || algoritmo == AlgoritmoResolvedor.BIDIRECCIONAL) {
+            laberinto.conecta(actual, vecino, peso);
+        } else if (algoritmo == AlgoritmoResolvedor.CSR) {
+            origenes[puertas] = actual;
+            destinos[puertas] = vecino;
+            pesos[puertas] = peso;
+            puertas++;
+        }
+    }
+
     /**
      * Verifica que los cuartos de la frontera del laberinto
      * sean consistentes con las reglas del Proyecto.
@@ -159,8 +608,8 @@ public class Laberinto extends CreadorLaberinto {
      */
     protected void verificaCuartosFronteraNorte() {
         for (int i = 0; i < columnas; i++) {
-            if (!cuartos[0][i].paredNorte)
-                asignaInicioFinalLaberinto(cuartos[0][i]);
+            if (!tienePared(indice(0, i), PARED_NORTE))
+                asignaInicioFinalLaberinto(indice(0, i));
         }
     }
 
@@ -172,8 +621,8 @@ public class Laberinto extends CreadorLaberinto {
      */
     protected void verificaCuartosFronteraEste() {
         for (int i = 0; i < filas; i++) {
-            if (!cuartos[i][columnas - 1].paredEste)
-                asignaInicioFinalLaberinto(cuartos[i][columnas - 1]);
+            if (!tienePared(indice(i, columnas - 1), PARED_ESTE))
+                asignaInicioFinalLaberinto(indice(i, columnas - 1));
         }
     }
 
@@ -185,8 +634,8 @@ public class Laberinto extends CreadorLaberinto {
      */
     protected void verificaCuartosFronteraOeste() {
         for (int i = 0; i < filas; i++) {
-            if (!cuartos[i][0].paredOeste)
-                asignaInicioFinalLaberinto(cuartos[i][0]);
+            if (!tienePared(indice(i, 0), PARED_OESTE))
+                asignaInicioFinalLaberinto(indice(i, 0));
         }
     }
 
@@ -198,8 +647,8 @@ public class Laberinto extends CreadorLaberinto {
      */
     protected void verificaCuartosFronteraSur() {
         for (int i = 0; i < columnas; i++) {
-            if (!cuartos[filas - 1][i].paredSur)
-                asignaInicioFinalLaberinto(cuartos[filas - 1][i]);
+            if (!tienePared(indice(filas - 1, i), PARED_SUR))
+                asignaInicioFinalLaberinto(indice(filas - 1, i));
         }
     }
 
@@ -208,15 +657,14 @@ public class Laberinto extends CreadorLaberinto {
      * o al final del laberinto de acuerdo a su fila y columna
      * en la matriz de cuartos.
      * 
-     * @param i la fila del cuarto.
-     * @param j la columna del cuarto.
+     * @param cuartoEspecial el índice del cuarto.
      */
-    protected void asignaInicioFinalLaberinto(Cuarto cuartoEspecial) {
+    protected void asignaInicioFinalLaberinto(int cuartoEspecial) {
         if (cuartosEspeciales == 0)
-            inicioLab = cuartoEspecial;
+            inicioLab = new Cuarto(cuartoEspecial);
 
         if (cuartosEspeciales == 1)
-            finalLab = cuartoEspecial;
+            finalLab = new Cuarto(cuartoEspecial);
 
         if (cuartosEspeciales == 2) {
             throw new ExcepcionFormatoCuartosInvalido("El formato del archivo es invalido" +
@@ -228,16 +676,78 @@ public class Laberinto extends CreadorLaberinto {
     /**
      * Resuelve el laberinto (visto como una grafica) con el algoritmo de
      * dijkstra, que toma como argumenos al inicio y final del laberinto
-     * (los cuartos especiales).
+     * (los cuartos especiales). La gráfica es la de diccionarios o la CSR, o
+     * los bytes de los cuartos mismos, según el algoritmo elegido.
      */
     protected void resuelveLaberinto() {
-        solucion = laberinto.dijkstra(inicioLab.indice, finalLab.indice);
+        switch (algoritmo) {
+            case CSR:
+                GraficaCSR grafica = new GraficaCSR(cuartos.length, origenes, destinos, pesos, puertas);
+                solucion = grafica.dijkstra(inicioLab.indice, finalLab.indice);
+                break;
+
+            case DIAL:
+                ResolvedorDial dial = new ResolvedorDial(cuartos, filas, columnas);
+                dial.setPodados(podados);
+                solucion = trayectoriaCuartos(dial.resuelve(inicioLab.indice, finalLab.indice));
+                break;
+
+            case A_ESTRELLA:
+                ResolvedorAEstrella aEstrella = new ResolvedorAEstrella(cuartos, filas, columnas);
+                aEstrella.setPodados(podados);
+                solucion = trayectoriaCuartos(aEstrella.resuelve(inicioLab.indice, finalLab.indice));
+                break;
+
+            case DELTA:
+                ResolvedorDeltaStepping delta = new ResolvedorDeltaStepping(cuartos, filas, columnas, hilos);
+                delta.setPodados(podados);
+                solucion = trayectoriaCuartos(delta.resuelve(inicioLab.indice, finalLab.indice));
+                break;
+
+            case BIDIRECCIONAL:
+                solucion = laberinto.dijkstraBidireccional(inicioLab.indice, finalLab.indice);
+                break;
+
+            default:
+                solucion = laberinto.dijkstra(inicioLab.indice, finalLab.indice);
+                break;
+        }
 
         if (solucion.esVacia())
             throw new ExcepcionLaberintoInvalido("El archivo es invalido pues no se puede"
                     + " recorrer del cuarto de entrada al cuarto de salida");
     }
 
+    /**
+     * Convierte los índices de una trayectoria de cuartos en la lista de
+     * vértices que se usa como solución.
+     * 
+     * @param trayectoria los índices de los cuartos de la trayectoria.
+     * @return la lista con los cuartos de la trayectoria como vértices.
+     */
+    protected Lista<VerticeGrafica<Integer>> trayectoriaCuartos(int[] trayectoria) {
+        Lista<VerticeGrafica<Integer>> lista = new Lista<VerticeGrafica<Integer>>();
+        for (int indice : trayectoria)
+            lista.agregaFinal(new Cuarto(indice));
+
+        return lista;
+    }
+
+    /**
+     * Regresa los índices de los cuartos de la solución del laberinto, en
+     * orden.
+     * 
+     * @return los índices de los cuartos de la solución.
+     */
+    public int[] getTrayectoria() {
+        int[] trayectoria = new int[solucion.getLongitud()];
+        int i = 0;
+        for (VerticeGrafica<Integer> cuarto : solucion)
+            trayectoria[i++] = cuarto.get();
+
+        return trayectoria;
+    }
+
     /**
      * Regresa la solución del laberinto.
      * 
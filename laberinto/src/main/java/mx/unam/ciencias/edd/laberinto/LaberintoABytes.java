@@ -1,6 +1,7 @@
 package mx.unam.ciencias.edd.laberinto;
 
 import java.io.IOException;
+import java.io.OutputStream;
 
 /**
  * Clase para transformar un laberinto a bytes que puedan ser
@@ -8,8 +9,8 @@ import java.io.IOException;
  */
 public class LaberintoABytes {
 
-    /** Los cuartos del laberitno vistos como cuartos de solo lectura. */
-    private CuartoLaberinto[][] cuartos;
+    /** Los bytes de los cuartos del laberinto. */
+    private byte[] cuartos;
 
     /* El número de filas del laberinto */
     private int filas;
@@ -17,7 +18,10 @@ public class LaberintoABytes {
     /* El número de columnas del laberinto */
     private int columnas;
 
-    /* Arreglo auxiliar para escribir en la salida estandar */
+    /* El formato con el que se escribirá el laberinto */
+    private FormatoLaberinto formato;
+
+    /* Arreglo auxiliar para escribir la cabecera en la salida estandar */
     private byte[] aux;
 
     /**
@@ -26,124 +30,125 @@ public class LaberintoABytes {
      * @param laberinto un laberinto creado por el programa.
      */
     public LaberintoABytes(LaberintoRandom laberinto) {
-        this.cuartos = laberinto.getCuartoLaberintos();
-        this.filas = laberinto.getFilas();
-        this.columnas = laberinto.getColumnas();
-        aux = new byte[filas * columnas + 6];
+        this(laberinto, FormatoLaberinto.MAZE);
     }
 
     /**
-     * Escribe el laberinto recibido como bytes en la salida estandar.
+     * Constructor que recibe el formato del archivo. En el formato MAZ2 las
+     * filas y las columnas ocupan 2 bytes cada una si ambas caben, y 4 bytes
+     * si no.
      * 
-     * @throws IOException en caso de que haya un error escribiendo
-     *                     en la salida estandar.
+     * @param laberinto un laberinto creado por el programa.
+     * @param formato   el formato con el que se escribirá el laberinto.
+     * @throws ExcepcionParametroInvalido si el laberinto no cabe en el formato.
      */
-    public void escribeSalidaEstandarLaberinto() throws IOException {
-
-        escribeFormatoArchivo();
-        escribeDimensiones();
-
-        int cont = 6;
-        for (int f = 0; f < filas; f++)
-            for (int c = 0; c < columnas; c++)
-                aux[cont++] = procesaCuarto(cuartos[f][c]);
-
-        System.out.write(aux);
+    public LaberintoABytes(LaberintoRandom laberinto, FormatoLaberinto formato) {
+        this(laberinto.getFilas(), laberinto.getColumnas(), formato);
+        this.cuartos = laberinto.getBytesCuartos();
     }
 
     /**
-     * Escribe los bytes correpondientes a la palabra MAZE en
-     * la salida estandar.
+     * Constructor para escribir sólo la cabecera de un laberinto con las
+     * dimensiones dadas, cuando los cuartos se escriben conforme se generan.
      * 
-     * @throws IOException en caso de que haya un error escribiendo
-     *                     en la salida estandar
+     * @param filas    el número de filas del laberinto.
+     * @param columnas el número de columnas del laberinto.
+     * @param formato  el formato con el que se escribirá el laberinto.
+     * @throws ExcepcionParametroInvalido si el laberinto no cabe en el formato.
      */
-    private void escribeFormatoArchivo() throws IOException {
-        aux[0] = 0x4d;
-        aux[1] = 0x41;
-        aux[2] = 0x5a;
-        aux[3] = 0x45;
+    public LaberintoABytes(int filas, int columnas, FormatoLaberinto formato) {
+        this.filas = filas;
+        this.columnas = columnas;
+        this.formato = formato;
+
+        if (filas > formato.getMaximoLado() || columnas > formato.getMaximoLado())
+            throw new ExcepcionParametroInvalido("El laberinto no cabe en el formato " +
+                    formato.getNombre());
+
+        if (formato == FormatoLaberinto.MAZE)
+            aux = new byte[6];
+        else if (filas <= 0xFFFF && columnas <= 0xFFFF)
+            aux = new byte[9];
+        else
+            aux = new byte[13];
     }
 
     /**
-     * Escribe las filas y las columnas del laberinto en la salida
-     * estandar.
+     * Escribe el laberinto recibido como bytes en la salida estandar.
      * 
      * @throws IOException en caso de que haya un error escribiendo
      *                     en la salida estandar.
      */
-    private void escribeDimensiones() throws IOException {
-        aux[4] = (byte) filas;
-        aux[5] = (byte) columnas;
+    public void escribeSalidaEstandarLaberinto() throws IOException {
+        escribeLaberinto(System.out);
     }
 
     /**
-     * Dado un cuarto, lo transforma a un byte.
+     * Escribe el laberinto recibido como bytes en la salida dada.
      * 
-     * @param cuarto en cuarto del laberinto.
-     * @return el byte correspondiente al cuarto recibido.
+     * @param salida la salida donde se escribirá el laberinto.
+     * @throws IOException en caso de que haya un error escribiendo
+     *                     en la salida.
      */
-    private byte procesaCuarto(CuartoLaberinto cuarto) {
-        return (byte) ((puntajeEnByte(cuarto.getPuntaje())) |
-                (paredEsteEnByte(cuarto.getParedEste())) |
-                (paredNorteEnByte(cuarto.getParedNorte())) |
-                (paredOesteEnByte(cuarto.getParedOeste())) |
-                (paredSurEnByte(cuarto.getParedSur())) & (0xFF));
-    }
+    public void escribeLaberinto(OutputStream salida) throws IOException {
+        escribeCabecera(salida);
 
-    /**
-     * Regresa el puntaje del cuarto recorrido 4 posiciones a la izquierda
-     * para poder hacer un OR de bits y combinarlo en un solo byte.
-     * 
-     * @param puntaje el puntaje del cuarto.
-     * @return el puntajde del cuarto recorrido 4 posiciones a la izquierda.
-     */
-    private int puntajeEnByte(int puntaje) {
-        return (puntaje << 4);
+        /* los cuartos ya están guardados con el formato del archivo */
+        salida.write(cuartos);
     }
 
     /**
-     * Regresa la mascará correspondiente al número 1 en caso de que la paredEste
-     * del cuarto existe.
+     * Escribe sólo la cabecera del laberinto en la salida dada: la palabra
+     * MAZE (o MAZ2) y las dimensiones.
      * 
-     * @param paredEste el valor de la paredEste del cuarto.
-     * @return el número 1 si la paredEste existe, 0 en otro caso.
+     * @param salida la salida donde se escribirá la cabecera.
+     * @throws IOException en caso de que haya un error escribiendo
+     *                     en la salida.
      */
-    private int paredEsteEnByte(boolean paredEste) {
-        return (paredEste) ? 1 : 0;
+    public void escribeCabecera(OutputStream salida) throws IOException {
+        escribeFormatoArchivo();
+        escribeDimensiones();
+
+        salida.write(aux);
     }
 
     /**
-     * Regresa la mascará correspondiente al número 1 en caso de que la paredNorte
-     * del cuarto existe.
-     * 
-     * @param paredEste el valor de la paredNorte del cuarto.
-     * @return el número 2 si la paredNorte existe, 0 en otro caso.
+     * Escribe los bytes correpondientes a la palabra MAZE (o MAZ2) en
+     * la cabecera.
      */
-    private int paredNorteEnByte(boolean paredNorte) {
-        return (paredNorte) ? 2 : 0;
+    private void escribeFormatoArchivo() {
+        System.arraycopy(formato.getMagia(), 0, aux, 0, 4);
     }
 
     /**
-     * Regresa la mascará correspondiente al número 1 en caso de que la paredOeste
-     * del cuarto existe.
-     * 
-     * @param paredEste el valor de la paredOeste del cuarto.
-     * @return el número 4 si la paredOeste existe, 0 en otro caso.
+     * Escribe las filas y las columnas del laberinto en la cabecera; en el
+     * formato MAZ2 primero va el número de bytes que ocupa cada una.
      */
-    private int paredOesteEnByte(boolean paredOeste) {
-        return (paredOeste) ? 4 : 0;
+    private void escribeDimensiones() {
+        if (formato == FormatoLaberinto.MAZE) {
+            aux[4] = (byte) filas;
+            aux[5] = (byte) columnas;
+            return;
+        }
+
+        int ancho = (aux.length - 5) / 2;
+        aux[4] = (byte) ancho;
+        escribeEntero(filas, 5, ancho);
+        escribeEntero(columnas, 5 + ancho, ancho);
     }
 
     /**
-     * Regresa la mascará correspondiente al número 1 en caso de que la paredSur
-     * del cuarto existe.
+     * Escribe un entero en big-endian en la cabecera.
      * 
-     * @param paredEste el valor de la paredSur del cuarto.
-     * @return el número 1 si la paredSur existe, 0 en otro caso.
+     * @param valor  el entero a escribir.
+     * @param inicio la posición del primer byte del entero.
+     * @param ancho  el número de bytes del entero.
      */
-    private int paredSurEnByte(boolean paredSur) {
-        return (paredSur) ? 8 : 0;
+    private void escribeEntero(int valor, int inicio, int ancho) {
+        for (int i = inicio + ancho - 1; i >= inicio; i--) {
+            aux[i] = (byte) valor;
+            valor >>>= 8;
+        }
     }
 
 }
@@ -0,0 +1,481 @@
+package mx.unam.ciencias.edd.laberinto;
+
+import mx.unam.ciencias.edd.MonticuloIndexado;
+
+/**
+ * Laberinto que se puede modificar (abrir y cerrar puertas, cambiar el
+ * puntaje de los cuartos) y que mantiene al día el árbol de trayectorias de
+ * peso mínimo de todos los cuartos hacia la salida, sin resolverlo de nuevo
+ * tras cada cambio.
+ *
+ * Los cambios se reparan al estilo de Ramalingam y Reps: si una puerta se
+ * abre o se abarata, sólo se propagan las distancias que mejoran; si una
+ * puerta se cierra o se encarece y era parte del árbol, se descarta el
+ * subárbol que colgaba de ella, cada cuarto del subárbol toma la mejor
+ * distancia que le ofrecen sus vecinos de fuera, y desde ahí se vuelve a
+ * correr Dijkstra sólo sobre el subárbol. En ambos casos el trabajo es
+ * proporcional a los cuartos cuya distancia cambia, no al laberinto.
+ *
+ * Los cuartos se verifican completos una sola vez, al construir el laberinto;
+ * después, cada cambio escribe las paredes de los dos cuartos que separa, así
+ * que sólo hace falta verificar el cambio mismo.
+ */
+public class LaberintoDinamico extends ResolvedorCuadricula {
+
+    /* Distancia de los cuartos que no alcanzan la raíz */
+    private static final int INFINITO = Integer.MAX_VALUE;
+
+    /* El cuarto de entrada del laberinto */
+    private int inicio;
+
+    /* La raíz del árbol de trayectorias, normalmente la salida */
+    private int raiz;
+
+    /* La distancia de cada cuarto a la raíz */
+    private int[] distancias;
+
+    /* El siguiente cuarto hacia la raíz de cada cuarto, o -1 si no tiene */
+    private int[] padres;
+
+    /* El montículo para las búsquedas, que se reutiliza entre cambios */
+    private MonticuloIndexado monticulo;
+
+    /* Pila para recorrer los subárboles afectados por un cambio */
+    private int[] pila;
+
+    /**
+     * Constructor. Verifica los cuartos como si se fueran a resolver y
+     * calcula el árbol de trayectorias hacia la salida. El laberinto trabaja
+     * sobre una copia de los cuartos.
+     *
+     * @param cuartos  los bytes de los cuartos, renglón por renglón.
+     * @param filas    el número de filas del laberinto.
+     * @param columnas el número de columnas del laberinto.
+     * @throws ExcepcionFormatoCuartosInvalido si las paredes no son
+     *                                         consistentes.
+     * @throws ExcepcionLaberintoInvalido      si no se puede llegar de la
+     *                                         entrada a la salida.
+     */
+    public LaberintoDinamico(byte[] cuartos, int filas, int columnas) {
+        super(cuartos.clone(), filas, columnas);
+
+        Laberinto laberinto = new Laberinto(this.cuartos, filas, columnas, AlgoritmoResolvedor.DIAL);
+        laberinto.creaLaberinto();
+        inicio = laberinto.getInicioLab().getIndice();
+        raiz = laberinto.getFinalLab().getIndice();
+
+        distancias = new int[this.cuartos.length];
+        padres = new int[this.cuartos.length];
+        monticulo = new MonticuloIndexado(this.cuartos.length);
+        pila = new int[this.cuartos.length];
+        recalcula();
+    }
+
+    /**
+     * Calcula una trayectoria de peso mínimo entre dos cuartos siguiendo el
+     * árbol. Si el cuarto final no es la raíz del árbol, el árbol se vuelve a
+     * calcular con el final como raíz.
+     *
+     * @param inicio el índice del cuarto de inicio.
+     * @param fin    el índice del cuarto final.
+     * @return los índices de los cuartos de la trayectoria, del inicio al
+     *         final; si no se puede llegar del inicio al final, un arreglo
+     *         vacío.
+     */
+    @Override
+    public int[] resuelve(int inicio, int fin) {
+        if (fin != raiz) {
+            raiz = fin;
+            recalcula();
+        }
+
+        return trayectoria(inicio);
+    }
+
+    /**
+     * Vuelve a calcular desde cero el árbol de trayectorias hacia la raíz,
+     * con el algoritmo de Dijkstra.
+     */
+    public void recalcula() {
+        for (int i = 0; i < distancias.length; i++) {
+            distancias[i] = INFINITO;
+            padres[i] = -1;
+        }
+
+        monticulo.limpia();
+        distancias[raiz] = 0;
+        monticulo.agrega(raiz, 0);
+        expandidos = 0;
+        propaga();
+    }
+
+    /**
+     * Pone o quita la pared entre un cuarto y su vecino en la dirección dada,
+     * en ambos cuartos, y repara el árbol de trayectorias.
+     *
+     * @param cuarto    el índice del cuarto.
+     * @param direccion la dirección de la pared.
+     * @param pared     <code>true</code> para poner la pared,
+     *                  <code>false</code> para quitarla.
+     * @throws ExcepcionParametroInvalido si la pared es de la frontera del
+     *                                    laberinto.
+     */
+    public void cambiaPared(int cuarto, Direccion direccion, boolean pared) {
+        int d = direccion(direccion);
+        int vecino = vecinoCuadricula(cuarto, d);
+        if (vecino == -1)
+            throw new ExcepcionParametroInvalido("No se pueden cambiar las paredes de la frontera del laberinto");
+
+        if (tienePared(cuarto, d) == pared)
+            return;
+
+        int opuesta = (d + 2) % 4;
+        cuartos[cuarto] ^= 1 << d;
+        cuartos[vecino] ^= 1 << opuesta;
+        expandidos = 0;
+
+        if (pared) {
+            if (padres[vecino] == cuarto)
+                reparaSubarbol(vecino);
+            else if (padres[cuarto] == vecino)
+                reparaSubarbol(cuarto);
+        } else {
+            relaja(cuarto, vecino);
+            relaja(vecino, cuarto);
+            propaga();
+        }
+    }
+
+    /**
+     * Pone la pared entre un cuarto y su vecino en la dirección dada si no
+     * la hay, o la quita si la hay.
+     *
+     * @param cuarto    el índice del cuarto.
+     * @param direccion la dirección de la pared.
+     * @throws ExcepcionParametroInvalido si la pared es de la frontera del
+     *                                    laberinto.
+     */
+    public void alternaPared(int cuarto, Direccion direccion) {
+        cambiaPared(cuarto, direccion, !tienePared(cuarto, direccion(direccion)));
+    }
+
+    /**
+     * Cambia el puntaje de un cuarto, con lo que cambia el peso de todas sus
+     * puertas, y repara el árbol de trayectorias.
+     *
+     * @param cuarto  el índice del cuarto.
+     * @param puntaje el nuevo puntaje, entre 0 y 15.
+     * @throws ExcepcionParametroInvalido si el puntaje no está entre 0 y 15.
+     */
+    public void cambiaPuntaje(int cuarto, int puntaje) {
+        if (puntaje < 0 || puntaje > 15)
+            throw new ExcepcionParametroInvalido("El puntaje de un cuarto debe estar entre 0 y 15");
+
+        int anterior = (cuartos[cuarto] & 0xFF) >>> 4;
+        if (puntaje == anterior)
+            return;
+
+        cuartos[cuarto] = (byte) ((puntaje << 4) | (cuartos[cuarto] & 0xF));
+        expandidos = 0;
+
+        int fila = cuarto / columnas;
+        int columna = cuarto - fila * columnas;
+
+        if (puntaje < anterior) {
+            for (int d = ESTE; d <= SUR; d++) {
+                int u = vecino(cuarto, fila, columna, d);
+                if (u != -1) {
+                    relaja(cuarto, u);
+                    relaja(u, cuarto);
+                }
+            }
+            propaga();
+            return;
+        }
+
+        /*
+         * todas las puertas del cuarto se encarecen: si el cuarto no es la
+         * raíz, su puerta al padre es del árbol y el subárbol del cuarto
+         * incluye a los de sus hijos; si es la raíz, se afectan los subárboles
+         * de todos sus hijos
+         */
+        if (cuarto != raiz) {
+            if (padres[cuarto] != -1)
+                reparaSubarbol(cuarto);
+            return;
+        }
+
+        int hijos = 0;
+        for (int d = ESTE; d <= SUR; d++) {
+            int u = vecino(cuarto, fila, columna, d);
+            if (u != -1 && padres[u] == cuarto)
+                pila[hijos++] = u;
+        }
+        reparaSubarboles(hijos);
+    }
+
+    /**
+     * Regresa el índice del cuarto de entrada del laberinto.
+     *
+     * @return el índice del cuarto de entrada.
+     */
+    public int getInicio() {
+        return inicio;
+    }
+
+    /**
+     * Regresa el índice de la raíz del árbol de trayectorias; al construir el
+     * laberinto es su salida.
+     *
+     * @return el índice de la raíz.
+     */
+    public int getRaiz() {
+        return raiz;
+    }
+
+    /**
+     * Regresa el número de filas del laberinto.
+     *
+     * @return el número de filas del laberinto.
+     */
+    public int getFilas() {
+        return filas;
+    }
+
+    /**
+     * Regresa el número de columnas del laberinto.
+     *
+     * @return el número de columnas del laberinto.
+     */
+    public int getColumnas() {
+        return columnas;
+    }
+
+    /**
+     * Regresa los bytes de los cuartos con todos los cambios. El arreglo es
+     * el mismo que usa el laberinto, no una copia.
+     *
+     * @return los bytes de los cuartos, renglón por renglón.
+     */
+    public byte[] getCuartos() {
+        return cuartos;
+    }
+
+    /**
+     * Regresa el puntaje de una trayectoria de peso mínimo del cuarto dado a
+     * la raíz.
+     *
+     * @param cuarto el índice del cuarto.
+     * @return el puntaje que falta para llegar a la raíz, o -1 si desde el
+     *         cuarto no se puede llegar.
+     */
+    public int getDistancia(int cuarto) {
+        return distancias[cuarto] == INFINITO ? -1 : distancias[cuarto];
+    }
+
+    /**
+     * Regresa el siguiente cuarto de una trayectoria de peso mínimo del
+     * cuarto dado a la raíz.
+     *
+     * @param cuarto el índice del cuarto.
+     * @return el índice del siguiente cuarto, o -1 si el cuarto es la raíz o
+     *         si desde él no se puede llegar.
+     */
+    public int siguiente(int cuarto) {
+        return padres[cuarto];
+    }
+
+    /**
+     * Regresa una trayectoria de peso mínimo del cuarto dado a la raíz.
+     *
+     * @param cuarto el índice del cuarto.
+     * @return los índices de los cuartos de la trayectoria, del cuarto a la
+     *         raíz; si desde el cuarto no se puede llegar, un arreglo vacío.
+     */
+    public int[] trayectoria(int cuarto) {
+        int[] trayectoria = trayectoria(padres, raiz, cuarto);
+        for (int i = 0, j = trayectoria.length - 1; i < j; i++, j--) {
+            int t = trayectoria[i];
+            trayectoria[i] = trayectoria[j];
+            trayectoria[j] = t;
+        }
+
+        return trayectoria;
+    }
+
+    /**
+     * Regresa una trayectoria de peso mínimo de la entrada a la raíz.
+     *
+     * @return los índices de los cuartos de la trayectoria, o un arreglo vacío
+     *         si los cambios desconectaron a la entrada de la raíz.
+     */
+    public int[] getSolucion() {
+        return trayectoria(inicio);
+    }
+
+    /**
+     * Regresa una copia del árbol de trayectorias en su forma compacta.
+     *
+     * @return el árbol de trayectorias hacia la raíz.
+     */
+    public ArbolCaminos getArbol() {
+        return new ArbolCaminos(filas, columnas, raiz, distancias.clone(), padres);
+    }
+
+    /**
+     * Mejora la distancia de un cuarto si le conviene pasar por su vecino, y
+     * en ese caso lo mete al montículo.
+     *
+     * @param desde  el índice del vecino.
+     * @param cuarto el índice del cuarto.
+     */
+    private void relaja(int desde, int cuarto) {
+        if (distancias[desde] == INFINITO)
+            return;
+
+        int distancia = distancias[desde] + peso(desde, cuarto);
+        if (distancia < distancias[cuarto]) {
+            distancias[cuarto] = distancia;
+            padres[cuarto] = desde;
+            monticulo.reordena(cuarto, distancia);
+        }
+    }
+
+    /**
+     * Corre el algoritmo de Dijkstra a partir de los cuartos que están en el
+     * montículo, hasta vaciarlo.
+     */
+    private void propaga() {
+        while (!monticulo.esVacia()) {
+            int v = monticulo.elimina();
+            expandidos++;
+
+            int fila = v / columnas;
+            int columna = v - fila * columnas;
+
+            for (int d = ESTE; d <= SUR; d++) {
+                int u = vecino(v, fila, columna, d);
+                if (u != -1)
+                    relaja(v, u);
+            }
+        }
+    }
+
+    /**
+     * Repara el árbol después de que se encareció o se cerró la puerta entre
+     * un cuarto y su padre.
+     *
+     * @param cuarto el índice del cuarto.
+     */
+    private void reparaSubarbol(int cuarto) {
+        pila[0] = cuarto;
+        reparaSubarboles(1);
+    }
+
+    /**
+     * Repara el árbol después de que se encarecieron o se cerraron las
+     * puertas de los cuartos dados hacia sus padres: descarta sus subárboles,
+     * les da a sus cuartos la mejor distancia que ofrecen los vecinos que no
+     * se descartaron, y desde ahí corre el algoritmo de Dijkstra.
+     *
+     * @param raices el número de cuartos al principio de la pila.
+     */
+    private void reparaSubarboles(int raices) {
+        /*
+         * se descartan los subárboles; los cuartos descartados se quedan en
+         * la pila, en las posiciones de 0 a afectados-1
+         */
+        int afectados = raices;
+        for (int i = 0; i < raices; i++) {
+            distancias[pila[i]] = INFINITO;
+            padres[pila[i]] = -1;
+        }
+
+        for (int i = 0; i < afectados; i++) {
+            int v = pila[i];
+            int fila = v / columnas;
+            int columna = v - fila * columnas;
+
+            for (int d = ESTE; d <= SUR; d++) {
+                int u = vecino(v, fila, columna, d);
+                if (u != -1 && padres[u] == v) {
+                    distancias[u] = INFINITO;
+                    padres[u] = -1;
+                    pila[afectados++] = u;
+                }
+            }
+        }
+
+        /* cada cuarto descartado toma lo mejor que le ofrecen sus vecinos */
+        for (int i = 0; i < afectados; i++) {
+            int v = pila[i];
+            int fila = v / columnas;
+            int columna = v - fila * columnas;
+
+            for (int d = ESTE; d <= SUR; d++) {
+                int u = vecino(v, fila, columna, d);
+                if (u != -1)
+                    relaja(u, v);
+            }
+        }
+
+        propaga();
+    }
+
+    /**
+     * Regresa el índice del vecino del cuarto en la dirección dada, haya o no
+     * una pared entre ambos.
+     *
+     * @param cuarto    el índice del cuarto.
+     * @param direccion la dirección del vecino.
+     * @return el índice del vecino, o -1 si el cuarto está en la frontera en
+     *         esa dirección.
+     */
+    private int vecinoCuadricula(int cuarto, int direccion) {
+        int fila = cuarto / columnas;
+        int columna = cuarto - fila * columnas;
+
+        switch (direccion) {
+            case ESTE:
+                return (columna + 1 < columnas) ? cuarto + 1 : -1;
+            case NORTE:
+                return (fila > 0) ? cuarto - columnas : -1;
+            case OESTE:
+                return (columna > 0) ? cuarto - 1 : -1;
+            default:
+                return (fila + 1 < filas) ? cuarto + columnas : -1;
+        }
+    }
+
+    /**
+     * Nos dice si el cuarto tiene la pared en la dirección dada.
+     *
+     * @param cuarto    el índice del cuarto.
+     * @param direccion la dirección de la pared.
+     * @return <code>true</code> si el cuarto tiene la pared.
+     */
+    private boolean tienePared(int cuarto, int direccion) {
+        return (cuartos[cuarto] & (1 << direccion)) != 0;
+    }
+
+    /**
+     * Regresa el número de una dirección, que coincide con el bit de su
+     * pared.
+     *
+     * @param direccion la dirección.
+     * @return el número de la dirección.
+     */
+    private static int direccion(Direccion direccion) {
+        switch (direccion) {
+            case ESTE:
+                return ESTE;
+            case NORTE:
+                return NORTE;
+            case OESTE:
+                return OESTE;
+            default:
+                return SUR;
+        }
+    }
+
+}
@@ -0,0 +1,340 @@
+package mx.unam.ciencias.edd.laberinto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Clase para generar un laberinto aleatorio renglón por renglón con el
+ * algoritmo de Eller. Sólo se guarda el renglón actual: a qué conjunto
+ * pertenece cada uno de sus cuartos y qué puertas del renglón anterior bajan
+ * a él, así que la memoria que se usa depende sólo del número de columnas y
+ * cada renglón se puede escribir en cuanto está terminado.
+ * 
+ * En cada renglón se unen al azar cuartos adyacentes de conjuntos distintos,
+ * y después cada conjunto baja al siguiente renglón por al menos una puerta;
+ * los cuartos a los que no baja ninguna puerta empiezan un conjunto nuevo. En
+ * el último renglón se unen todos los conjuntos, así que el laberinto tiene
+ * exactamente una trayectoria entre cualesquiera dos cuartos.
+ */
+public class LaberintoEller {
+
+    /**
+     * Clase interna privada para el cuarto de entrada o de salida: sólo hace
+     * falta saber dónde está y qué pared de la frontera no tiene.
+     */
+    private class CuartoEspecial {
+
+        /* el índice del cuarto */
+        int indice;
+
+        /* la pared de la frontera que no tendrá el cuarto */
+        int pared;
+
+        /**
+         * Constructor.
+         * 
+         * @param indice el índice del cuarto.
+         * @param pared  la pared de la frontera que no tendrá el cuarto.
+         */
+        public CuartoEspecial(int indice, int pared) {
+            this.indice = indice;
+            this.pared = pared;
+        }
+    }
+
+    /* El RNG */
+    private GeneradorAleatorio random;
+
+    /* El número de filas del laberinto */
+    private int filas;
+
+    /* El número de columnas del laberinto */
+    private int columnas;
+
+    /* El renglón que se generará a continuación */
+    private int filaActual;
+
+    /* El cuarto de entrada */
+    private CuartoEspecial inicio;
+
+    /* El cuarto de salida */
+    private CuartoEspecial fin;
+
+    /*
+     * La etiqueta del conjunto de cada cuarto del renglón actual: si le baja
+     * una puerta, la columna del representante de su conjunto en el renglón
+     * anterior; si no, su columna más el número de columnas
+     */
+    private int[] conjuntos;
+
+    /*
+     * La unión-búsqueda del renglón actual: el padre de cada columna, o la
+     * columna misma si es representante
+     */
+    private int[] padres;
+
+    /* La primera columna con cada etiqueta en el renglón actual */
+    private int[] primeros;
+
+    /* La última columna del conjunto de cada representante */
+    private int[] ultimos;
+
+    /* Para saber si el conjunto de cada representante ya baja al siguiente renglón */
+    private boolean[] bajadas;
+
+    /* Para saber si a cada cuarto del renglón actual le baja una puerta */
+    private boolean[] abiertos;
+
+    /* Los bytes del renglón actual, con el mismo formato que en el archivo */
+    private byte[] fila;
+
+    /**
+     * Constructor.
+     * 
+     * @param filas     el número de filas del laberinto.
+     * @param columnas  el número de columnas del laberinto.
+     * @param bandera_s bandera para saber si ocupar la semilla que pudo haber
+     *                  proporcionado el usuario.
+     * @param semilla   la semilla para el RNG.
+     */
+    public LaberintoEller(int filas, int columnas, boolean bandera_s, int semilla) {
+        this(filas, columnas, bandera_s, semilla, AlgoritmoAleatorio.RANDOM);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param filas     el número de filas del laberinto.
+     * @param columnas  el número de columnas del laberinto.
+     * @param bandera_s bandera para saber si ocupar la semilla que pudo haber
+     *                  proporcionado el usuario.
+     * @param semilla   la semilla para el RNG.
+     * @param aleatorio el tipo de generador de números aleatorios.
+     */
+    public LaberintoEller(int filas, int columnas, boolean bandera_s, int semilla,
+            AlgoritmoAleatorio aleatorio) {
+        this(filas, columnas, bandera_s ? aleatorio.generador(semilla) : aleatorio.generador());
+    }
+
+    /**
+     * Constructor que recibe el RNG.
+     * 
+     * @param filas    el número de filas del laberinto.
+     * @param columnas el número de columnas del laberinto.
+     * @param random   el RNG.
+     */
+    LaberintoEller(int filas, int columnas, GeneradorAleatorio random) {
+        this.filas = filas;
+        this.columnas = columnas;
+        this.random = random;
+
+        conjuntos = new int[columnas];
+        padres = new int[columnas];
+        primeros = new int[2 * columnas];
+        ultimos = new int[columnas];
+        bajadas = new boolean[columnas];
+        abiertos = new boolean[columnas];
+        fila = new byte[columnas];
+
+        for (int c = 0; c < columnas; c++)
+            conjuntos[c] = columnas + c;
+
+        do {
+            inicio = generaInicioFinal();
+            fin = generaInicioFinal();
+        } while (inicio.indice == fin.indice);
+    }
+
+    /**
+     * Regresa el número de filas del laberinto.
+     * 
+     * @return las filas del laberinto.
+     */
+    public int getFilas() {
+        return filas;
+    }
+
+    /**
+     * Regresa el número de columnas del laberinto.
+     * 
+     * @return las columnas del laberinto.
+     */
+    public int getColumnas() {
+        return columnas;
+    }
+
+    /**
+     * Regresa el índice del cuarto de entrada.
+     * 
+     * @return el índice del cuarto de entrada.
+     */
+    public int getInicio() {
+        return inicio.indice;
+    }
+
+    /**
+     * Regresa el índice del cuarto de salida.
+     * 
+     * @return el índice del cuarto de salida.
+     */
+    public int getFin() {
+        return fin.indice;
+    }
+
+    /**
+     * Nos dice si aún quedan renglones por generar.
+     * 
+     * @return true si aún quedan renglones, false en otro caso.
+     */
+    public boolean hayFilas() {
+        return filaActual < filas;
+    }
+
+    /**
+     * Escribe el laberinto en la salida dada: primero la cabecera, y después
+     * cada renglón en cuanto está terminado.
+     * 
+     * @param salida  la salida donde se escribirá el laberinto.
+     * @param formato el formato con el que se escribirá el laberinto.
+     * @throws IOException en caso de que haya un error escribiendo en la
+     *                     salida.
+     */
+    public void escribeLaberinto(OutputStream salida, FormatoLaberinto formato) throws IOException {
+        new LaberintoABytes(filas, columnas, formato).escribeCabecera(salida);
+
+        while (hayFilas())
+            salida.write(siguienteFila());
+
+        salida.flush();
+    }
+
+    /**
+     * Genera el siguiente renglón del laberinto. El arreglo que se regresa se
+     * reutiliza en la siguiente llamada.
+     * 
+     * @return los bytes de los cuartos del renglón.
+     * @throws IllegalStateException si ya no quedan renglones.
+     */
+    public byte[] siguienteFila() {
+        if (!hayFilas())
+            throw new IllegalStateException("Ya se generaron todos los renglones del laberinto");
+
+        boolean ultima = filaActual == filas - 1;
+
+        /* cada columna apunta a la primera columna con su misma etiqueta */
+        Arrays.fill(primeros, -1);
+        for (int c = 0; c < columnas; c++) {
+            if (primeros[conjuntos[c]] < 0)
+                primeros[conjuntos[c]] = c;
+            padres[c] = primeros[conjuntos[c]];
+        }
+
+        for (int c = 0; c < columnas; c++) {
+            fila[c] = (byte) ((random.siguienteEntero(16) << 4) | CreadorLaberinto.PAREDES);
+            if (abiertos[c])
+                fila[c] &= ~CreadorLaberinto.PARED_NORTE;
+        }
+
+        /* se unen cuartos adyacentes de conjuntos distintos */
+        for (int c = 0; c + 1 < columnas; c++) {
+            int a = busca(c);
+            int b = busca(c + 1);
+
+            if (a == b || !(ultima || random.siguienteBooleano()))
+                continue;
+
+            padres[b] = a;
+            fila[c] &= ~CreadorLaberinto.PARED_ESTE;
+            fila[c + 1] &= ~CreadorLaberinto.PARED_OESTE;
+        }
+
+        if (!ultima)
+            bajaConjuntos();
+
+        colocaEspecial(inicio);
+        colocaEspecial(fin);
+
+        filaActual++;
+        return fila;
+    }
+
+    /**
+     * Abre puertas al sur del renglón actual, al azar pero con al menos una
+     * por conjunto, y etiqueta los cuartos del siguiente renglón.
+     */
+    private void bajaConjuntos() {
+        for (int c = 0; c < columnas; c++) {
+            int r = busca(c);
+            padres[c] = r;
+            ultimos[r] = c;
+            bajadas[r] = false;
+        }
+
+        for (int c = 0; c < columnas; c++) {
+            int r = padres[c];
+            abiertos[c] = random.siguienteBooleano() || (c == ultimos[r] && !bajadas[r]);
+
+            if (abiertos[c]) {
+                bajadas[r] = true;
+                fila[c] &= ~CreadorLaberinto.PARED_SUR;
+                conjuntos[c] = r;
+            } else {
+                conjuntos[c] = columnas + c;
+            }
+        }
+    }
+
+    /**
+     * Regresa el representante del conjunto de la columna dada.
+     * 
+     * @param c la columna.
+     * @return la columna del representante de su conjunto.
+     */
+    private int busca(int c) {
+        while (padres[c] != c) {
+            padres[c] = padres[padres[c]];
+            c = padres[c];
+        }
+        return c;
+    }
+
+    /**
+     * Si el cuarto de entrada o de salida está en el renglón actual, le quita
+     * su pared de la frontera.
+     * 
+     * @param especial el cuarto de entrada o de salida.
+     */
+    private void colocaEspecial(CuartoEspecial especial) {
+        int c = especial.indice - filaActual * columnas;
+        if (c >= 0 && c < columnas)
+            fila[c] &= ~especial.pared;
+    }
+
+    /*
+     * Escoge al azar un cuarto de la frontera y la pared de la frontera que no
+     * tendrá, para la entrada o la salida del laberinto.
+     */
+    private CuartoEspecial generaInicioFinal() {
+        switch (random.siguienteEntero(4)) {
+            /* norte */
+            case 0:
+                return new CuartoEspecial(random.siguienteEntero(columnas), CreadorLaberinto.PARED_NORTE);
+
+            /* este */
+            case 1:
+                return new CuartoEspecial(random.siguienteEntero(filas) * columnas + columnas - 1,
+                        CreadorLaberinto.PARED_ESTE);
+
+            /* sur */
+            case 2:
+                return new CuartoEspecial((filas - 1) * columnas + random.siguienteEntero(columnas),
+                        CreadorLaberinto.PARED_SUR);
+
+            /* oeste */
+            default:
+                return new CuartoEspecial(random.siguienteEntero(filas) * columnas, CreadorLaberinto.PARED_OESTE);
+        }
+    }
+
+}
@@ -0,0 +1,297 @@
+package mx.unam.ciencias.edd.laberinto;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import mx.unam.ciencias.edd.ConjuntosDisjuntos;
+
+/**
+ * Clase para romper las paredes de un laberinto por mosaicos en paralelo. La
+ * cuadrícula se parte en mosaicos de {@link #LADO_MOSAICO} por
+ * {@link #LADO_MOSAICO} cuartos; dentro de cada mosaico se genera un
+ * laberinto con una búsqueda en profundidad y un RNG propio, cuya semilla
+ * sale de la semilla del laberinto y de la fila y columna del mosaico. Los
+ * mosaicos se generan en un {@link ForkJoinPool} y después se unen con una
+ * puerta por cada arista de un árbol generador aleatorio de la cuadrícula de
+ * mosaicos. Como el tamaño de los mosaicos y sus semillas no dependen del
+ * número de hilos, el laberinto es el mismo con cualquier número de hilos.
+ */
+public class LaberintoMosaico {
+
+    /** El número de filas y de columnas de cuartos de cada mosaico. */
+    public static final int LADO_MOSAICO = 128;
+
+    /*
+     * Clase interna privada para generar un intervalo de mosaicos; se parte a
+     * la mitad hasta que queda un solo mosaico.
+     */
+    private class Mosaicos extends RecursiveAction {
+
+        /* el primer mosaico del intervalo */
+        private int desde;
+
+        /* el mosaico después del último del intervalo */
+        private int hasta;
+
+        /**
+         * Constructor.
+         * 
+         * @param desde el primer mosaico del intervalo.
+         * @param hasta el mosaico después del último del intervalo.
+         */
+        public Mosaicos(int desde, int hasta) {
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        /**
+         * Genera los mosaicos del intervalo.
+         */
+        @Override
+        protected void compute() {
+            if (hasta - desde == 1) {
+                generaMosaico(desde / columnasMosaicos, desde % columnasMosaicos);
+                return;
+            }
+
+            int mitad = (desde + hasta) >>> 1;
+            invokeAll(new Mosaicos(desde, mitad), new Mosaicos(mitad, hasta));
+        }
+    }
+
+    /* Los cuartos del laberinto */
+    private byte[] cuartos;
+
+    /* El número de filas del laberinto */
+    private int filas;
+
+    /* El número de columnas del laberinto */
+    private int columnas;
+
+    /* El número de filas de mosaicos */
+    private int filasMosaicos;
+
+    /* El número de columnas de mosaicos */
+    private int columnasMosaicos;
+
+    /* La semilla de la que salen las semillas de los mosaicos */
+    private long semilla;
+
+    /* El tipo de generador de números aleatorios de los mosaicos */
+    private AlgoritmoAleatorio aleatorio;
+
+    /* El RNG con el que se unen los mosaicos */
+    private GeneradorAleatorio random;
+
+    /**
+     * Constructor.
+     * 
+     * @param cuartos   los cuartos del laberinto, que se sobreescriben.
+     * @param filas     el número de filas del laberinto.
+     * @param columnas  el número de columnas del laberinto.
+     * @param semilla   la semilla de la que salen las semillas de los mosaicos.
+     * @param aleatorio el tipo de generador de números aleatorios de los
+     *                  mosaicos.
+     * @param random    el RNG con el que se unen los mosaicos.
+     */
+    public LaberintoMosaico(byte[] cuartos, int filas, int columnas, long semilla,
+            AlgoritmoAleatorio aleatorio, GeneradorAleatorio random) {
+        this.cuartos = cuartos;
+        this.filas = filas;
+        this.columnas = columnas;
+        this.semilla = semilla;
+        this.aleatorio = aleatorio;
+        this.random = random;
+
+        filasMosaicos = (filas + LADO_MOSAICO - 1) / LADO_MOSAICO;
+        columnasMosaicos = (columnas + LADO_MOSAICO - 1) / LADO_MOSAICO;
+    }
+
+    /**
+     * Genera todos los mosaicos con el número de hilos dado y después los
+     * une. Cada cuarto termina con un puntaje aleatorio y con exactamente una
+     * trayectoria a cualquier otro cuarto.
+     * 
+     * @param hilos el número de hilos con los que se generan los mosaicos.
+     */
+    public void genera(int hilos) {
+        ForkJoinPool hilosMosaicos = new ForkJoinPool(hilos);
+        try {
+            hilosMosaicos.invoke(new Mosaicos(0, filasMosaicos * columnasMosaicos));
+        } finally {
+            hilosMosaicos.shutdown();
+        }
+
+        uneMosaicos();
+    }
+
+    /**
+     * Regresa la semilla del mosaico en la fila y columna dadas, mezclando
+     * la semilla del laberinto con las coordenadas del mosaico (la función
+     * de mezcla de SplitMix64).
+     * 
+     * @param fila    la fila del mosaico.
+     * @param columna la columna del mosaico.
+     * @return la semilla del mosaico.
+     */
+    private long semillaMosaico(int fila, int columna) {
+        long z = semilla + (((long) fila << 32 | columna) + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Genera el mosaico en la fila y columna dadas: le da a cada cuarto un
+     * puntaje aleatorio y todas sus paredes, y después rompe paredes con una
+     * búsqueda en profundidad desde la esquina superior izquierda del mosaico,
+     * sin salir de él.
+     * 
+     * @param fila    la fila del mosaico.
+     * @param columna la columna del mosaico.
+     */
+    private void generaMosaico(int fila, int columna) {
+        GeneradorAleatorio generador = aleatorio.generador(semillaMosaico(fila, columna));
+
+        int f0 = fila * LADO_MOSAICO;
+        int c0 = columna * LADO_MOSAICO;
+        int alto = Math.min(LADO_MOSAICO, filas - f0);
+        int ancho = Math.min(LADO_MOSAICO, columnas - c0);
+
+        for (int f = 0; f < alto; f++)
+            for (int c = 0; c < ancho; c++)
+                cuartos[(f0 + f) * columnas + c0 + c] = (byte) ((generador.siguienteEntero(16) << 4)
+                        | CreadorLaberinto.PAREDES);
+
+        /* los cuartos del mosaico se numeran de 0 a alto*ancho-1 */
+        boolean[] visitados = new boolean[alto * ancho];
+        int[] pila = new int[alto * ancho];
+        int tope = 0;
+
+        pila[tope++] = 0;
+        visitados[0] = true;
+
+        while (tope > 0) {
+            int actual = pila[tope - 1];
+            int f = actual / ancho;
+            int c = actual - f * ancho;
+
+            int libres = 0;
+            if (c + 1 < ancho && !visitados[actual + 1])
+                libres |= 1;
+            if (f > 0 && !visitados[actual - ancho])
+                libres |= 2;
+            if (c > 0 && !visitados[actual - 1])
+                libres |= 4;
+            if (f + 1 < alto && !visitados[actual + ancho])
+                libres |= 8;
+
+            if (libres == 0) {
+                tope--;
+                continue;
+            }
+
+            int direccion = -1;
+            for (int k = generador.siguienteEntero(Integer.bitCount(libres)); k >= 0; k--) {
+                direccion = Integer.numberOfTrailingZeros(libres);
+                libres &= libres - 1;
+            }
+
+            int indice = (f0 + f) * columnas + c0 + c;
+            int vecino;
+
+            switch (direccion) {
+                case 0:
+                    vecino = actual + 1;
+                    rompePared(indice, indice + 1, CreadorLaberinto.PARED_ESTE, CreadorLaberinto.PARED_OESTE);
+                    break;
+                case 1:
+                    vecino = actual - ancho;
+                    rompePared(indice, indice - columnas, CreadorLaberinto.PARED_NORTE,
+                            CreadorLaberinto.PARED_SUR);
+                    break;
+                case 2:
+                    vecino = actual - 1;
+                    rompePared(indice, indice - 1, CreadorLaberinto.PARED_OESTE, CreadorLaberinto.PARED_ESTE);
+                    break;
+                default:
+                    vecino = actual + ancho;
+                    rompePared(indice, indice + columnas, CreadorLaberinto.PARED_SUR,
+                            CreadorLaberinto.PARED_NORTE);
+            }
+
+            visitados[vecino] = true;
+            pila[tope++] = vecino;
+        }
+    }
+
+    /**
+     * Une los mosaicos con el algoritmo de Kruskal aleatorio sobre la
+     * cuadrícula de mosaicos: por cada par de mosaicos adyacentes que se une
+     * se abre una puerta en una posición aleatoria de su frontera común.
+     */
+    private void uneMosaicos() {
+        int n = filasMosaicos * columnasMosaicos;
+
+        /*
+         * cada frontera entre mosaicos se representa con el número del mosaico
+         * al oeste o al norte de ella, multiplicado por 2, más 0 si es su
+         * frontera Este y 1 si es su frontera Sur
+         */
+        int[] fronteras = new int[2 * n];
+        int total = 0;
+
+        for (int m = 0; m < n; m++) {
+            if (m % columnasMosaicos + 1 < columnasMosaicos)
+                fronteras[total++] = 2 * m;
+
+            if (m + columnasMosaicos < n)
+                fronteras[total++] = 2 * m + 1;
+        }
+
+        for (int i = total - 1; i > 0; i--) {
+            int j = random.siguienteEntero(i + 1);
+            int t = fronteras[i];
+            fronteras[i] = fronteras[j];
+            fronteras[j] = t;
+        }
+
+        ConjuntosDisjuntos conjuntos = new ConjuntosDisjuntos(n);
+
+        for (int i = 0; i < total && conjuntos.getConjuntos() > 1; i++) {
+            int m = fronteras[i] >>> 1;
+            int f0 = (m / columnasMosaicos) * LADO_MOSAICO;
+            int c0 = (m % columnasMosaicos) * LADO_MOSAICO;
+
+            if ((fronteras[i] & 1) == 0) {
+                if (!conjuntos.une(m, m + 1))
+                    continue;
+
+                int f = f0 + random.siguienteEntero(Math.min(LADO_MOSAICO, filas - f0));
+                int indice = f * columnas + c0 + LADO_MOSAICO - 1;
+                rompePared(indice, indice + 1, CreadorLaberinto.PARED_ESTE, CreadorLaberinto.PARED_OESTE);
+            } else {
+                if (!conjuntos.une(m, m + columnasMosaicos))
+                    continue;
+
+                int c = c0 + random.siguienteEntero(Math.min(LADO_MOSAICO, columnas - c0));
+                int indice = (f0 + LADO_MOSAICO - 1) * columnas + c;
+                rompePared(indice, indice + columnas, CreadorLaberinto.PARED_SUR, CreadorLaberinto.PARED_NORTE);
+            }
+        }
+    }
+
+    /**
+     * Rompe la pared entre dos cuartos adyacentes.
+     * 
+     * @param actual      el índice del primer cuarto.
+     * @param vecino      el índice del segundo cuarto.
+     * @param pared       la pared del primer cuarto.
+     * @param paredVecino la pared del segundo cuarto.
+     */
+    private void rompePared(int actual, int vecino, int pared, int paredVecino) {
+        cuartos[actual] &= ~pared;
+        cuartos[vecino] &= ~paredVecino;
+    }
+
+}
@@ -1,10 +1,8 @@
 package mx.unam.ciencias.edd.laberinto;
 
-import java.util.NoSuchElementException;
-import java.util.Random;
+import java.util.Arrays;
 
-import mx.unam.ciencias.edd.Diccionario;
-import mx.unam.ciencias.edd.Pila;
+import mx.unam.ciencias.edd.ConjuntosDisjuntos;
 
 /**
  * Clase para crear un laberinto aleatorio apartir de los datos
@@ -12,8 +10,63 @@ import mx.unam.ciencias.edd.Pila;
  */
 public class LaberintoRandom extends CreadorLaberinto {
 
+    /**
+     * Clase interna privada para el cuarto de entrada o de salida antes de
+     * colocarlo en el laberinto.
+     */
+    private class CuartoEspecial {
+
+        /* el índice del cuarto */
+        int indice;
+
+        /* el byte que tendrá el cuarto */
+        byte dato;
+
+        /**
+         * Constructor.
+         * 
+         * @param indice  el índice del cuarto.
+         * @param puntaje el puntaje del cuarto.
+         * @param pared   la pared de la frontera que no tendrá el cuarto.
+         */
+        public CuartoEspecial(int indice, int puntaje, int pared) {
+            this.indice = indice;
+            dato = (byte) ((puntaje << 4) | (PAREDES & ~pared));
+        }
+    }
+
+    /* Estado de un cuarto en Prim: aún no está en el laberinto ni en la frontera */
+    private static final byte FUERA = 0;
+
+    /* Estado de un cuarto en Prim: es vecino de un cuarto del laberinto */
+    private static final byte FRONTERA = 1;
+
+    /* Estado de un cuarto en Prim: ya es parte del laberinto */
+    private static final byte DENTRO = 2;
+
     /* El RNG */
-    private Random random;
+    private GeneradorAleatorio random;
+
+    /* El tipo de generador de números aleatorios */
+    private AlgoritmoAleatorio aleatorio;
+
+    /* El algoritmo con el que se rompen las paredes */
+    private AlgoritmoGenerador algoritmo;
+
+    /* La semilla de la que salen las semillas de los mosaicos */
+    private long semilla;
+
+    /* El número de hilos con los que se generan los mosaicos */
+    private int hilos = Runtime.getRuntime().availableProcessors();
+
+    /*
+     * Las direcciones en las que ya se intentó avanzar desde cada cuarto, una
+     * por bit: Este, Norte, Oeste y Sur, de menos a más significativo
+     */
+    private byte[] probadas;
+
+    /* Para saber si cada cuarto ya fue visitado o no */
+    private boolean[] visitados;
 
     /**
      * Constructor.
@@ -25,13 +78,60 @@ public class LaberintoRandom extends CreadorLaberinto {
      * @param semilla   la semill para el RNG.
      */
     public LaberintoRandom(int filas, int columnas, boolean bandera_s, int semilla) {
+        this(filas, columnas, bandera_s, semilla, AlgoritmoGenerador.BACKTRACKER);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param filas     el número de filas del laberinto.
+     * @param columnas  el número de columnasd del laberinto.
+     * @param bandera_s bandera para saber si ocupar la semilla que pudo haber
+     *                  proporcionado el usuario.
+     * @param semilla   la semill para el RNG.
+     * @param algoritmo el algoritmo con el que se romperán las paredes.
+     */
+    public LaberintoRandom(int filas, int columnas, boolean bandera_s, int semilla,
+            AlgoritmoGenerador algoritmo) {
+        this(filas, columnas, bandera_s, semilla, algoritmo, AlgoritmoAleatorio.RANDOM);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param filas     el número de filas del laberinto.
+     * @param columnas  el número de columnasd del laberinto.
+     * @param bandera_s bandera para saber si ocupar la semilla que pudo haber
+     *                  proporcionado el usuario.
+     * @param semilla   la semill para el RNG.
+     * @param algoritmo el algoritmo con el que se romperán las paredes.
+     * @param aleatorio el tipo de generador de números aleatorios.
+     */
+    public LaberintoRandom(int filas, int columnas, boolean bandera_s, int semilla,
+            AlgoritmoGenerador algoritmo, AlgoritmoAleatorio aleatorio) {
         super(filas, columnas);
+        this.algoritmo = algoritmo;
+        this.aleatorio = aleatorio;
+
+        if (bandera_s) {
+            random = aleatorio.generador(semilla);
+            this.semilla = semilla;
+        } else {
+            random = aleatorio.generador();
+            this.semilla = random.siguienteLargo();
+        }
 
-        if (bandera_s)
-            random = new Random(semilla);
-        else
-            random = new Random();
+    }
 
+    /**
+     * Define el número de hilos con los que se generan los mosaicos del
+     * laberinto; sólo se usa con {@link AlgoritmoGenerador#MOSAICO}, y el
+     * laberinto que se genera no depende de él.
+     * 
+     * @param hilos el número de hilos.
+     */
+    public void setHilos(int hilos) {
+        this.hilos = hilos;
     }
 
     /**
@@ -39,106 +139,172 @@ public class LaberintoRandom extends CreadorLaberinto {
      */
     @Override
     public void creaLaberinto() {
+        if (algoritmo == AlgoritmoGenerador.ELLER) {
+            creaLaberintoEller();
+            return;
+        }
+
+        if (algoritmo == AlgoritmoGenerador.MOSAICO) {
+            creaLaberintoMosaico();
+            return;
+        }
+
         creaEsqueletoLaberinto();
 
-        while (inicioLab.indice == finalLab.indice) {
-            inicioLab = generaInicioFinal();
-            finalLab = generaInicioFinal();
+        CuartoEspecial inicio = null;
+        CuartoEspecial fin = null;
+
+        while (inicio == null || inicio.indice == fin.indice) {
+            inicio = generaInicioFinal();
+            fin = generaInicioFinal();
+        }
+
+        cuartos[inicio.indice] = inicio.dato;
+        cuartos[fin.indice] = fin.dato;
+
+        inicioLab = new Cuarto(inicio.indice);
+        finalLab = new Cuarto(fin.indice);
+
+        switch (algoritmo) {
+            case KRUSKAL:
+                kruskal();
+                break;
+
+            case PRIM:
+                prim(inicioLab.indice);
+                break;
+
+            default:
+                probadas = new byte[cuartos.length];
+                visitados = new boolean[cuartos.length];
+
+                daleFormaAlLaberinto(inicioLab.indice);
+
+                /* las marcas sólo hacen falta mientras se moldea el laberinto */
+                probadas = null;
+                visitados = null;
         }
+    }
 
-        cuartos[inicioLab.fila][inicioLab.columna] = inicioLab;
-        cuartos[finalLab.fila][finalLab.columna] = finalLab;
+    /**
+     * Crea el laberinto con el algoritmo de Eller, copiando cada renglón
+     * conforme se genera; el laberinto es el mismo que se escribe renglón por
+     * renglón con {@link LaberintoEller} y la misma semilla.
+     */
+    private void creaLaberintoEller() {
+        LaberintoEller eller = new LaberintoEller(filas, columnas, random);
 
-        asignaVecinosCuarto();
+        for (int f = 0; f < filas; f++)
+            System.arraycopy(eller.siguienteFila(), 0, cuartos, f * columnas, columnas);
 
-        daleFormaAlLaberinto(inicioLab);
+        inicioLab = new Cuarto(eller.getInicio());
+        finalLab = new Cuarto(eller.getFin());
+    }
+
+    /**
+     * Crea el laberinto por mosaicos en paralelo con {@link LaberintoMosaico}.
+     * La entrada y la salida se escogen después, con el RNG del laberinto,
+     * conservando las paredes que ya se rompieron.
+     */
+    private void creaLaberintoMosaico() {
+        new LaberintoMosaico(cuartos, filas, columnas, semilla, aleatorio, random).genera(hilos);
+
+        CuartoEspecial inicio = null;
+        CuartoEspecial fin = null;
+
+        while (inicio == null || inicio.indice == fin.indice) {
+            inicio = generaInicioFinal();
+            fin = generaInicioFinal();
+        }
+
+        colocaEspecial(inicio);
+        colocaEspecial(fin);
+
+        inicioLab = new Cuarto(inicio.indice);
+        finalLab = new Cuarto(fin.indice);
+    }
+
+    /**
+     * Coloca el cuarto de entrada o de salida en un laberinto al que ya se le
+     * rompieron paredes: toma su puntaje y le quita su pared de la frontera,
+     * sin volver a poner las paredes que ya no tiene.
+     * 
+     * @param especial el cuarto de entrada o de salida.
+     */
+    private void colocaEspecial(CuartoEspecial especial) {
+        cuartos[especial.indice] = (byte) ((especial.dato & ~PAREDES)
+                | (cuartos[especial.indice] & especial.dato & PAREDES));
     }
 
     /**
      * Crea un total de (filas*columnas) cuartos para el laberinto,
-     * cada uno con un puntaje aleatorio en un rango de 0-15.
+     * cada uno con todas sus paredes y un puntaje aleatorio en un rango
+     * de 0-15.
      */
     @Override
     protected void creaEsqueletoLaberinto() {
-        for (int f = 0; f < filas; f++)
-            for (int c = 0; c < columnas; c++)
-                cuartos[f][c] = new Cuarto(f, c, random.nextInt(16));
+        for (int i = 0; i < cuartos.length; i++)
+            cuartos[i] = (byte) ((random.siguienteEntero(16) << 4) | PAREDES);
     }
 
     /*
      * Genera un cuarto especial para el laberinto (ya sea el incio o el final
      * del laberinto).
      */
-    private Cuarto generaInicioFinal() {
+    private CuartoEspecial generaInicioFinal() {
         int columna = 0;
         int fila = 0;
-        Cuarto cuarto;
 
-        switch (random.nextInt(4)) {
+        switch (random.siguienteEntero(4)) {
             /* norte */
             case 0:
-                columna = random.nextInt(columnas);
-                cuarto = new Cuarto(0, columna, random.nextInt(16));
-                cuarto.paredNorte = false;
-                return cuarto;
+                columna = random.siguienteEntero(columnas);
+                return new CuartoEspecial(indice(0, columna), random.siguienteEntero(16), PARED_NORTE);
 
             /* este */
             case 1:
-                fila = random.nextInt(filas);
-                cuarto = new Cuarto(fila, columnas - 1, random.nextInt(16));
-                cuarto.paredEste = false;
-                return cuarto;
+                fila = random.siguienteEntero(filas);
+                return new CuartoEspecial(indice(fila, columnas - 1), random.siguienteEntero(16), PARED_ESTE);
 
             /* sur */
             case 2:
-                columna = random.nextInt(columnas);
-                cuarto = new Cuarto(filas - 1, columna, random.nextInt(16));
-                cuarto.paredSur = false;
-                return cuarto;
+                columna = random.siguienteEntero(columnas);
+                return new CuartoEspecial(indice(filas - 1, columna), random.siguienteEntero(16), PARED_SUR);
 
             /* oeste */
             case 3:
-                fila = random.nextInt(filas);
-                cuarto = new Cuarto(fila, 0, random.nextInt(16));
-                cuarto.paredOeste = false;
-                return cuarto;
+                fila = random.siguienteEntero(filas);
+                return new CuartoEspecial(indice(fila, 0), random.siguienteEntero(16), PARED_OESTE);
         }
 
         return null;
     }
 
     /**
-     * Para cada cuarto trata de asignarle sus cuartos vecinos en las cuatro
-     * direcciones posibles.
-     */
-    protected void asignaVecinosCuarto() {
-        for (int f = 0; f < filas; f++) {
-            for (int c = 0; c < columnas; c++) {
-                try {
-                    CuartoVecino vecino = new CuartoVecino(cuartos[f][c + 1], Direccion.ESTE);
-                    cuartos[f][c].vecinos.agrega(0, vecino);
-                } catch (ArrayIndexOutOfBoundsException e) {
-                }
+     * Regresa las direcciones en las que el cuarto en la fila y columna dadas
+     * tiene un cuarto adyacente, una por bit: Este, Norte, Oeste y Sur, de
+     * menos a más significativo.
+     * 
+     * @param fila    la fila del cuarto.
+     * @param columna la columna del cuarto.
+     * @return la máscara de las direcciones con un cuarto adyacente.
+     */
+    private int direccionesExistentes(int fila, int columna) {
+        int direcciones = 0;
 
-                try {
-                    CuartoVecino vecino = new CuartoVecino(cuartos[f - 1][c], Direccion.NORTE);
-                    cuartos[f][c].vecinos.agrega(1, vecino);
-                } catch (ArrayIndexOutOfBoundsException e) {
-                }
+        if (columna + 1 < columnas)
+            direcciones |= 1;
 
-                try {
-                    CuartoVecino vecino = new CuartoVecino(cuartos[f][c - 1], Direccion.OESTE);
-                    cuartos[f][c].vecinos.agrega(2, vecino);
-                } catch (ArrayIndexOutOfBoundsException e) {
-                }
+        if (fila > 0)
+            direcciones |= 2;
 
-                try {
-                    CuartoVecino vecino = new CuartoVecino(cuartos[f + 1][c], Direccion.SUR);
-                    cuartos[f][c].vecinos.agrega(3, vecino);
-                } catch (ArrayIndexOutOfBoundsException e) {
-                }
-            }
-        }
+        if (columna > 0)
+            direcciones |= 4;
+
+        if (fila + 1 < filas)
+            direcciones |= 8;
+
+        return direcciones;
     }
 
     /*
@@ -147,52 +313,174 @@ public class LaberintoRandom extends CreadorLaberinto {
      * al menos una pared abierta conectando a otro cuarto, y así mismo haciendo que
      * el laberinto
      * tenga solución.
+     *
+     * Desde el cuarto en el tope de la pila se escoge una dirección al azar
+     * entre las que tienen un cuarto adyacente, aunque ya se haya probado;
+     * el cuarto adyacente siempre se mete a la pila, pero la pared sólo se
+     * rompe si no había sido visitado. El cuarto se saca de la pila cuando ya
+     * se probaron todas sus direcciones. Así se consumen los mismos números
+     * aleatorios, y se obtiene el mismo laberinto, que cuando cada cuarto
+     * guardaba un diccionario con sus vecinos.
+     */
+    private void daleFormaAlLaberinto(int cuarto) {
+        int[] pila = new int[64];
+        int tope = 0;
+
+        pila[tope++] = cuarto;
+        visitados[cuarto] = true;
+
+        while (tope > 0) {
+            int actual = pila[tope - 1];
+            int fila = actual / columnas;
+            int columna = actual - fila * columnas;
+            int existentes = direccionesExistentes(fila, columna);
+
+            if ((existentes & ~probadas[actual]) == 0) {
+                tope--;
+                continue;
+            }
+
+            int direccion = random.siguienteEntero(4);
+            while ((existentes & (1 << direccion)) == 0)
+                direccion = random.siguienteEntero(4);
+
+            int vecino = vecino(actual, direccion);
+
+            if (!visitados[vecino]) {
+                rompeParedDireccionDada(actual, vecino, direccion);
+                visitados[vecino] = true;
+            }
+
+            probadas[actual] |= 1 << direccion;
+
+            if (tope == pila.length)
+                pila = Arrays.copyOf(pila, 2 * tope);
+            pila[tope++] = vecino;
+        }
+    }
+
+    /**
+     * Rompe paredes con el algoritmo de Kruskal aleatorio: las paredes
+     * interiores se recorren en un orden aleatorio y cada una se rompe si los
+     * cuartos que separa todavía no están conectados. Al final todos los
+     * cuartos quedan conectados por exactamente una trayectoria.
      */
-    private void daleFormaAlLaberinto(Cuarto cuarto) {
+    private void kruskal() {
+        int n = cuartos.length;
+
+        /*
+         * cada pared interior se representa con el índice del cuarto al oeste
+         * o al norte de ella, multiplicado por 2, más 0 si es su pared Este y 1
+         * si es su pared Sur
+         */
+        int[] paredes = new int[filas * (columnas - 1) + (filas - 1) * columnas];
+        int total = 0;
+
+        for (int i = 0; i < n; i++) {
+            if (i % columnas + 1 < columnas)
+                paredes[total++] = 2 * i;
+
+            if (i + columnas < n)
+                paredes[total++] = 2 * i + 1;
+        }
 
-        Pila<Cuarto> pila = new Pila<Cuarto>();
+        for (int i = total - 1; i > 0; i--) {
+            int j = random.siguienteEntero(i + 1);
+            int t = paredes[i];
+            paredes[i] = paredes[j];
+            paredes[j] = t;
+        }
 
-        pila.mete(cuarto);
-        cuarto.color = ColorCuarto.VISITADO;
+        ConjuntosDisjuntos conjuntos = new ConjuntosDisjuntos(n);
 
-        while (!pila.esVacia()) {
-            Cuarto actual = pila.mira();
+        for (int i = 0; i < total && conjuntos.getConjuntos() > 1; i++) {
+            int actual = paredes[i] >>> 1;
+            int direccion = (paredes[i] & 1) == 0 ? 0 : 3;
+            int vecino = vecino(actual, direccion);
 
-            if (hayVecinosSinVisitar(actual.vecinos)) {
-                CuartoVecino vecino = null;
-                boolean seObtuvoVecino = false;
+            if (conjuntos.une(actual, vecino))
+                rompeParedDireccionDada(actual, vecino, direccion);
+        }
+    }
 
-                while (!seObtuvoVecino) {
-                    try {
-                        vecino = actual.vecinos.get(random.nextInt(4));
-                        seObtuvoVecino = true;
-                    } catch (NoSuchElementException e) {
-                    }
+    /**
+     * Rompe paredes con el algoritmo de Prim aleatorio: el laberinto crece
+     * desde el cuarto dado; en cada paso se saca un cuarto al azar de la
+     * frontera, se une a un cuarto al azar de los que ya están en el
+     * laberinto y sus vecinos que estaban fuera pasan a la frontera.
+     * 
+     * @param cuarto el índice del cuarto desde el que crece el laberinto.
+     */
+    private void prim(int cuarto) {
+        byte[] estados = new byte[cuartos.length];
+        int[] frontera = new int[64];
+        int tamano = 0;
+
+        int actual = cuarto;
+
+        while (true) {
+            int fila = actual / columnas;
+            int existentes = direccionesExistentes(fila, actual - fila * columnas);
+
+            /* el cuarto se une a uno de sus vecinos que ya están dentro */
+            if (actual != cuarto) {
+                int dentro = 0;
+                for (int d = 0; d < 4; d++)
+                    if ((existentes & (1 << d)) != 0 && estados[vecino(actual, d)] == DENTRO)
+                        dentro |= 1 << d;
+
+                int direccion = -1;
+                for (int k = random.siguienteEntero(Integer.bitCount(dentro)); k >= 0; k--) {
+                    direccion = Integer.numberOfTrailingZeros(dentro);
+                    dentro &= dentro - 1;
                 }
-                rompeParedDireccionDada(actual, vecino.vecino, vecino.direccion);
-                vecino.vecino.color = ColorCuarto.VISITADO;
-                vecino.color = ColorCuarto.VISITADO;
-                pila.mete(vecino.vecino);
-            } else {
-                pila.saca();
+
+                rompeParedDireccionDada(actual, vecino(actual, direccion), direccion);
+            }
+
+            estados[actual] = DENTRO;
+
+            for (int d = 0; d < 4; d++) {
+                if ((existentes & (1 << d)) == 0)
+                    continue;
+
+                int vecino = vecino(actual, d);
+                if (estados[vecino] != FUERA)
+                    continue;
+
+                estados[vecino] = FRONTERA;
+                if (tamano == frontera.length)
+                    frontera = Arrays.copyOf(frontera, 2 * tamano);
+                frontera[tamano++] = vecino;
             }
+
+            if (tamano == 0)
+                return;
+
+            int k = random.siguienteEntero(tamano);
+            actual = frontera[k];
+            frontera[k] = frontera[--tamano];
         }
     }
 
     /**
-     * Nos dice si aún hay vecinos que puedan ser visitador en el diccionario de
-     * vecinos recibidos.
+     * Regresa el índice del cuarto adyacente en la dirección dada.
      * 
-     * @param dic el diccinario de vecinos de un cuarto.
-     * @return true si aún hay al menos un vecinos que se pueda visitar, false si
-     *         todos los vecinos del diccionario ya fueron visitados.
+     * @param actual    el índice del cuarto.
+     * @param direccion la dirección: 0 Este, 1 Norte, 2 Oeste y 3 Sur.
+     * @return el índice del cuarto adyacente.
      */
-    private boolean hayVecinosSinVisitar(Diccionario<Integer, CuartoVecino> dic) {
-        for (CuartoVecino vecino : dic)
-            if (vecino.color == ColorCuarto.NO_VISITADO)
-                return true;
-
-        return false;
+    private int vecino(int actual, int direccion) {
+        switch (direccion) {
+            case 0:
+                return actual + 1;
+            case 1:
+                return actual - columnas;
+            case 2:
+                return actual - 1;
+            default:
+                return actual + columnas;
+        }
     }
 
     /**
@@ -200,34 +488,31 @@ public class LaberintoRandom extends CreadorLaberinto {
      * paredes
      * correspondientes de los cuartos recibidos en la direccion dada.
      * 
-     * @param actual    el cuarto actual.
-     * @param vecino    el cuarto vecino al cuarto actual.
-     * @param direccion la direccion del vecino respecto al cuarto actual.
+     * @param actual    el índice del cuarto actual.
+     * @param vecino    el índice del cuarto vecino al cuarto actual.
+     * @param direccion la direccion del vecino respecto al cuarto actual: 0
+     *                  Este, 1 Norte, 2 Oeste y 3 Sur.
      */
-    private void rompeParedDireccionDada(Cuarto actual, Cuarto vecino, Direccion direccion) {
-
-        if (vecino.color == ColorCuarto.VISITADO)
-            return;
-
+    private void rompeParedDireccionDada(int actual, int vecino, int direccion) {
         switch (direccion) {
-            case ESTE:
-                actual.paredEste = false;
-                vecino.paredOeste = false;
+            case 0:
+                quitaPared(actual, PARED_ESTE);
+                quitaPared(vecino, PARED_OESTE);
                 break;
 
-            case NORTE:
-                actual.paredNorte = false;
-                vecino.paredSur = false;
+            case 1:
+                quitaPared(actual, PARED_NORTE);
+                quitaPared(vecino, PARED_SUR);
                 break;
 
-            case OESTE:
-                actual.paredOeste = false;
-                vecino.paredEste = false;
+            case 2:
+                quitaPared(actual, PARED_OESTE);
+                quitaPared(vecino, PARED_ESTE);
                 break;
 
-            case SUR:
-                actual.paredSur = false;
-                vecino.paredNorte = false;
+            case 3:
+                quitaPared(actual, PARED_SUR);
+                quitaPared(vecino, PARED_NORTE);
                 break;
         }
 
@@ -1,6 +1,10 @@
 package mx.unam.ciencias.edd.laberinto;
 
-import java.util.NoSuchElementException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 
 import mx.unam.ciencias.edd.Lista;
 import mx.unam.ciencias.edd.VerticeGrafica;
@@ -10,9 +14,21 @@ import mx.unam.ciencias.edd.VerticeGrafica;
  */
 public class LaberintoSVG {
 
+    /* El número de caracteres que se juntan antes de escribirlos en la salida */
+    private static final int TAMANO_BUFER = 1 << 16;
+
     /* Aquí va todo el codigo de la imagen */
     private StringBuilder codigo;
 
+    /*
+     * La salida donde se escribe la imagen conforme se dibuja; si es null, la
+     * imagen completa se queda en el codigo
+     */
+    private OutputStream salida;
+
+    /* Arreglo auxiliar para pasar el codigo a bytes antes de escribirlo */
+    private byte[] bytes;
+
     /* Ancho de la imagen */
     private double anchoImagen;
 
@@ -28,8 +44,8 @@ public class LaberintoSVG {
     /* Para las lineas */
     private String stroke_width_lineas = "4";
 
-    /* Los cuartos del laberinto vistos como cuartos de solo lectura */
-    private CuartoLaberinto[][] cuartos;
+    /* El laberinto, del que se leen los cuartos como cuartos de solo lectura */
+    private CreadorLaberinto laberinto;
 
     /* La solucion del laberinto */
     private Lista<VerticeGrafica<Integer>> solucion;
@@ -53,7 +69,7 @@ public class LaberintoSVG {
      */
     public LaberintoSVG(Laberinto laberinto) {
         codigo = new StringBuilder();
-        cuartos = laberinto.getCuartoLaberintos();
+        this.laberinto = laberinto;
         solucion = laberinto.getSolucionLaberinto();
         filas = laberinto.getFilas();
         columnas = laberinto.getColumnas();
@@ -63,16 +79,47 @@ public class LaberintoSVG {
     }
 
     /**
-     * Crea la imagen SVG.
+     * Crea la imagen SVG en memoria, para obtenerla con
+     * {@link #getcodigoLaberinto}. Para laberintos grandes es mejor usar
+     * {@link #escribeLaberintoSVG}, que no guarda la imagen completa.
      */
     public void creaLaberintoSVG() {
-        agregaInicioImagen(filas, columnas);
-        dibujaLaberinto();
-        agregaFinalImagen();
+        salida = null;
+        codigo.setLength(0);
+        dibujaImagen();
     }
 
     /**
-     * Regresa el codigo de la imágen SVG del laberinto.
+     * Escribe la imagen SVG en la salida dada conforme se va dibujando: el
+     * codigo se vacía en la salida cada vez que junta {@link #TAMANO_BUFER}
+     * caracteres, así que la memoria que se usa no depende del tamaño del
+     * laberinto. La salida no se cierra.
+     * 
+     * @param salida la salida donde se escribirá la imagen.
+     * @throws IOException en caso de que haya un error escribiendo en la
+     *                     salida.
+     */
+    public void escribeLaberintoSVG(OutputStream salida) throws IOException {
+        this.salida = salida;
+        codigo.setLength(0);
+
+        /* un elemento nunca ocupa más de unos cuantos cientos de caracteres */
+        codigo.ensureCapacity(TAMANO_BUFER + 1024);
+
+        try {
+            dibujaImagen();
+            vaciaCodigo();
+            salida.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            this.salida = null;
+        }
+    }
+
+    /**
+     * Regresa el codigo de la imágen SVG del laberinto creado con
+     * {@link #creaLaberintoSVG}.
      * 
      * @return el codigo SVG.
      */
@@ -80,6 +127,55 @@ public class LaberintoSVG {
         return codigo.toString();
     }
 
+    /**
+     * Dibuja la imagen completa.
+     */
+    private void dibujaImagen() {
+        agregaInicioImagen(filas, columnas);
+        dibujaLaberinto();
+        agregaFinalImagen();
+    }
+
+    /**
+     * Si la imagen se está escribiendo en una salida y el codigo ya juntó
+     * suficientes caracteres, los escribe en la salida.
+     */
+    private void revisaCodigo() {
+        if (salida != null && codigo.length() >= TAMANO_BUFER)
+            vaciaCodigo();
+    }
+
+    /**
+     * Escribe en la salida los caracteres que ha juntado el codigo, y lo deja
+     * vacío.
+     * 
+     * @throws UncheckedIOException en caso de que haya un error escribiendo
+     *                              en la salida.
+     */
+    private void vaciaCodigo() {
+        int n = codigo.length();
+        if (bytes == null || bytes.length < n)
+            bytes = new byte[n];
+
+        try {
+            /* todo el codigo es ASCII, salvo que algún texto diga otra cosa */
+            for (int i = 0; i < n; i++) {
+                char c = codigo.charAt(i);
+                if (c >= 0x80) {
+                    salida.write(codigo.toString().getBytes(StandardCharsets.UTF_8));
+                    codigo.setLength(0);
+                    return;
+                }
+                bytes[i] = (byte) c;
+            }
+
+            salida.write(bytes, 0, n);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        codigo.setLength(0);
+    }
+
     /**
      * Define el ancho y alto de una imagen de acuerdo con el número de
      * elementos enteros que contendrá la estructura.
@@ -98,9 +194,9 @@ public class LaberintoSVG {
         defineTamanoImagen(filas, columnas);
         codigo.append("<?xml version='1.0' encoding='UTF-8' ?>\n");
         codigo.append("<svg width='");
-        codigo.append(anchoImagen);
+        agregaNumero(anchoImagen);
         codigo.append("' height='");
-        codigo.append(altoImagen);
+        agregaNumero(altoImagen);
         codigo.append("'>\n");
     }
 
@@ -126,8 +222,8 @@ public class LaberintoSVG {
      */
     private void dibujaParedesNorte() {
         for (int i = 0; i < columnas; i++)
-            if (cuartos[0][i].getParedNorte())
-                dibujaParedCuarto(cuartos[0][i], Direccion.NORTE);
+            if (laberinto.getCuarto(0, i).getParedNorte())
+                dibujaParedCuarto(laberinto.getCuarto(0, i), Direccion.NORTE);
     }
 
     /*
@@ -135,8 +231,8 @@ public class LaberintoSVG {
      */
     private void dibujaParedesEste() {
         for (int i = 0; i < filas; i++)
-            if (cuartos[i][columnas - 1].getParedEste())
-                dibujaParedCuarto(cuartos[i][columnas - 1], Direccion.ESTE);
+            if (laberinto.getCuarto(i, columnas - 1).getParedEste())
+                dibujaParedCuarto(laberinto.getCuarto(i, columnas - 1), Direccion.ESTE);
 
     }
 
@@ -145,8 +241,8 @@ public class LaberintoSVG {
      */
     private void dibujaParedesOeste() {
         for (int i = 0; i < filas; i++)
-            if (cuartos[i][0].getParedOeste())
-                dibujaParedCuarto(cuartos[i][0], Direccion.OESTE);
+            if (laberinto.getCuarto(i, 0).getParedOeste())
+                dibujaParedCuarto(laberinto.getCuarto(i, 0), Direccion.OESTE);
 
     }
 
@@ -155,8 +251,8 @@ public class LaberintoSVG {
      */
     private void dibujaParedesSur() {
         for (int i = 0; i < columnas; i++)
-            if (cuartos[filas - 1][i].getParedSur())
-                dibujaParedCuarto(cuartos[filas - 1][i], Direccion.SUR);
+            if (laberinto.getCuarto(filas - 1, i).getParedSur())
+                dibujaParedCuarto(laberinto.getCuarto(filas - 1, i), Direccion.SUR);
 
     }
 
@@ -168,10 +264,11 @@ public class LaberintoSVG {
     private void dibujaRellenoLaberinto() {
         for (int f = 0; f < filas; f++) {
             for (int c = 0; c < columnas; c++) {
-                if (cuartos[f][c].getParedEste())
-                    dibujaParedCuarto(cuartos[f][c], Direccion.ESTE);
-                if (cuartos[f][c].getParedSur())
-                    dibujaParedCuarto(cuartos[f][c], Direccion.SUR);
+                CuartoLaberinto cuarto = laberinto.getCuarto(f, c);
+                if (cuarto.getParedEste())
+                    dibujaParedCuarto(cuarto, Direccion.ESTE);
+                if (cuarto.getParedSur())
+                    dibujaParedCuarto(cuarto, Direccion.SUR);
             }
         }
     }
@@ -194,9 +291,9 @@ public class LaberintoSVG {
         codigo.append("' stroke-width='");
         codigo.append("1");
         codigo.append("' width='");
-        codigo.append(anchoImagen);
+        agregaNumero(anchoImagen);
         codigo.append("' height='");
-        codigo.append(altoImagen);
+        agregaNumero(altoImagen);
         codigo.append("' /> \n");
     }
 
@@ -235,9 +332,11 @@ public class LaberintoSVG {
         colorLinea = "#960C0C";
         stroke_width_lineas = "7";
 
-        int longitud = solucion.getLongitud();
+        /* la solución se recorre sin modificarla, para poder dibujarla más
+         * de una vez */
+        Iterator<VerticeGrafica<Integer>> iterador = solucion.iterator();
 
-        int indiceActual = solucion.eliminaPrimero().get();
+        int indiceActual = iterador.next().get();
         int indiceVecinoActual;
         Direccion direccionVecino;
 
@@ -247,34 +346,32 @@ public class LaberintoSVG {
         double p2_x;
         double p2_y;
 
-        for (int i = 0; i < longitud; i++) {
-            try {
-                indiceVecinoActual = solucion.eliminaPrimero().get();
-
-                direccionVecino = obtenDireccionVecino(indiceActual, indiceVecinoActual);
-
-                p2_x = calculaPosXEnMedio(obtenColumnaCuarto(indiceVecinoActual));
-                p2_y = calculaPosYEnMedio(obtenFilaCuarto(indiceVecinoActual));
-
-                switch (direccionVecino) {
-                    case ESTE:
-                        dibujaLinea(p1_x, p1_y, p2_x, p2_y);
-                        break;
-                    case NORTE:
-                        dibujaLinea(p1_x, p1_y, p2_x, p2_y);
-                        break;
-                    case OESTE:
-                        dibujaLinea(p1_x, p1_y, p2_x, p2_y);
-                        break;
-                    case SUR:
-                        dibujaLinea(p1_x, p1_y, p2_x, p2_y);
-                        break;
-                }
-
-                p1_x = p2_x;
-                p1_y = p2_y;
-            } catch (NoSuchElementException e) {
+        while (iterador.hasNext()) {
+            indiceVecinoActual = iterador.next().get();
+
+            direccionVecino = obtenDireccionVecino(indiceActual, indiceVecinoActual);
+
+            p2_x = calculaPosXEnMedio(obtenColumnaCuarto(indiceVecinoActual));
+            p2_y = calculaPosYEnMedio(obtenFilaCuarto(indiceVecinoActual));
+
+            switch (direccionVecino) {
+                case ESTE:
+                    dibujaLinea(p1_x, p1_y, p2_x, p2_y);
+                    break;
+                case NORTE:
+                    dibujaLinea(p1_x, p1_y, p2_x, p2_y);
+                    break;
+                case OESTE:
+                    dibujaLinea(p1_x, p1_y, p2_x, p2_y);
+                    break;
+                case SUR:
+                    dibujaLinea(p1_x, p1_y, p2_x, p2_y);
+                    break;
             }
+
+            indiceActual = indiceVecinoActual;
+            p1_x = p2_x;
+            p1_y = p2_y;
         }
 
         dibujaInicio();
@@ -316,18 +413,19 @@ public class LaberintoSVG {
     private void dibujaLinea(double p1_x, double p1_y,
             double p2_x, double p2_y) {
         codigo.append("\t\t<line x1='");
-        codigo.append(p1_x);
+        agregaNumero(p1_x);
         codigo.append("' y1='");
-        codigo.append(p1_y);
+        agregaNumero(p1_y);
         codigo.append("' x2='");
-        codigo.append(p2_x);
+        agregaNumero(p2_x);
         codigo.append("' y2='");
-        codigo.append(p2_y);
+        agregaNumero(p2_y);
         codigo.append("' stroke='");
         codigo.append(colorLinea);
         codigo.append("' stroke-width='");
         codigo.append(stroke_width_lineas);
         codigo.append("'/> \n");
+        revisaCodigo();
     }
 
     /**
@@ -340,9 +438,9 @@ public class LaberintoSVG {
     private void dibujaCirculo(double cx, double cy, String color) {
 
         codigo.append("\t\t<circle cx='");
-        codigo.append(cx);
+        agregaNumero(cx);
         codigo.append("' cy='");
-        codigo.append(cy);
+        agregaNumero(cy);
         codigo.append("' r='");
         codigo.append("6");
         codigo.append("' stroke='");
@@ -352,6 +450,22 @@ public class LaberintoSVG {
         codigo.append("' fill='");
         codigo.append(color);
         codigo.append("'/> \n");
+        revisaCodigo();
+    }
+
+    /**
+     * Agrega un número al codigo con el mismo texto que
+     * {@link Double#toString(double)}. Las coordenadas de la imagen siempre
+     * son enteras, y en ese caso se agregan como entero seguido de ".0", que
+     * no crea objetos intermedios.
+     * 
+     * @param numero el número a agregar.
+     */
+    private void agregaNumero(double numero) {
+        if (numero >= 0 && numero < 1e7 && numero == (int) numero)
+            codigo.append((int) numero).append(".0");
+        else
+            codigo.append(numero);
     }
 
     /**
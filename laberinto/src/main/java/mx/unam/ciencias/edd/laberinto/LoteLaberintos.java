@@ -0,0 +1,158 @@
+package mx.unam.ciencias.edd.laberinto;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Clase para resolver todos los laberintos de un directorio en una sola
+ * ejecución del programa. Cada archivo .mze del directorio de entrada se
+ * verifica, se resuelve y se dibuja en un archivo .svg con el mismo nombre en
+ * el directorio de salida. Los archivos se reparten entre un número fijo de
+ * hilos, y un archivo inválido sólo se reporta: no detiene a los demás.
+ */
+public class LoteLaberintos {
+
+    /* El tamaño de los búferes para leer y escribir los archivos */
+    private static final int TAMANO_BUFER = 1 << 16;
+
+    /* El directorio con los archivos .mze */
+    private Path entrada;
+
+    /* El directorio donde se escriben los archivos .svg */
+    private Path salida;
+
+    /* El número de hilos con los que se resuelven los laberintos */
+    private int hilos;
+
+    /* El algoritmo con el que se resuelven los laberintos */
+    private AlgoritmoResolvedor resolvedor;
+
+    /* La caché con las soluciones de los laberintos ya resueltos */
+    private CacheSoluciones cache;
+
+    /* El número de archivos que no se pudieron resolver */
+    private AtomicInteger fallas;
+
+    /**
+     * Constructor.
+     * 
+     * @param entrada    el directorio con los archivos .mze.
+     * @param salida     el directorio donde se escribirán los archivos .svg.
+     * @param hilos      el número de hilos con los que se resolverán.
+     * @param resolvedor el algoritmo con el que se resolverán.
+     */
+    public LoteLaberintos(Path entrada, Path salida, int hilos, AlgoritmoResolvedor resolvedor) {
+        this(entrada, salida, hilos, resolvedor, null);
+    }
+
+    /**
+     * Constructor que recibe una caché de soluciones: los laberintos que ya
+     * estén en ella no se verifican ni se resuelven, sólo se dibujan.
+     * 
+     * @param entrada    el directorio con los archivos .mze.
+     * @param salida     el directorio donde se escribirán los archivos .svg.
+     * @param hilos      el número de hilos con los que se resolverán.
+     * @param resolvedor el algoritmo con el que se resolverán.
+     * @param cache      la caché de soluciones, o null para no usar ninguna.
+     */
+    public LoteLaberintos(Path entrada, Path salida, int hilos, AlgoritmoResolvedor resolvedor,
+            CacheSoluciones cache) {
+        this.entrada = entrada;
+        this.salida = salida;
+        this.hilos = hilos;
+        this.resolvedor = resolvedor;
+        this.cache = cache;
+        fallas = new AtomicInteger();
+    }
+
+    /**
+     * Resuelve todos los archivos .mze del directorio de entrada e imprime
+     * un resumen con el número de archivos, los archivos por segundo y las
+     * fallas. Los errores de cada archivo se imprimen en la salida de error.
+     * 
+     * @return el número de archivos que no se pudieron resolver.
+     * @throws IOException en caso de que no se pueda leer el directorio de
+     *                     entrada o crear el de salida.
+     */
+    public int ejecuta() throws IOException {
+        List<Path> archivos = new ArrayList<>();
+        try (DirectoryStream<Path> directorio = Files.newDirectoryStream(entrada, "*.mze")) {
+            for (Path archivo : directorio)
+                archivos.add(archivo);
+        }
+        Collections.sort(archivos);
+
+        Files.createDirectories(salida);
+
+        long inicio = System.nanoTime();
+
+        ExecutorService trabajadores = Executors.newFixedThreadPool(hilos);
+        for (Path archivo : archivos)
+            trabajadores.execute(() -> procesaArchivo(archivo));
+
+        trabajadores.shutdown();
+        try {
+            trabajadores.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            trabajadores.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("El lote fue interrumpido");
+        }
+
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        int resueltos = archivos.size() - fallas.get();
+
+        System.out.printf("Se resolvieron %d de %d archivos en %.2f s (%.1f archivos/s) con %d hilos; " +
+                "fallaron %d%n", resueltos, archivos.size(), segundos, archivos.size() / segundos,
+                hilos, fallas.get());
+
+        return fallas.get();
+    }
+
+    /**
+     * Verifica, resuelve y dibuja un archivo. Si el archivo es inválido, se
+     * reporta el error, se cuenta la falla y se borra el .svg incompleto.
+     * 
+     * @param archivo el archivo .mze.
+     */
+    private void procesaArchivo(Path archivo) {
+        String nombre = archivo.getFileName().toString();
+        Path svg = salida.resolve(nombre.substring(0, nombre.length() - ".mze".length()) + ".svg");
+
+        try {
+            VerificaFormatoArchivo verificador;
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(archivo), TAMANO_BUFER)) {
+                verificador = new VerificaFormatoArchivo(in);
+            }
+
+            Laberinto lab = new Laberinto(verificador.getCuartos(), verificador.getFilas(),
+                    verificador.getColumnas(), resolvedor);
+            lab.creaLaberinto(cache);
+
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(svg), TAMANO_BUFER)) {
+                new LaberintoSVG(lab).escribeLaberintoSVG(out);
+            }
+        } catch (Exception e) {
+            fallas.incrementAndGet();
+            System.err.println(nombre + ": " + e.getMessage());
+            try {
+                Files.deleteIfExists(svg);
+            } catch (IOException ignorada) {
+            }
+        }
+    }
+
+}
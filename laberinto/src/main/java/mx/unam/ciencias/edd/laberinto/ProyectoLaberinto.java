@@ -6,8 +6,24 @@ public class ProyectoLaberinto {
     public static void uso() {
         System.out.println("El uso correcto del programa es el siguiente: ");
         System.out.println(
-                "Para generar un laberinto: java -jar target/laberinto.jar -g -s <semilla> -w <columnas> -h <filas>");
-        System.out.println("Para resolver un laberinto: java -jar target/laberinto.jar < laberinto.mze");
+                "Para generar un laberinto: java -jar target/laberinto.jar -g -s <semilla> -w <columnas> -h <filas> "
+                        + "[-f <" + FormatoLaberinto.nombres() + ">] [--algoritmo <" + AlgoritmoGenerador.nombres() + ">] "
+                        + "[--rng <" + AlgoritmoAleatorio.nombres() + ">] [--hilos <n>]");
+        System.out.println("Para generar varios laberintos: java -jar target/laberinto.jar "
+                + "-g -s <primera>..<ultima> -w <columnas> -h <filas> [--directorio <dir>] [--hilos <n>], "
+                + "o bien -g -s <primera> -n <cantidad> ...");
+        System.out.println("Para generar, resolver y dibujar un laberinto: java -jar target/laberinto.jar "
+                + "-g -s <semilla> -w <columnas> -h <filas> --svg [--mze <archivo>] "
+                + "[--resolvedor <" + AlgoritmoResolvedor.nombres() + ">] [--estadisticas] [--podar] "
+                + "[--hilos <n>]");
+        System.out.println("Para resolver un laberinto: java -jar target/laberinto.jar "
+                + "[--resolvedor <" + AlgoritmoResolvedor.nombres() + ">] [--estadisticas] [--podar] "
+                + "[--cache <dir> [--cache-maximo <MB>]] [--arbol <archivo>] [--hilos <n>] < laberinto.mze");
+        System.out.println("Para verificar un laberinto sin resolverlo: java -jar target/laberinto.jar "
+                + "--verificar < laberinto.mze");
+        System.out.println("Para resolver un directorio de laberintos: java -jar target/laberinto.jar "
+                + "--lote <entrada> <salida> [--hilos <n>] [--resolvedor <" + AlgoritmoResolvedor.nombres() + ">] "
+                + "[--cache <dir> [--cache-maximo <MB>]]");
         System.exit(1);
     }
 
@@ -0,0 +1,110 @@
+package mx.unam.ciencias.edd.laberinto;
+
+import mx.unam.ciencias.edd.MonticuloIndexado;
+
+/**
+ * Clase para resolver un laberinto con el algoritmo A*. Cada puerta cuesta al
+ * menos 1, así que la distancia Manhattan al cuarto final nunca sobreestima lo
+ * que falta por recorrer; además es consistente, pues al cruzar una puerta
+ * cambia a lo más en 1. Por eso ningún cuarto se expande dos veces y la
+ * trayectoria que se encuentra tiene el mismo puntaje que la de Dijkstra.
+ */
+public class ResolvedorAEstrella extends ResolvedorCuadricula {
+
+    /* Distancia de los cuartos que no se han alcanzado */
+    private static final int INFINITO = Integer.MAX_VALUE;
+
+    /**
+     * Constructor.
+     *
+     * @param cuartos  los bytes de los cuartos del laberinto.
+     * @param filas    el número de filas del laberinto.
+     * @param columnas el número de columnas del laberinto.
+     */
+    public ResolvedorAEstrella(byte[] cuartos, int filas, int columnas) {
+        super(cuartos, filas, columnas);
+    }
+
+    /**
+     * Calcula una trayectoria de peso mínimo entre dos cuartos con el
+     * algoritmo A*.
+     *
+     * @param inicio el índice del cuarto de inicio.
+     * @param fin    el índice del cuarto final.
+     * @return los índices de los cuartos de la trayectoria, del inicio al
+     *         final; si no se puede llegar del inicio al final, un arreglo
+     *         vacío.
+     */
+    @Override
+    public int[] resuelve(int inicio, int fin) {
+        int[] distancias = new int[cuartos.length];
+        int[] padres = nuevosPadres();
+        boolean[] cerrados = new boolean[cuartos.length];
+        MonticuloIndexado monticulo = new MonticuloIndexado(cuartos.length);
+
+        for (int i = 0; i < distancias.length; i++)
+            distancias[i] = INFINITO;
+
+        int filaFin = fin / columnas;
+        int columnaFin = fin - filaFin * columnas;
+
+        distancias[inicio] = 0;
+        monticulo.agrega(inicio, llave(0, heuristica(inicio, filaFin, columnaFin)));
+        expandidos = 0;
+
+        while (!monticulo.esVacia()) {
+            int v = monticulo.elimina();
+            cerrados[v] = true;
+            expandidos++;
+
+            if (v == fin)
+                break;
+
+            int fila = v / columnas;
+            int columna = v - fila * columnas;
+
+            for (int d = ESTE; d <= SUR; d++) {
+                int u = vecino(v, fila, columna, d);
+                if (u == -1 || cerrados[u])
+                    continue;
+
+                int distancia = distancias[v] + peso(v, u);
+                if (distancia < distancias[u]) {
+                    distancias[u] = distancia;
+                    padres[u] = v;
+                    monticulo.reordena(u, llave(distancia, heuristica(u, filaFin, columnaFin)));
+                }
+            }
+        }
+
+        return trayectoria(padres, inicio, fin);
+    }
+
+    /**
+     * Regresa la distancia Manhattan de un cuarto al cuarto final.
+     *
+     * @param cuarto     el índice del cuarto.
+     * @param filaFin    la fila del cuarto final.
+     * @param columnaFin la columna del cuarto final.
+     * @return la distancia Manhattan entre ambos cuartos.
+     */
+    protected int heuristica(int cuarto, int filaFin, int columnaFin) {
+        int fila = cuarto / columnas;
+        int columna = cuarto - fila * columnas;
+        return Math.abs(fila - filaFin) + Math.abs(columna - columnaFin);
+    }
+
+    /**
+     * Regresa la llave de un cuarto en el montículo. Los cuartos se ordenan
+     * por distancia más heurística, y en los empates va primero el de mayor
+     * distancia recorrida, que es el que está más cerca del final.
+     *
+     * @param distancia  la distancia del inicio al cuarto.
+     * @param heuristica la estimación de lo que falta al cuarto final.
+     * @return la llave del cuarto.
+     */
+    private static long llave(int distancia, int heuristica) {
+        return ((long) (distancia + heuristica) << 32) | (INFINITO - distancia);
+    }
+
+}
@@ -0,0 +1,167 @@
+package mx.unam.ciencias.edd.laberinto;
+
+/**
+ * Clase abstracta para resolver un laberinto directamente sobre los bytes de
+ * sus cuartos, sin construir una gráfica. Los vecinos de un cuarto se
+ * obtienen de sus paredes, y el peso de una puerta de los puntajes de los
+ * cuartos que conecta.
+ */
+public abstract class ResolvedorCuadricula {
+
+    /* Dirección Este; coincide con el bit de su pared */
+    protected static final int ESTE = 0;
+
+    /* Dirección Norte; coincide con el bit de su pared */
+    protected static final int NORTE = 1;
+
+    /* Dirección Oeste; coincide con el bit de su pared */
+    protected static final int OESTE = 2;
+
+    /* Dirección Sur; coincide con el bit de su pared */
+    protected static final int SUR = 3;
+
+    /* Los bytes de los cuartos del laberinto, renglón por renglón */
+    protected byte[] cuartos;
+
+    /* El número de filas del laberinto */
+    protected int filas;
+
+    /* El número de columnas del laberinto */
+    protected int columnas;
+
+    /* El número de cuartos que expandió la última búsqueda */
+    protected int expandidos;
+
+    /* Los cuartos que la búsqueda debe ignorar, o null si no hay */
+    protected boolean[] podados;
+
+    /**
+     * Constructor.
+     *
+     * @param cuartos  los bytes de los cuartos del laberinto.
+     * @param filas    el número de filas del laberinto.
+     * @param columnas el número de columnas del laberinto.
+     */
+    public ResolvedorCuadricula(byte[] cuartos, int filas, int columnas) {
+        this.cuartos = cuartos;
+        this.filas = filas;
+        this.columnas = columnas;
+    }
+
+    /**
+     * Calcula una trayectoria de peso mínimo entre dos cuartos.
+     *
+     * @param inicio el índice del cuarto de inicio.
+     * @param fin    el índice del cuarto final.
+     * @return los índices de los cuartos de la trayectoria, del inicio al
+     *         final; si no se puede llegar del inicio al final, un arreglo
+     *         vacío.
+     */
+    public abstract int[] resuelve(int inicio, int fin);
+
+    /**
+     * Regresa el número de cuartos que expandió la última búsqueda, es decir,
+     * los cuartos cuyos vecinos se revisaron (incluyendo al cuarto final).
+     *
+     * @return el número de cuartos expandidos.
+     */
+    public int getExpandidos() {
+        return expandidos;
+    }
+
+    /**
+     * Indica los cuartos que las búsquedas deben ignorar, como si no
+     * tuvieran puertas; por ejemplo, los callejones sin salida que se podaron
+     * antes de resolver el laberinto.
+     *
+     * @param podados los cuartos a ignorar, o null para no ignorar ninguno.
+     */
+    public void setPodados(boolean[] podados) {
+        this.podados = podados;
+    }
+
+    /**
+     * Regresa el índice del vecino del cuarto en la dirección dada, si hay
+     * una puerta entre los dos y el vecino no está podado. Las puertas de la
+     * frontera (la entrada y la salida) no llevan a ningún cuarto.
+     *
+     * @param indice    el índice del cuarto.
+     * @param fila      la fila del cuarto.
+     * @param columna   la columna del cuarto.
+     * @param direccion la dirección del vecino.
+     * @return el índice del vecino, o -1 si no hay puerta en esa dirección.
+     */
+    protected int vecino(int indice, int fila, int columna, int direccion) {
+        if ((cuartos[indice] & (1 << direccion)) != 0)
+            return -1;
+
+        int vecino;
+        switch (direccion) {
+            case ESTE:
+                vecino = (columna + 1 < columnas) ? indice + 1 : -1;
+                break;
+            case NORTE:
+                vecino = (fila > 0) ? indice - columnas : -1;
+                break;
+            case OESTE:
+                vecino = (columna > 0) ? indice - 1 : -1;
+                break;
+            default:
+                vecino = (fila + 1 < filas) ? indice + columnas : -1;
+                break;
+        }
+
+        return (podados != null && vecino != -1 && podados[vecino]) ? -1 : vecino;
+    }
+
+    /**
+     * Regresa el puntaje de la puerta entre dos cuartos, que es 1 más el
+     * puntaje de los dos cuartos.
+     *
+     * @param a el índice de un cuarto.
+     * @param b el índice de un cuarto adyacente.
+     * @return el puntaje de la puerta entre ambos cuartos.
+     */
+    protected int peso(int a, int b) {
+        return ((cuartos[a] & 0xFF) >>> 4) + ((cuartos[b] & 0xFF) >>> 4) + 1;
+    }
+
+    /**
+     * Reconstruye la trayectoria del inicio al final siguiendo a los padres
+     * desde el final.
+     *
+     * @param padres el padre de cada cuarto, o -1 si no fue alcanzado.
+     * @param inicio el índice del cuarto de inicio.
+     * @param fin    el índice del cuarto final.
+     * @return los índices de los cuartos de la trayectoria, o un arreglo
+     *         vacío si no se alcanzó el final.
+     */
+    protected int[] trayectoria(int[] padres, int inicio, int fin) {
+        if (fin != inicio && padres[fin] == -1)
+            return new int[0];
+
+        int longitud = 1;
+        for (int v = fin; v != inicio; v = padres[v])
+            longitud++;
+
+        int[] trayectoria = new int[longitud];
+        for (int v = fin; longitud > 0; v = padres[v])
+            trayectoria[--longitud] = v;
+
+        return trayectoria;
+    }
+
+    /**
+     * Regresa un arreglo de padres donde ningún cuarto ha sido alcanzado.
+     *
+     * @return el arreglo de padres.
+     */
+    protected int[] nuevosPadres() {
+        int[] padres = new int[cuartos.length];
+        for (int i = 0; i < padres.length; i++)
+            padres[i] = -1;
+
+        return padres;
+    }
+
+}
@@ -0,0 +1,394 @@
+package mx.unam.ciencias.edd.laberinto;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Clase para resolver un laberinto con el algoritmo <i>delta-stepping</i> de
+ * Meyer y Sanders, relajando las puertas en paralelo sobre un
+ * {@link ForkJoinPool}. Los cuartos pendientes se guardan en cubetas de
+ * ancho {@link #DELTA}: todos los cuartos de la cubeta actual se expanden a
+ * la vez, primero por sus puertas ligeras (de peso a lo más DELTA), que
+ * pueden volver a meter cuartos a la misma cubeta, y al vaciarse la cubeta
+ * por sus puertas pesadas. Como el puntaje de una puerta está entre 1 y 31,
+ * basta un arreglo circular de 31/DELTA + 2 cubetas.
+ *
+ * La distancia y el padre de cada cuarto se guardan juntos en un entero
+ * largo (la distancia en los 32 bits más significativos) y se actualizan con
+ * compare-and-set, así que ningún hilo ve una distancia sin su padre. Entre
+ * dos padres con la misma distancia gana el de menor índice, de modo que la
+ * trayectoria es la misma con cualquier número de hilos; su puntaje es el
+ * mismo que el de Dijkstra, aunque en un empate la trayectoria puede ser
+ * otra.
+ */
+public class ResolvedorDeltaStepping extends ResolvedorCuadricula {
+
+    /**
+     * El ancho de las cubetas. Con puertas de 1 a 31 y a lo más 4 puertas por
+     * cuarto, 8 deja casi todas las puertas de un laberinto como ligeras sin
+     * que las cubetas se llenen de cuartos que se vuelven a relajar.
+     */
+    public static final int DELTA = 8;
+
+    /* El número mínimo de cuartos de la frontera para repartirla entre hilos */
+    private static final int UMBRAL = 1024;
+
+    /* Distancia y padre de los cuartos que no se han alcanzado */
+    private static final long INFINITO = Long.MAX_VALUE;
+
+    /*
+     * Clase interna privada para una lista de enteros que crece; cada hilo
+     * junta en una los cuartos que mejoró.
+     */
+    private static class Enteros {
+
+        /* los enteros */
+        private int[] elementos = new int[16];
+
+        /* el número de enteros */
+        private int tamano;
+
+        /**
+         * Agrega un entero al final de la lista.
+         *
+         * @param elemento el entero.
+         */
+        public void agrega(int elemento) {
+            if (tamano == elementos.length)
+                elementos = java.util.Arrays.copyOf(elementos, tamano * 2);
+            elementos[tamano++] = elemento;
+        }
+
+        /**
+         * Agrega los enteros de otra lista al final de esta.
+         *
+         * @param lista la otra lista.
+         */
+        public void agrega(Enteros lista) {
+            for (int i = 0; i < lista.tamano; i++)
+                agrega(lista.elementos[i]);
+        }
+    }
+
+    /*
+     * Clase interna privada para relajar en paralelo las puertas de un
+     * intervalo de la frontera; se parte a la mitad hasta que el intervalo
+     * tiene a lo más UMBRAL cuartos.
+     */
+    private class Relajacion extends RecursiveTask<Enteros> {
+
+        /* los cuartos de la frontera */
+        private int[] frontera;
+
+        /* el primer cuarto del intervalo */
+        private int desde;
+
+        /* el cuarto después del último del intervalo */
+        private int hasta;
+
+        /* si se relajan las puertas ligeras o las pesadas */
+        private boolean ligeras;
+
+        /**
+         * Constructor.
+         *
+         * @param frontera los cuartos de la frontera.
+         * @param desde    el primer cuarto del intervalo.
+         * @param hasta    el cuarto después del último del intervalo.
+         * @param ligeras  si se relajan las puertas ligeras o las pesadas.
+         */
+        public Relajacion(int[] frontera, int desde, int hasta, boolean ligeras) {
+            this.frontera = frontera;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.ligeras = ligeras;
+        }
+
+        /**
+         * Relaja las puertas del intervalo.
+         *
+         * @return los cuartos cuya distancia mejoró.
+         */
+        @Override
+        protected Enteros compute() {
+            if (hasta - desde <= UMBRAL)
+                return relaja(frontera, desde, hasta, ligeras);
+
+            int mitad = (desde + hasta) >>> 1;
+            Relajacion izquierda = new Relajacion(frontera, desde, mitad, ligeras);
+            izquierda.fork();
+            Enteros mejorados = new Relajacion(frontera, mitad, hasta, ligeras).compute();
+            mejorados.agrega(izquierda.join());
+            return mejorados;
+        }
+    }
+
+    /* El número de hilos */
+    private int hilos;
+
+    /* El ancho de las cubetas */
+    private int delta;
+
+    /* La distancia y el padre de cada cuarto */
+    private AtomicLongArray estados;
+
+    /* Las cubetas, en un arreglo circular */
+    private Enteros[] cubetas;
+
+    /* La última vez que se vio cada cuarto en una frontera */
+    private int[] marcas;
+
+    /**
+     * Constructor con el ancho de cubeta por omisión.
+     *
+     * @param cuartos  los bytes de los cuartos del laberinto.
+     * @param filas    el número de filas del laberinto.
+     * @param columnas el número de columnas del laberinto.
+     * @param hilos    el número de hilos.
+     */
+    public ResolvedorDeltaStepping(byte[] cuartos, int filas, int columnas, int hilos) {
+        this(cuartos, filas, columnas, hilos, DELTA);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param cuartos  los bytes de los cuartos del laberinto.
+     * @param filas    el número de filas del laberinto.
+     * @param columnas el número de columnas del laberinto.
+     * @param hilos    el número de hilos.
+     * @param delta    el ancho de las cubetas.
+     * @throws ExcepcionParametroInvalido si el ancho de las cubetas es menor
+     *                                    que 1.
+     */
+    public ResolvedorDeltaStepping(byte[] cuartos, int filas, int columnas, int hilos, int delta) {
+        super(cuartos, filas, columnas);
+        if (delta < 1)
+            throw new ExcepcionParametroInvalido("El ancho de las cubetas debe ser al menos 1");
+
+        this.hilos = hilos;
+        this.delta = delta;
+    }
+
+    /**
+     * Calcula una trayectoria de peso mínimo entre dos cuartos con el
+     * algoritmo delta-stepping.
+     *
+     * @param inicio el índice del cuarto de inicio.
+     * @param fin    el índice del cuarto final.
+     * @return los índices de los cuartos de la trayectoria, del inicio al
+     *         final; si no se puede llegar del inicio al final, un arreglo
+     *         vacío.
+     */
+    @Override
+    public int[] resuelve(int inicio, int fin) {
+        estados = new AtomicLongArray(cuartos.length);
+        for (int i = 0; i < cuartos.length; i++)
+            estados.set(i, INFINITO);
+
+        cubetas = new Enteros[31 / delta + 2];
+        for (int i = 0; i < cubetas.length; i++)
+            cubetas[i] = new Enteros();
+
+        marcas = new int[cuartos.length];
+        expandidos = 0;
+
+        ForkJoinPool pool = hilos > 1 ? new ForkJoinPool(hilos) : null;
+        try {
+            busca(inicio, fin, pool);
+        } finally {
+            if (pool != null)
+                pool.shutdown();
+        }
+
+        int[] trayectoria = trayectoria(fin, inicio);
+        estados = null;
+        cubetas = null;
+        marcas = null;
+        return trayectoria;
+    }
+
+    /**
+     * Vacía las cubetas en orden hasta que la distancia del cuarto final ya
+     * no puede mejorar.
+     *
+     * @param inicio el índice del cuarto de inicio.
+     * @param fin    el índice del cuarto final.
+     * @param pool   el pool de hilos, o null para relajar en el hilo actual.
+     */
+    private void busca(int inicio, int fin, ForkJoinPool pool) {
+        estados.set(inicio, estado(0, inicio));
+        cubetas[0].agrega(inicio);
+        int pendientes = 1;
+        int marca = 0;
+
+        for (int cubeta = 0; pendientes > 0; cubeta++) {
+            Enteros actual = cubetas[cubeta % cubetas.length];
+            if (actual.tamano == 0)
+                continue;
+
+            Enteros vaciados = new Enteros();
+            while (actual.tamano > 0) {
+                pendientes -= actual.tamano;
+
+                /* se saca la cubeta, sin los cuartos repetidos ni los que ya mejoraron */
+                int[] frontera = new int[actual.tamano];
+                int tamano = 0;
+                marca++;
+                for (int i = 0; i < actual.tamano; i++) {
+                    int v = actual.elementos[i];
+                    if (marcas[v] != marca && distancia(estados.get(v)) / delta == cubeta) {
+                        marcas[v] = marca;
+                        frontera[tamano++] = v;
+                    }
+                }
+                actual.tamano = 0;
+                expandidos += tamano;
+
+                for (int i = 0; i < tamano; i++)
+                    vaciados.agrega(frontera[i]);
+
+                pendientes += reparte(relajaFrontera(frontera, tamano, true, pool));
+            }
+
+            pendientes += reparte(relajaFrontera(vaciados.elementos, vaciados.tamano, false, pool));
+
+            long estadoFin = estados.get(fin);
+            if (estadoFin != INFINITO && distancia(estadoFin) < (cubeta + 1L) * delta)
+                return;
+        }
+    }
+
+    /**
+     * Relaja las puertas de los cuartos de la frontera, en paralelo si hay
+     * hilos y suficientes cuartos.
+     *
+     * @param frontera los cuartos de la frontera.
+     * @param tamano   el número de cuartos de la frontera.
+     * @param ligeras  si se relajan las puertas ligeras o las pesadas.
+     * @param pool     el pool de hilos, o null.
+     * @return los cuartos cuya distancia mejoró.
+     */
+    private Enteros relajaFrontera(int[] frontera, int tamano, boolean ligeras, ForkJoinPool pool) {
+        if (pool == null || tamano <= UMBRAL)
+            return relaja(frontera, 0, tamano, ligeras);
+
+        return pool.invoke(new Relajacion(frontera, 0, tamano, ligeras));
+    }
+
+    /**
+     * Relaja las puertas de un intervalo de la frontera.
+     *
+     * @param frontera los cuartos de la frontera.
+     * @param desde    el primer cuarto del intervalo.
+     * @param hasta    el cuarto después del último del intervalo.
+     * @param ligeras  si se relajan las puertas ligeras o las pesadas.
+     * @return los cuartos cuya distancia mejoró.
+     */
+    private Enteros relaja(int[] frontera, int desde, int hasta, boolean ligeras) {
+        Enteros mejorados = new Enteros();
+
+        for (int i = desde; i < hasta; i++) {
+            int v = frontera[i];
+            int distancia = distancia(estados.get(v));
+            int fila = v / columnas;
+            int columna = v - fila * columnas;
+
+            for (int d = ESTE; d <= SUR; d++) {
+                int u = vecino(v, fila, columna, d);
+                if (u == -1)
+                    continue;
+
+                int peso = peso(v, u);
+                if ((peso <= delta) != ligeras)
+                    continue;
+
+                long nuevo = estado(distancia + peso, v);
+                long anterior = estados.get(u);
+                while (nuevo < anterior) {
+                    if (estados.compareAndSet(u, anterior, nuevo)) {
+                        /* si sólo cambió el padre, el cuarto ya está en su cubeta */
+                        if (distancia(nuevo) < distancia(anterior))
+                            mejorados.agrega(u);
+                        break;
+                    }
+                    anterior = estados.get(u);
+                }
+            }
+        }
+
+        return mejorados;
+    }
+
+    /**
+     * Mete a su cubeta a cada cuarto que mejoró.
+     *
+     * @param mejorados los cuartos que mejoraron.
+     * @return el número de cuartos que se metieron a las cubetas.
+     */
+    private int reparte(Enteros mejorados) {
+        for (int i = 0; i < mejorados.tamano; i++) {
+            int u = mejorados.elementos[i];
+            cubetas[(distancia(estados.get(u)) / delta) % cubetas.length].agrega(u);
+        }
+
+        return mejorados.tamano;
+    }
+
+    /**
+     * Reconstruye la trayectoria del inicio al final siguiendo a los padres
+     * desde el final.
+     *
+     * @param fin    el índice del cuarto final.
+     * @param inicio el índice del cuarto de inicio.
+     * @return los índices de los cuartos de la trayectoria, o un arreglo
+     *         vacío si no se alcanzó el final.
+     */
+    private int[] trayectoria(int fin, int inicio) {
+        if (estados.get(fin) == INFINITO)
+            return new int[0];
+
+        int longitud = 1;
+        for (int v = fin; v != inicio; v = padre(estados.get(v)))
+            longitud++;
+
+        int[] trayectoria = new int[longitud];
+        for (int v = fin; longitud > 0; v = padre(estados.get(v)))
+            trayectoria[--longitud] = v;
+
+        return trayectoria;
+    }
+
+    /**
+     * Junta una distancia y un padre en un entero largo.
+     *
+     * @param distancia la distancia.
+     * @param padre     el padre.
+     * @return el entero largo con ambos.
+     */
+    private static long estado(int distancia, int padre) {
+        return ((long) distancia << 32) | padre;
+    }
+
+    /**
+     * Regresa la distancia de un estado.
+     *
+     * @param estado el estado.
+     * @return la distancia.
+     */
+    private static int distancia(long estado) {
+        return (int) (estado >>> 32);
+    }
+
+    /**
+     * Regresa el padre de un estado.
+     *
+     * @param estado el estado.
+     * @return el padre.
+     */
+    private static int padre(long estado) {
+        return (int) estado;
+    }
+
+}
@@ -0,0 +1,168 @@
+package mx.unam.ciencias.edd.laberinto;
+
+/**
+ * Clase para resolver un laberinto con el algoritmo de Dial: el algoritmo de
+ * Dijkstra donde el montículo se cambia por cubetas indexadas por distancia.
+ * Como el puntaje de una puerta está entre 1 y 31, todas las distancias
+ * pendientes caben en un arreglo circular de 32 cubetas, y las distancias son
+ * enteras. El algoritmo termina en cuanto el cuarto final sale de su cubeta.
+ */
+public class ResolvedorDial extends ResolvedorCuadricula {
+
+    /* El número de cubetas; una más que el puntaje máximo de una puerta */
+    private static final int CUBETAS = 32;
+
+    /* Distancia de los cuartos que no se han alcanzado */
+    private static final int INFINITO = Integer.MAX_VALUE;
+
+    /* El primer cuarto de cada cubeta, o -1 si está vacía */
+    private int[] cubetas;
+
+    /* El siguiente cuarto en la misma cubeta */
+    private int[] siguientes;
+
+    /* El cuarto anterior en la misma cubeta */
+    private int[] anteriores;
+
+    /**
+     * Constructor.
+     *
+     * @param cuartos  los bytes de los cuartos del laberinto.
+     * @param filas    el número de filas del laberinto.
+     * @param columnas el número de columnas del laberinto.
+     */
+    public ResolvedorDial(byte[] cuartos, int filas, int columnas) {
+        super(cuartos, filas, columnas);
+    }
+
+    /**
+     * Calcula una trayectoria de peso mínimo entre dos cuartos con el
+     * algoritmo de Dial.
+     *
+     * @param inicio el índice del cuarto de inicio.
+     * @param fin    el índice del cuarto final.
+     * @return los índices de los cuartos de la trayectoria, del inicio al
+     *         final; si no se puede llegar del inicio al final, un arreglo
+     *         vacío.
+     */
+    @Override
+    public int[] resuelve(int inicio, int fin) {
+        int[] padres = nuevosPadres();
+        busca(inicio, fin, new int[cuartos.length], padres);
+        return trayectoria(padres, inicio, fin);
+    }
+
+    /**
+     * Calcula el árbol de trayectorias de peso mínimo de todos los cuartos
+     * hacia la raíz dada, con una sola búsqueda desde la raíz que no se
+     * detiene hasta alcanzar todos los cuartos que puede. Como las puertas
+     * pesan lo mismo en ambos sentidos, la trayectoria de la raíz a un cuarto
+     * al revés es una trayectoria de peso mínimo del cuarto a la raíz.
+     *
+     * @param raiz el índice del cuarto raíz, normalmente la salida.
+     * @return el árbol de trayectorias hacia la raíz.
+     */
+    public ArbolCaminos arbol(int raiz) {
+        int[] distancias = new int[cuartos.length];
+        int[] padres = nuevosPadres();
+        busca(raiz, -1, distancias, padres);
+        return new ArbolCaminos(filas, columnas, raiz, distancias, padres);
+    }
+
+    /**
+     * Recorre los cuartos en orden de distancia desde el inicio con el
+     * algoritmo de Dial, hasta sacar al cuarto final de su cubeta o hasta
+     * vaciar todas las cubetas.
+     *
+     * @param inicio     el índice del cuarto de inicio.
+     * @param fin        el índice del cuarto final, o -1 para recorrer todo.
+     * @param distancias donde se guarda la distancia de cada cuarto; los que
+     *                   no se alcanzan quedan con {@link Integer#MAX_VALUE}.
+     * @param padres     donde se guarda el padre de cada cuarto; todos deben
+     *                   empezar en -1.
+     */
+    private void busca(int inicio, int fin, int[] distancias, int[] padres) {
+        cubetas = new int[CUBETAS];
+        siguientes = new int[cuartos.length];
+        anteriores = new int[cuartos.length];
+
+        for (int i = 0; i < CUBETAS; i++)
+            cubetas[i] = -1;
+        for (int i = 0; i < distancias.length; i++)
+            distancias[i] = INFINITO;
+
+        distancias[inicio] = 0;
+        mete(inicio, 0);
+        int pendientes = 1;
+        int actual = 0;
+        expandidos = 0;
+
+        while (pendientes > 0) {
+            while (cubetas[actual % CUBETAS] == -1)
+                actual++;
+
+            int v = cubetas[actual % CUBETAS];
+            saca(v, actual);
+            pendientes--;
+            expandidos++;
+
+            if (v == fin)
+                break;
+
+            int fila = v / columnas;
+            int columna = v - fila * columnas;
+
+            for (int d = ESTE; d <= SUR; d++) {
+                int u = vecino(v, fila, columna, d);
+                if (u == -1)
+                    continue;
+
+                int distancia = actual + peso(v, u);
+                if (distancia < distancias[u]) {
+                    if (distancias[u] == INFINITO)
+                        pendientes++;
+                    else
+                        saca(u, distancias[u]);
+
+                    distancias[u] = distancia;
+                    padres[u] = v;
+                    mete(u, distancia);
+                }
+            }
+        }
+
+        cubetas = siguientes = anteriores = null;
+    }
+
+    /**
+     * Mete un cuarto al inicio de la cubeta de su distancia.
+     *
+     * @param cuarto    el índice del cuarto.
+     * @param distancia la distancia del cuarto.
+     */
+    private void mete(int cuarto, int distancia) {
+        int cubeta = distancia % CUBETAS;
+        siguientes[cuarto] = cubetas[cubeta];
+        anteriores[cuarto] = -1;
+        if (cubetas[cubeta] != -1)
+            anteriores[cubetas[cubeta]] = cuarto;
+        cubetas[cubeta] = cuarto;
+    }
+
+    /**
+     * Saca un cuarto de la cubeta de su distancia.
+     *
+     * @param cuarto    el índice del cuarto.
+     * @param distancia la distancia del cuarto.
+     */
+    private void saca(int cuarto, int distancia) {
+        if (anteriores[cuarto] == -1)
+            cubetas[distancia % CUBETAS] = siguientes[cuarto];
+        else
+            siguientes[anteriores[cuarto]] = siguientes[cuarto];
+
+        if (siguientes[cuarto] != -1)
+            anteriores[siguientes[cuarto]] = anteriores[cuarto];
+    }
+
+}
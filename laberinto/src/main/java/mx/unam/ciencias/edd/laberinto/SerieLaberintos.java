@@ -0,0 +1,236 @@
+package mx.unam.ciencias.edd.laberinto;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Clase para generar muchos laberintos con semillas consecutivas en una sola
+ * ejecución del programa. Los laberintos se reparten entre un número fijo de
+ * hilos, y el laberinto de cada semilla es el mismo que se obtiene generándolo
+ * solo con esa semilla. Cada laberinto se escribe en su propio archivo, o
+ * todos se escriben en orden en una misma salida, cada uno precedido por su
+ * longitud en bytes.
+ */
+public class SerieLaberintos {
+
+    /* El número de laberintos que se generan por adelantado por cada hilo */
+    private static final int ADELANTO = 2;
+
+    /* El número de filas de los laberintos */
+    private int filas;
+
+    /* El número de columnas de los laberintos */
+    private int columnas;
+
+    /* La semilla del primer laberinto */
+    private int semilla;
+
+    /* El número de laberintos */
+    private int cantidad;
+
+    /* El algoritmo con el que se generan los laberintos */
+    private AlgoritmoGenerador algoritmo;
+
+    /* El generador de números aleatorios de los laberintos */
+    private AlgoritmoAleatorio aleatorio;
+
+    /* El formato con el que se escriben los laberintos */
+    private FormatoLaberinto formato;
+
+    /* El número de hilos con los que se generan los laberintos */
+    private int hilos;
+
+    /**
+     * Constructor.
+     * 
+     * @param filas     el número de filas de los laberintos.
+     * @param columnas  el número de columnas de los laberintos.
+     * @param semilla   la semilla del primer laberinto; los demás usan las
+     *                  semillas siguientes.
+     * @param cantidad  el número de laberintos.
+     * @param algoritmo el algoritmo con el que se generan los laberintos.
+     * @param aleatorio el generador de números aleatorios de los laberintos.
+     * @param formato   el formato con el que se escriben los laberintos.
+     * @param hilos     el número de hilos con los que se generan.
+     */
+    public SerieLaberintos(int filas, int columnas, int semilla, int cantidad, AlgoritmoGenerador algoritmo,
+            AlgoritmoAleatorio aleatorio, FormatoLaberinto formato, int hilos) {
+        this.filas = filas;
+        this.columnas = columnas;
+        this.semilla = semilla;
+        this.cantidad = cantidad;
+        this.algoritmo = algoritmo;
+        this.aleatorio = aleatorio;
+        this.formato = formato;
+        this.hilos = hilos;
+    }
+
+    /**
+     * Escribe cada laberinto en el directorio dado, en el archivo
+     * <code>laberinto-&lt;semilla&gt;.mze</code>, e imprime un resumen con el
+     * número de laberintos por segundo.
+     * 
+     * @param directorio el directorio donde se escriben los laberintos.
+     * @throws IOException en caso de que no se pueda crear el directorio o
+     *                     escribir algún laberinto.
+     */
+    public void escribeDirectorio(Path directorio) throws IOException {
+        Files.createDirectories(directorio);
+
+        long inicio = System.nanoTime();
+
+        genera(k -> {
+            Path archivo = directorio.resolve("laberinto-" + (semilla + k) + ".mze");
+            try (OutputStream salida = new BufferedOutputStream(Files.newOutputStream(archivo))) {
+                escribe(k, salida);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        }, null);
+
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        System.out.printf("Se generaron %d laberintos en %.2f s (%.1f laberintos/s) con %d hilos%n",
+                cantidad, segundos, cantidad / segundos, hilos);
+    }
+
+    /**
+     * Escribe todos los laberintos en la salida dada, en el orden de sus
+     * semillas; antes de cada laberinto se escribe su longitud en bytes como
+     * un entero de 4 bytes en big-endian.
+     * 
+     * @param salida la salida donde se escriben los laberintos.
+     * @throws IOException en caso de que haya un error escribiendo en la
+     *                     salida.
+     */
+    public void escribeFlujo(OutputStream salida) throws IOException {
+        genera(k -> {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try {
+                escribe(k, bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return bytes.toByteArray();
+        }, salida);
+
+        salida.flush();
+    }
+
+    /**
+     * Genera el laberinto con la semilla <code>semilla + k</code> y lo
+     * escribe en la salida dada.
+     * 
+     * @param k      el número del laberinto en la serie.
+     * @param salida la salida donde se escribe el laberinto.
+     * @throws IOException en caso de que haya un error escribiendo en la
+     *                     salida.
+     */
+    private void escribe(int k, OutputStream salida) throws IOException {
+        if (algoritmo == AlgoritmoGenerador.ELLER) {
+            new LaberintoEller(filas, columnas, true, semilla + k, aleatorio).escribeLaberinto(salida, formato);
+            return;
+        }
+
+        LaberintoRandom lab = new LaberintoRandom(filas, columnas, true, semilla + k, algoritmo, aleatorio);
+
+        /* los laberintos ya se reparten entre los hilos */
+        lab.setHilos(1);
+        lab.creaLaberinto();
+
+        new LaberintoABytes(lab, formato).escribeLaberinto(salida);
+    }
+
+    /**
+     * Interfaz para la tarea de generar el laberinto número <i>k</i> de la
+     * serie.
+     */
+    @FunctionalInterface
+    private interface Tarea {
+
+        /**
+         * Genera el laberinto número <i>k</i> de la serie.
+         * 
+         * @param k el número del laberinto.
+         * @return los bytes que hay que escribir en la salida, o
+         *         <code>null</code> si no hay que escribir nada.
+         */
+        public byte[] genera(int k);
+    }
+
+    /**
+     * Ejecuta la tarea para cada laberinto de la serie en el grupo de hilos;
+     * se mantienen a lo más {@link #ADELANTO} tareas por hilo pendientes, y
+     * los resultados se escriben en la salida en el orden de la serie.
+     * 
+     * @param tarea  la tarea para cada laberinto.
+     * @param salida la salida donde se escriben los resultados, o
+     *               <code>null</code>.
+     * @throws IOException en caso de que alguna tarea o la salida fallen.
+     */
+    private void genera(Tarea tarea, OutputStream salida) throws IOException {
+        ExecutorService trabajadores = Executors.newFixedThreadPool(hilos);
+        ArrayDeque<Future<byte[]>> pendientes = new ArrayDeque<>();
+
+        try {
+            int siguiente = 0;
+
+            while (siguiente < cantidad && pendientes.size() < ADELANTO * hilos) {
+                int k = siguiente++;
+                pendientes.add(trabajadores.submit(() -> tarea.genera(k)));
+            }
+
+            while (!pendientes.isEmpty()) {
+                byte[] bytes = espera(pendientes.poll());
+
+                if (salida != null) {
+                    salida.write(bytes.length >>> 24);
+                    salida.write(bytes.length >>> 16);
+                    salida.write(bytes.length >>> 8);
+                    salida.write(bytes.length);
+                    salida.write(bytes);
+                }
+
+                if (siguiente < cantidad) {
+                    int k = siguiente++;
+                    pendientes.add(trabajadores.submit(() -> tarea.genera(k)));
+                }
+            }
+        } finally {
+            trabajadores.shutdownNow();
+        }
+    }
+
+    /**
+     * Espera a que termine una tarea y regresa su resultado.
+     * 
+     * @param tarea la tarea.
+     * @return el resultado de la tarea.
+     * @throws IOException si la tarea falló al escribir.
+     */
+    private byte[] espera(Future<byte[]> tarea) throws IOException {
+        try {
+            return tarea.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("La generacion fue interrumpida");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException)
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+}
@@ -9,12 +9,20 @@ import java.io.IOException;
  */
 public class VerificaFormatoArchivo {
 
+    /* el número de bytes que se intenta leer de un jalón */
+    private static final int TAMANO_BLOQUE = 1 << 16;
+
     /* la entrada estandar de donde leer */
     InputStream entrada;
 
     /*
      * los bytes del archivo que representan los
-     * cuartos del laberinto
+     * cuartos del laberinto, renglón por renglón
+     */
+    byte[] cuartos;
+
+    /*
+     * los mismos bytes puestos en una matriz; sólo se crea si alguien la pide
      */
     byte[][] valores;
 
@@ -24,6 +32,9 @@ public class VerificaFormatoArchivo {
     /* numero de columnas del laberinto */
     int columnas;
 
+    /* el formato del archivo */
+    FormatoLaberinto formato;
+
     /**
      * Constructor.
      * 
@@ -34,9 +45,9 @@ public class VerificaFormatoArchivo {
 
         entrada = in;
 
-        revisaPrimerosSeisBytes(entrada);
+        revisaCabecera(entrada);
 
-        valores = new byte[filas][columnas];
+        cuartos = new byte[filas * columnas];
 
         /* se guardan en el arreglo los bytes restantes del archivo */
         leeBytesLaberinto();
@@ -44,86 +55,142 @@ public class VerificaFormatoArchivo {
 
     /**
      * Lee los bytes de la entrada estandar correspondientes a los cuartos
-     * del laberitno, y los almecena en una matriz.
+     * del laberitno, y los almecena en el arreglo de cuartos. Se leen bloques
+     * de renglones completos directamente al arreglo, en lugar de un byte a
+     * la vez.
      * 
      * @throws IOException en caso de que haya un error leyendo de la
      *                     entrada estandar.
+     * @throws ExcepcionFormatoCuartosInvalido si el archivo termina antes de
+     *                                         tener todos los cuartos.
      */
     private void leeBytesLaberinto() throws IOException {
 
-        /* arreglo para leer solo un byte de la entrada estandar */
-        byte[] aux = new byte[1];
+        /* cuántos renglones completos caben en un bloque */
+        int renglones = Math.max(1, TAMANO_BLOQUE / columnas);
+
+        for (int f = 0; f < filas; f += renglones) {
+            int inicio = f * columnas;
+            int longitud = Math.min(renglones, filas - f) * columnas;
+            int leidos = entrada.readNBytes(cuartos, inicio, longitud);
 
-        for (int k = 0; k < filas; k++) {
-            for (int h = 0; h < columnas; h++) {
-                entrada.read(aux);
-                valores[k][h] = aux[0];
-            }
+            if (leidos < longitud)
+                throw new ExcepcionFormatoCuartosInvalido("El formato del archivo es invalido" +
+                        ", pues termina despues de " + (inicio + leidos) + " de los " +
+                        cuartos.length + " cuartos del laberinto");
         }
 
     }
 
     /**
-     * Verifica que los primeros cuatro bytes del archivo correspondan a los
-     * especificados en las reglas del proyecto.
+     * Lee exactamente el número de bytes del arreglo de la entrada estandar.
+     * 
+     * @param bytes el arreglo donde se guardan los bytes.
+     * @throws IOException en caso de que haya un error leyendo de la
+     *                     entrada estandar.
+     * @throws ExcepcionFormatoCuartosInvalido si el archivo termina antes.
+     */
+    private void leeCabecera(byte[] bytes) throws IOException {
+        if (entrada.readNBytes(bytes, 0, bytes.length) < bytes.length)
+            throw new ExcepcionFormatoCuartosInvalido("El formato del archivo es invalido" +
+                    ", pues termina antes de la cabecera del laberinto");
+    }
+
+    /**
+     * Verifica que la cabecera del archivo (los bytes que identifican al
+     * formato, y las filas y columnas) corresponda a las reglas del proyecto.
      * 
      * @param entrada la entrada estandar.
      * @throws IOException en caso de que haya un error leyendo de la entrada
      *                     estandar.
      */
-    private void revisaPrimerosSeisBytes(InputStream entrada) throws IOException {
+    private void revisaCabecera(InputStream entrada) throws IOException {
 
-        /* crea un arreglo con los primeros 6 bytes del flujo */
-        byte[] primerosBytes = new byte[6];
+        /* crea un arreglo con los primeros 4 bytes del flujo */
+        byte[] primerosBytes = new byte[4];
 
         revisaArchivoMze(primerosBytes);
 
-        revisaFilasColumnas(primerosBytes);
+        revisaFilasColumnas();
     }
 
     /**
      * Verifica que los primeros 4 bytes del archivo correspondan a la
-     * palabra MAZE.
+     * palabra MAZE, o a MAZ2 para el formato extendido.
      * 
-     * @param primerosBytes los primeros 6 bytes del archivo.
+     * @param primerosBytes arreglo para los primeros 4 bytes del archivo.
      * @throws IOException en caso de error al leer de la entrada estandar.
      */
     private void revisaArchivoMze(byte[] primerosBytes) throws IOException {
 
-        entrada.read(primerosBytes);
+        leeCabecera(primerosBytes);
+
+        formato = FormatoLaberinto.deMagia(primerosBytes);
 
-        if (primerosBytes[0] != 0x4d ||
-                primerosBytes[1] != 0x41 ||
-                primerosBytes[2] != 0x5a ||
-                primerosBytes[3] != 0x45) {
+        if (formato == null) {
             throw new IndexOutOfBoundsException("Los primeros 4 bytes del archivo" +
                     " no coresponden a 0x4d 0x41 0x5a 0x45");
         }
     }
 
     /**
-     * Revisa que las filas y columnas (correspondientes a los byte 4 y byte 5
-     * respectivamente) estén dentro del rango permitido para generar un
-     * laberinto.
+     * Lee las filas y columnas del laberinto y revisa que estén dentro del
+     * rango permitido. En el formato MAZE son los bytes 4 y 5; en el formato
+     * MAZ2 el byte 4 dice cuántos bytes ocupa cada una (2 o 4), y siguen las
+     * filas y las columnas en big-endian.
      * 
-     * @param primerosBytes los primeros 6 bytes del archivo.
+     * @throws IOException en caso de error al leer de la entrada estandar.
      */
-    private void revisaFilasColumnas(byte[] primerosBytes) {
-        /*
-         * Se le aplica una mascara al valor para evitar problmas
-         * con el complemento a 2 en caso de que el valor sea negativo
-         */
-        filas = primerosBytes[4] & (0xFF);
+    private void revisaFilasColumnas() throws IOException {
+        int ancho = 1;
+
+        if (formato == FormatoLaberinto.MAZ2) {
+            byte[] aux = new byte[1];
+            leeCabecera(aux);
+            ancho = aux[0];
+            if (ancho != 2 && ancho != 4)
+                throw new IndexOutOfBoundsException("En el formato MAZ2 las filas y columnas" +
+                        " deben ocupar 2 o 4 bytes");
+        }
+
+        byte[] dimensiones = new byte[2 * ancho];
+        leeCabecera(dimensiones);
+
+        filas = leeEntero(dimensiones, 0, ancho);
 
         if (filas < 2)
             throw new IndexOutOfBoundsException("El valor minimo para las columnas del" +
                     " labetinto es de 2");
 
-        columnas = primerosBytes[5] & (0xFF);
+        columnas = leeEntero(dimensiones, ancho, ancho);
 
         if (columnas < 2)
             throw new IndexOutOfBoundsException("El valor minimo para los renglones del" +
                     " labetinto es de 2");
+
+        if ((long) filas * columnas > FormatoLaberinto.MAXIMO_CUARTOS)
+            throw new IndexOutOfBoundsException("El laberinto no puede tener mas de " +
+                    FormatoLaberinto.MAXIMO_CUARTOS + " cuartos");
+    }
+
+    /**
+     * Lee un entero sin signo en big-endian de un arreglo de bytes.
+     * 
+     * @param bytes  el arreglo de bytes.
+     * @param inicio la posición del primer byte del entero.
+     * @param ancho  el número de bytes del entero.
+     * @return el entero leído; si no cabe en un int, un número negativo.
+     */
+    private int leeEntero(byte[] bytes, int inicio, int ancho) {
+        /*
+         * Se le aplica una mascara a cada byte para evitar problmas
+         * con el complemento a 2 en caso de que el valor sea negativo
+         */
+        int valor = 0;
+        for (int i = inicio; i < inicio + ancho; i++)
+            valor = (valor << 8) | (bytes[i] & 0xFF);
+
+        return valor;
     }
 
     /**
@@ -133,9 +200,25 @@ public class VerificaFormatoArchivo {
      * @return los cuartos del laberinto.
      */
     public byte[][] getValoresLaberinto() {
+        if (valores == null) {
+            valores = new byte[filas][columnas];
+            for (int f = 0; f < filas; f++)
+                System.arraycopy(cuartos, f * columnas, valores[f], 0, columnas);
+        }
+
         return valores;
     }
 
+    /**
+     * Regresa los bytes de los cuartos del laberinto, renglón por renglón,
+     * tal y como vienen en el archivo.
+     * 
+     * @return el arreglo con un byte por cuarto.
+     */
+    public byte[] getCuartos() {
+        return cuartos;
+    }
+
     /**
      * Regresa el número de filas del laberinto.
      * 
@@ -145,6 +228,15 @@ public class VerificaFormatoArchivo {
         return filas;
     }
 
+    /**
+     * Regresa el formato del archivo.
+     * 
+     * @return el formato con el que se leyó el laberinto.
+     */
+    public FormatoLaberinto getFormato() {
+        return formato;
+    }
+
     /**
      * Regresa el número de columnas del laberinto.
      * 
@@ -0,0 +1,200 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de {@link Grafica#dijkstraBidireccional},
+ * comparándolo con {@link Grafica#dijkstra}.
+ */
+public class TestGraficaBidireccional {
+
+    /** Expiración para que ninguna prueba tarde más de 10 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(10);
+
+    /* Generador de números aleatorios. */
+    private Random random = new Random(5);
+
+    /**
+     * Prueba que en gráficas con ciclos y pesos enteros la trayectoria de
+     * las dos búsquedas tenga exactamente el mismo peso que la de dijkstra.
+     */
+    @Test public void testPesosEnteros() {
+        for (int i = 0; i < 300; i++) {
+            int n = 2 + random.nextInt(60);
+            Grafica<Integer> grafica = creaGrafica(n, true);
+            for (int j = 0; j < 5; j++)
+                compara(grafica, random.nextInt(n), random.nextInt(n), 0);
+        }
+    }
+
+    /**
+     * Prueba que en gráficas con ciclos y pesos reales la trayectoria de las
+     * dos búsquedas tenga el mismo peso que la de dijkstra, salvo redondeo.
+     */
+    @Test public void testPesosReales() {
+        for (int i = 0; i < 300; i++) {
+            int n = 2 + random.nextInt(60);
+            Grafica<Integer> grafica = creaGrafica(n, false);
+            for (int j = 0; j < 5; j++)
+                compara(grafica, random.nextInt(n), random.nextInt(n), 1e-9);
+        }
+    }
+
+    /**
+     * Prueba que en cuadrículas con pesos de 1 y 2, donde casi todas las
+     * trayectorias empatan con otras, la trayectoria sea siempre la misma
+     * que la de dijkstra, sin importar qué tan lejos llegue cada hilo.
+     */
+    @Test public void testEmpates() {
+        for (int i = 0; i < 10; i++) {
+            int lado = 3 + random.nextInt(10);
+            Grafica<Integer> grafica = creaCuadricula(lado);
+            int origen = random.nextInt(lado * lado), destino = random.nextInt(lado * lado);
+            Object[] esperada = elementos(grafica.dijkstra(origen, destino));
+            for (int j = 0; j < 100; j++)
+                Assert.assertArrayEquals(esperada,
+                                         elementos(grafica.dijkstraBidireccional(origen, destino)));
+        }
+    }
+
+    /**
+     * Prueba que si el origen es el destino la trayectoria sólo tenga al
+     * vértice.
+     */
+    @Test public void testOrigenDestino() {
+        Grafica<Integer> grafica = creaGrafica(10, true);
+        for (int v = 0; v < 10; v++) {
+            Lista<VerticeGrafica<Integer>> trayectoria = grafica.dijkstraBidireccional(v, v);
+            Assert.assertEquals(1, trayectoria.getLongitud());
+            Assert.assertEquals(Integer.valueOf(v), trayectoria.get(0).get());
+        }
+    }
+
+    /**
+     * Prueba que entre vértices de componentes conexas distintas la
+     * trayectoria sea vacía, y que dentro de cada componente se encuentre
+     * la de peso mínimo.
+     */
+    @Test public void testDesconectada() {
+        Grafica<Integer> grafica = new Grafica<>();
+        for (int v = 0; v < 20; v++)
+            grafica.agrega(v);
+        for (int v = 0; v < 10; v++) {
+            grafica.conecta(v, (v + 1) % 10, 1 + random.nextInt(9));
+            grafica.conecta(10 + v, 10 + (v + 1) % 10, 1 + random.nextInt(9));
+        }
+
+        for (int i = 0; i < 10; i++) {
+            int a = random.nextInt(10), b = 10 + random.nextInt(10);
+            Assert.assertTrue(grafica.dijkstraBidireccional(a, b).esVacia());
+            Assert.assertTrue(grafica.dijkstraBidireccional(b, a).esVacia());
+            compara(grafica, a, random.nextInt(10), 0);
+            compara(grafica, b, 10 + random.nextInt(10), 0);
+        }
+
+        grafica.agrega(20);
+        Assert.assertTrue(grafica.dijkstraBidireccional(0, 20).esVacia());
+    }
+
+    /**
+     * Prueba que no se pueda buscar una trayectoria desde un elemento que
+     * no está en la gráfica.
+     */
+    @Test(expected=NoSuchElementException.class) public void testElementoInexistente() {
+        creaGrafica(5, true).dijkstraBidireccional(0, 5);
+    }
+
+    /*
+     * Crea una gráfica conexa con n vértices: un árbol aleatorio más
+     * aristas extra que cierran ciclos, con pesos enteros de 1 a 31 o reales
+     * de 0.1 a 10.
+     */
+    private Grafica<Integer> creaGrafica(int n, boolean enteros) {
+        Grafica<Integer> grafica = new Grafica<>();
+        for (int v = 0; v < n; v++)
+            grafica.agrega(v);
+
+        for (int v = 1; v < n; v++)
+            grafica.conecta(v, random.nextInt(v), peso(enteros));
+
+        int extra = random.nextInt(2 * n);
+        for (int i = 0; i < extra; i++) {
+            int a = random.nextInt(n), b = random.nextInt(n);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b, peso(enteros));
+        }
+
+        return grafica;
+    }
+
+    /* Crea una cuadrícula de lado por lado con pesos de 1 o 2. */
+    private Grafica<Integer> creaCuadricula(int lado) {
+        Grafica<Integer> grafica = new Grafica<>();
+        for (int v = 0; v < lado * lado; v++)
+            grafica.agrega(v);
+
+        for (int v = 0; v < lado * lado; v++) {
+            if (v % lado + 1 < lado)
+                grafica.conecta(v, v + 1, 1 + random.nextInt(2));
+            if (v + lado < lado * lado)
+                grafica.conecta(v, v + lado, 1 + random.nextInt(2));
+        }
+
+        return grafica;
+    }
+
+    /* Regresa un peso aleatorio. */
+    private double peso(boolean enteros) {
+        return enteros ? 1 + random.nextInt(31) : 0.1 + random.nextDouble() * 9.9;
+    }
+
+    /*
+     * Verifica que la trayectoria de las dos búsquedas vaya del origen al
+     * destino por aristas de la gráfica y pese lo mismo que la de dijkstra;
+     * con pesos enteros debe ser la misma trayectoria.
+     */
+    private static void compara(Grafica<Integer> grafica, int origen, int destino,
+                                double tolerancia) {
+        Lista<VerticeGrafica<Integer>> esperada = grafica.dijkstra(origen, destino);
+        Lista<VerticeGrafica<Integer>> trayectoria = grafica.dijkstraBidireccional(origen, destino);
+
+        Assert.assertEquals(esperada.esVacia(), trayectoria.esVacia());
+        if (trayectoria.esVacia())
+            return;
+
+        Assert.assertEquals(Integer.valueOf(origen), trayectoria.getPrimero().get());
+        Assert.assertEquals(Integer.valueOf(destino), trayectoria.getUltimo().get());
+        Assert.assertEquals(peso(grafica, esperada), peso(grafica, trayectoria), tolerancia);
+        if (tolerancia == 0)
+            Assert.assertArrayEquals(elementos(esperada), elementos(trayectoria));
+    }
+
+    /* Regresa los elementos de una trayectoria. */
+    private static Object[] elementos(Lista<VerticeGrafica<Integer>> trayectoria) {
+        Object[] elementos = new Object[trayectoria.getLongitud()];
+        int i = 0;
+        for (VerticeGrafica<Integer> vertice : trayectoria)
+            elementos[i++] = vertice.get();
+        return elementos;
+    }
+
+    /* Regresa el peso de una trayectoria, verificando sus aristas. */
+    private static double peso(Grafica<Integer> grafica, Lista<VerticeGrafica<Integer>> trayectoria) {
+        double peso = 0;
+        Integer anterior = null;
+        for (VerticeGrafica<Integer> vertice : trayectoria) {
+            if (anterior != null) {
+                Assert.assertTrue(grafica.sonVecinos(anterior, vertice.get()));
+                peso += grafica.getPeso(anterior, vertice.get());
+            }
+            anterior = vertice.get();
+        }
+        return peso;
+    }
+}
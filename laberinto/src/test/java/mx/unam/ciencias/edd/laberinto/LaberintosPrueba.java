@@ -0,0 +1,73 @@
+package mx.unam.ciencias.edd.laberinto;
+
+import java.util.Random;
+
+/**
+ * Laberintos para las pruebas: laberintos generados, que son árboles, a los
+ * que se les abren paredes interiores al azar para que tengan ciclos y más
+ * de una trayectoria entre dos cuartos.
+ */
+final class LaberintosPrueba {
+
+    /* No se crean instancias. */
+    private LaberintosPrueba() {
+    }
+
+    /**
+     * Genera un laberinto con la semilla dada.
+     *
+     * @param filas    el número de filas.
+     * @param columnas el número de columnas.
+     * @param semilla  la semilla del generador.
+     * @return el laberinto generado.
+     */
+    static LaberintoRandom genera(int filas, int columnas, int semilla) {
+        LaberintoRandom generado = new LaberintoRandom(filas, columnas, true, semilla);
+        generado.creaLaberinto();
+        return generado;
+    }
+
+    /**
+     * Regresa una copia de los cuartos de un laberinto generado con una de
+     * cada <code>unaDe</code> paredes interiores abierta.
+     *
+     * @param generado el laberinto generado.
+     * @param random   el generador con el que se eligen las paredes.
+     * @param unaDe    cada cuántas paredes interiores se abre una.
+     * @return los cuartos con las paredes abiertas.
+     */
+    static byte[] trenza(LaberintoRandom generado, Random random, int unaDe) {
+        int filas = generado.getFilas();
+        int columnas = generado.getColumnas();
+        byte[] cuartos = generado.getBytesCuartos().clone();
+
+        for (int fila = 0; fila < filas; fila++)
+            for (int columna = 0; columna < columnas; columna++) {
+                int cuarto = fila * columnas + columna;
+                if (columna + 1 < columnas && random.nextInt(unaDe) == 0) {
+                    cuartos[cuarto] &= ~1;
+                    cuartos[cuarto + 1] &= ~4;
+                }
+                if (fila + 1 < filas && random.nextInt(unaDe) == 0) {
+                    cuartos[cuarto] &= ~8;
+                    cuartos[cuarto + columnas] &= ~2;
+                }
+            }
+
+        return cuartos;
+    }
+
+    /**
+     * Regresa el puntaje de una trayectoria.
+     *
+     * @param resolvedor el resolvedor con los cuartos del laberinto.
+     * @param trayectoria los índices de los cuartos de la trayectoria.
+     * @return la suma de los puntajes de las puertas de la trayectoria.
+     */
+    static long puntaje(ResolvedorCuadricula resolvedor, int[] trayectoria) {
+        long puntaje = 0;
+        for (int i = 1; i < trayectoria.length; i++)
+            puntaje += resolvedor.peso(trayectoria[i - 1], trayectoria[i]);
+        return puntaje;
+    }
+}
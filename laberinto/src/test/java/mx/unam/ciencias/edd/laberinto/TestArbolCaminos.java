@@ -0,0 +1,185 @@
+package mx.unam.ciencias.edd.laberinto;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link ArbolCaminos}.
+ */
+public class TestArbolCaminos {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Número de filas del laberinto. */
+    private static final int FILAS = 20;
+    /* Número de columnas del laberinto. */
+    private static final int COLUMNAS = 30;
+    /* Tamaño del encabezado del formato: la magia, filas, columnas y raíz. */
+    private static final int ENCABEZADO = 16;
+
+    /* El cuarto al que se le cierran todas las puertas. */
+    private int aislado;
+    /* El árbol de trayectorias. */
+    private ArbolCaminos arbol;
+    /* Los bytes del árbol escrito. */
+    private byte[] bytes;
+
+    /**
+     * Crea un árbol de trayectorias sobre un laberinto con ciclos y con un
+     * cuarto al que no se puede llegar, y lo escribe.
+     *
+     * @throws IOException si hay un error al escribir el árbol.
+     */
+    @Before public void creaArbol() throws IOException {
+        LaberintoRandom generado = LaberintosPrueba.genera(FILAS, COLUMNAS, 19);
+        byte[] cuartos = LaberintosPrueba.trenza(generado, new Random(19), 5);
+
+        aislado = 5 * COLUMNAS + 5;
+        cuartos[aislado] |= 15;
+        cuartos[aislado + 1] |= 4;
+        cuartos[aislado - 1] |= 1;
+        cuartos[aislado - COLUMNAS] |= 8;
+        cuartos[aislado + COLUMNAS] |= 2;
+
+        ResolvedorDial dial = new ResolvedorDial(cuartos, FILAS, COLUMNAS);
+        arbol = dial.arbol(generado.getFinalLab().getIndice());
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        arbol.escribe(salida);
+        bytes = salida.toByteArray();
+    }
+
+    /**
+     * Prueba que al leer un árbol escrito se obtenga el mismo árbol.
+     *
+     * @throws IOException si hay un error al leer el árbol.
+     */
+    @Test public void testEscribeLee() throws IOException {
+        Assert.assertEquals(ENCABEZADO + 4 * FILAS * COLUMNAS + (FILAS * COLUMNAS + 3) / 4,
+                            bytes.length);
+
+        ArbolCaminos leido = lee(bytes);
+        Assert.assertEquals(arbol.getFilas(), leido.getFilas());
+        Assert.assertEquals(arbol.getColumnas(), leido.getColumnas());
+        Assert.assertEquals(arbol.getRaiz(), leido.getRaiz());
+        Assert.assertEquals(-1, leido.getDistancia(aislado));
+        Assert.assertEquals(0, leido.trayectoria(aislado).length);
+
+        for (int v = 0; v < FILAS * COLUMNAS; v++) {
+            Assert.assertEquals(arbol.getDistancia(v), leido.getDistancia(v));
+            Assert.assertEquals(arbol.getDireccion(v), leido.getDireccion(v));
+            Assert.assertEquals(arbol.siguiente(v), leido.siguiente(v));
+            Assert.assertArrayEquals(arbol.trayectoria(v), leido.trayectoria(v));
+        }
+    }
+
+    /**
+     * Prueba que no se pueda leer una entrada que no empieza con la palabra
+     * del formato.
+     *
+     * @throws IOException si la entrada no es un árbol.
+     */
+    @Test(expected=IOException.class) public void testLeeMagia() throws IOException {
+        bytes[0] = 'X';
+        lee(bytes);
+    }
+
+    /**
+     * Prueba que no se pueda leer un árbol incompleto.
+     *
+     * @throws IOException si el árbol está incompleto.
+     */
+    @Test(expected=IOException.class) public void testLeeIncompleto() throws IOException {
+        lee(java.util.Arrays.copyOf(bytes, bytes.length - 1));
+    }
+
+    /**
+     * Prueba que no se pueda leer un árbol cuya raíz no tiene distancia 0.
+     *
+     * @throws IOException si la raíz no tiene distancia 0.
+     */
+    @Test(expected=IOException.class) public void testLeeRaiz() throws IOException {
+        escribeDistancia(arbol.getRaiz(), 1);
+        lee(bytes);
+    }
+
+    /**
+     * Prueba que no se pueda leer un árbol con una dirección que sale del
+     * laberinto, ni hacia el norte desde la primera fila ni hacia el este
+     * desde la última columna.
+     */
+    @Test public void testLeeFrontera() {
+        int norte = arbol.getRaiz() == 1 ? 2 : 1;
+        int este = arbol.getRaiz() == 2 * COLUMNAS - 1 ? 3 * COLUMNAS - 1 : 2 * COLUMNAS - 1;
+        int[][] casos = { { norte, 1 }, { este, 0 } };
+
+        for (int[] caso : casos) {
+            byte[] copia = bytes.clone();
+            escribeDireccion(copia, caso[0], caso[1]);
+            try {
+                lee(copia);
+                Assert.fail();
+            } catch (IOException e) {}
+        }
+    }
+
+    /**
+     * Prueba que no se pueda leer un árbol con dos cuartos que se señalan
+     * uno al otro, en el que seguir las direcciones no termina.
+     *
+     * @throws IOException si las direcciones forman un ciclo.
+     */
+    @Test(expected=IOException.class) public void testLeeCiclo() throws IOException {
+        int v = 0;
+        while (v == arbol.getRaiz() || v + 1 == arbol.getRaiz()
+               || arbol.getDistancia(v) == -1 || arbol.getDistancia(v + 1) == -1)
+            v++;
+
+        escribeDistancia(v, 10);
+        escribeDistancia(v + 1, 10);
+        escribeDireccion(bytes, v, 0);
+        escribeDireccion(bytes, v + 1, 2);
+        lee(bytes);
+    }
+
+    /**
+     * Prueba que no se pueda leer un árbol con una dirección hacia un cuarto
+     * al que no se puede llegar.
+     *
+     * @throws IOException si la dirección lleva a un cuarto inalcanzable.
+     */
+    @Test(expected=IOException.class) public void testLeeInalcanzable() throws IOException {
+        escribeDireccion(bytes, aislado + 1, 2);
+        lee(bytes);
+    }
+
+    /* Lee un árbol de los bytes. */
+    private static ArbolCaminos lee(byte[] bytes) throws IOException {
+        return ArbolCaminos.lee(new ByteArrayInputStream(bytes));
+    }
+
+    /* Escribe la distancia de un cuarto en los bytes del árbol. */
+    private void escribeDistancia(int cuarto, int distancia) {
+        int i = ENCABEZADO + 4 * cuarto;
+        bytes[i] = (byte)(distancia >>> 24);
+        bytes[i + 1] = (byte)(distancia >>> 16);
+        bytes[i + 2] = (byte)(distancia >>> 8);
+        bytes[i + 3] = (byte)distancia;
+    }
+
+    /* Escribe los bits de la dirección de un cuarto en los bytes dados. */
+    private static void escribeDireccion(byte[] bytes, int cuarto, int direccion) {
+        int i = ENCABEZADO + 4 * FILAS * COLUMNAS + (cuarto >>> 2);
+        int corrimiento = 2 * (cuarto & 3);
+        bytes[i] = (byte)((bytes[i] & ~(3 << corrimiento)) | (direccion << corrimiento));
+    }
+}
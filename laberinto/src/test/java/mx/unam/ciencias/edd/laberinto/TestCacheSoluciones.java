@@ -0,0 +1,161 @@
+package mx.unam.ciencias.edd.laberinto;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link CacheSoluciones}, sobre
+ * todo de que un archivo dañado de la caché en disco se trate como si no
+ * estuviera.
+ */
+public class TestCacheSoluciones {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+    /** Directorio temporal para la caché en disco. */
+    @Rule public TemporaryFolder temporal = new TemporaryFolder();
+
+    /* Número de filas del laberinto. */
+    private static final int FILAS = 15;
+    /* Número de columnas del laberinto. */
+    private static final int COLUMNAS = 20;
+    /* Tamaño máximo de la caché, en memoria y en disco. */
+    private static final long MAXIMO = 1 << 20;
+    /* El algoritmo con el que se resuelve. */
+    private static final AlgoritmoResolvedor ALGORITMO = AlgoritmoResolvedor.DIJKSTRA;
+
+    /* Los cuartos del laberinto. */
+    private byte[] cuartos;
+    /* La solución del laberinto, calculada sin caché. */
+    private int[] solucion;
+    /* El directorio de la caché. */
+    private Path directorio;
+    /* La llave del laberinto. */
+    private String llave;
+
+    /**
+     * Genera el laberinto, lo resuelve sin caché y calcula su llave.
+     *
+     * @throws IOException si no se puede crear el directorio de la caché.
+     */
+    @Before public void creaLaberinto() throws IOException {
+        cuartos = LaberintosPrueba.genera(FILAS, COLUMNAS, 21).getBytesCuartos().clone();
+        Laberinto laberinto = new Laberinto(cuartos.clone(), FILAS, COLUMNAS, ALGORITMO);
+        laberinto.creaLaberinto();
+        solucion = laberinto.getTrayectoria();
+
+        directorio = temporal.newFolder().toPath();
+        llave = cache().llave(cuartos, FILAS, COLUMNAS, ALGORITMO);
+    }
+
+    /**
+     * Prueba que una solución guardada se encuentre igual, en memoria y
+     * desde el disco con otra caché.
+     *
+     * @throws IOException si no se puede usar la caché en disco.
+     */
+    @Test public void testGuardaBusca() throws IOException {
+        CacheSoluciones cache = cache();
+        cache.guarda(llave, COLUMNAS, solucion);
+        Assert.assertArrayEquals(solucion, cache.busca(llave, cuartos, FILAS, COLUMNAS));
+        Assert.assertArrayEquals(solucion, cache().busca(llave, cuartos, FILAS, COLUMNAS));
+    }
+
+    /**
+     * Prueba que un archivo que cruza de la última columna de un renglón a
+     * la primera del siguiente se ignore, que el laberinto se resuelva como
+     * siempre, y que el archivo se reemplace por la solución correcta.
+     *
+     * @throws IOException si no se puede usar la caché en disco.
+     */
+    @Test public void testArchivoDanado() throws IOException {
+        escribe(COLUMNAS - 1, 0);
+        Assert.assertNull(cache().busca(llave, cuartos, FILAS, COLUMNAS));
+
+        Laberinto laberinto = new Laberinto(cuartos.clone(), FILAS, COLUMNAS, ALGORITMO);
+        laberinto.creaLaberinto(cache());
+        Assert.assertArrayEquals(solucion, laberinto.getTrayectoria());
+        Assert.assertArrayEquals(solucion, cache().busca(llave, cuartos, FILAS, COLUMNAS));
+    }
+
+    /**
+     * Prueba que se ignoren las soluciones que cruzan una pared, que
+     * empiezan en un cuarto sin puerta hacia afuera, o que terminan en uno.
+     *
+     * @throws IOException si no se puede escribir en la caché en disco.
+     */
+    @Test public void testTrayectoriasInvalidas() throws IOException {
+        int inicio = solucion[0];
+        int pared = 0;
+        while ((cuartos[inicio] & (1 << pared)) == 0 || vecino(inicio, pared) == -1)
+            pared++;
+        escribe(inicio, pared);
+        Assert.assertNull(cache().busca(llave, cuartos, FILAS, COLUMNAS));
+
+        escribe((FILAS / 2) * COLUMNAS + COLUMNAS / 2);
+        Assert.assertNull(cache().busca(llave, cuartos, FILAS, COLUMNAS));
+
+        int k = 1;
+        while (frontera(solucion[k]))
+            k++;
+        int[] direcciones = new int[k];
+        for (int i = 0; i < k; i++)
+            direcciones[i] = direccion(solucion[i], solucion[i + 1]);
+        escribe(inicio, direcciones);
+        Assert.assertNull(cache().busca(llave, cuartos, FILAS, COLUMNAS));
+    }
+
+    /* Crea una caché en memoria y en el directorio temporal. */
+    private CacheSoluciones cache() throws IOException {
+        return new CacheSoluciones(MAXIMO, directorio, MAXIMO);
+    }
+
+    /* Escribe el archivo de la solución en el formato de la caché: el
+       primer cuarto y el número de pasos en 4 bytes, y 2 bits por paso. */
+    private void escribe(int inicio, int... direcciones) throws IOException {
+        byte[] bytes = new byte[8 + (direcciones.length + 3) / 4];
+        for (int i = 0; i < 4; i++) {
+            bytes[i] = (byte)(inicio >>> (24 - 8 * i));
+            bytes[4 + i] = (byte)(direcciones.length >>> (24 - 8 * i));
+        }
+        for (int i = 0; i < direcciones.length; i++)
+            bytes[8 + i / 4] |= direcciones[i] << (2 * (i % 4));
+
+        Files.write(directorio.resolve(llave + ".sol"), bytes);
+    }
+
+    /* Nos dice si el cuarto está en la frontera del laberinto. */
+    private static boolean frontera(int cuarto) {
+        int fila = cuarto / COLUMNAS, columna = cuarto % COLUMNAS;
+        return fila == 0 || fila == FILAS - 1 || columna == 0 || columna == COLUMNAS - 1;
+    }
+
+    /* Regresa el vecino en la dirección dada, o -1 si no está en la
+       cuadrícula. */
+    private static int vecino(int cuarto, int d) {
+        int fila = cuarto / COLUMNAS, columna = cuarto % COLUMNAS;
+        switch (d) {
+        case 0: return columna + 1 < COLUMNAS ? cuarto + 1 : -1;
+        case 1: return fila > 0 ? cuarto - COLUMNAS : -1;
+        case 2: return columna > 0 ? cuarto - 1 : -1;
+        default: return fila + 1 < FILAS ? cuarto + COLUMNAS : -1;
+        }
+    }
+
+    /* Regresa la dirección en la que está un cuarto adyacente. */
+    private static int direccion(int cuarto, int adyacente) {
+        for (int d = 0; d < 4; d++)
+            if (vecino(cuarto, d) == adyacente)
+                return d;
+        Assert.fail("Los cuartos " + cuarto + " y " + adyacente + " no son adyacentes");
+        return -1;
+    }
+}
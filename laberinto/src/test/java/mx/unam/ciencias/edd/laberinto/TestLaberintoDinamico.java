@@ -0,0 +1,222 @@
+package mx.unam.ciencias.edd.laberinto;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link LaberintoDinamico}. Después
+ * de cada cambio se compara el árbol reparado con uno calculado desde cero
+ * con {@link ResolvedorDial#arbol}.
+ */
+public class TestLaberintoDinamico {
+
+    /** Expiración para que ninguna prueba tarde más de 10 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(10);
+
+    /* Número de filas del laberinto. */
+    private static final int FILAS = 30;
+    /* Número de columnas del laberinto. */
+    private static final int COLUMNAS = 25;
+    /* Las direcciones en el orden de los bits de las paredes. */
+    private static final Direccion[] DIRECCIONES = {
+        Direccion.ESTE, Direccion.NORTE, Direccion.OESTE, Direccion.SUR
+    };
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* El laberinto que se modifica. */
+    private LaberintoDinamico laberinto;
+
+    /**
+     * Crea un laberinto modificable a partir de un laberinto con ciclos.
+     */
+    @Before public void creaLaberinto() {
+        random = new Random(20);
+        LaberintoRandom generado = LaberintosPrueba.genera(FILAS, COLUMNAS, 20);
+        laberinto = new LaberintoDinamico(LaberintosPrueba.trenza(generado, random, 4),
+                                          FILAS, COLUMNAS);
+        verifica();
+    }
+
+    /**
+     * Prueba que abrir una pared cerrada la quite de ambos cuartos y que el
+     * árbol reparado sea el correcto.
+     */
+    @Test public void testAbrePared() {
+        for (int i = 0; i < 50; i++) {
+            int cuarto, d;
+            do {
+                cuarto = interior();
+                d = random.nextBoolean() ? 0 : 3;
+            } while (!pared(cuarto, d));
+
+            laberinto.cambiaPared(cuarto, DIRECCIONES[d], false);
+            Assert.assertFalse(pared(cuarto, d));
+            Assert.assertFalse(pared(vecino(cuarto, d), (d + 2) % 4));
+            verifica();
+        }
+    }
+
+    /**
+     * Prueba que cerrar puertas del árbol, empezando por la de la entrada,
+     * ponga la pared en ambos cuartos y que el árbol reparado sea el
+     * correcto, aunque la entrada quede desconectada de la salida.
+     */
+    @Test public void testCierraPared() {
+        for (int i = 0; i < 50; i++) {
+            int cuarto = i == 0 ? laberinto.getInicio() : random.nextInt(FILAS * COLUMNAS);
+            int padre = laberinto.siguiente(cuarto);
+            if (padre == -1)
+                continue;
+
+            int d = direccion(cuarto, padre);
+            laberinto.cambiaPared(cuarto, DIRECCIONES[d], true);
+            Assert.assertTrue(pared(cuarto, d));
+            Assert.assertTrue(pared(padre, (d + 2) % 4));
+            verifica();
+        }
+    }
+
+    /**
+     * Prueba que abaratar y encarecer cuartos, incluyendo a la raíz,
+     * cambie su puntaje sin tocar sus paredes y que el árbol reparado sea el
+     * correcto.
+     */
+    @Test public void testCambiaPuntaje() {
+        int raiz = laberinto.getRaiz();
+        int[] puntajes = { 0, 15, 3, 9, 9, 1 };
+        for (int puntaje : puntajes) {
+            cambiaPuntaje(raiz, puntaje);
+            cambiaPuntaje(laberinto.getInicio(), 15 - puntaje);
+            cambiaPuntaje(laberinto.siguiente(laberinto.getInicio()), puntaje);
+        }
+
+        for (int i = 0; i < 100; i++)
+            cambiaPuntaje(random.nextInt(FILAS * COLUMNAS), random.nextInt(16));
+    }
+
+    /**
+     * Prueba muchos cambios al azar de paredes y puntajes, comparando el
+     * árbol cada 50 cambios.
+     */
+    @Test public void testCambiosAleatorios() {
+        for (int i = 1; i <= 4000; i++) {
+            if (random.nextInt(3) == 0) {
+                int cuarto = random.nextInt(FILAS * COLUMNAS);
+                laberinto.cambiaPuntaje(cuarto, random.nextInt(16));
+            } else {
+                int cuarto = interior();
+                laberinto.alternaPared(cuarto, random.nextBoolean() ? Direccion.ESTE : Direccion.SUR);
+            }
+            if (i % 50 == 0)
+                verifica();
+        }
+    }
+
+    /**
+     * Prueba que no se puedan cambiar las paredes de la frontera.
+     */
+    @Test(expected=ExcepcionParametroInvalido.class) public void testParedFrontera() {
+        laberinto.cambiaPared(0, Direccion.NORTE, false);
+    }
+
+    /**
+     * Prueba que no se puedan dar puntajes fuera de 0 a 15.
+     */
+    @Test(expected=ExcepcionParametroInvalido.class) public void testPuntajeInvalido() {
+        laberinto.cambiaPuntaje(0, 16);
+    }
+
+    /* Cambia el puntaje de un cuarto y verifica las paredes y el árbol. */
+    private void cambiaPuntaje(int cuarto, int puntaje) {
+        int paredes = laberinto.getCuartos()[cuarto] & 0xF;
+        laberinto.cambiaPuntaje(cuarto, puntaje);
+        Assert.assertEquals(puntaje, (laberinto.getCuartos()[cuarto] & 0xFF) >>> 4);
+        Assert.assertEquals(paredes, laberinto.getCuartos()[cuarto] & 0xF);
+        verifica();
+    }
+
+    /*
+     * Verifica que las paredes sean consistentes, que las distancias sean las
+     * de un árbol calculado desde cero, y que cada cuarto alcanzable tenga
+     * como padre a un vecino sin pared de por medio y con la distancia justa.
+     */
+    private void verifica() {
+        byte[] cuartos = laberinto.getCuartos();
+        int raiz = laberinto.getRaiz();
+        ResolvedorDial dial = new ResolvedorDial(cuartos.clone(), FILAS, COLUMNAS);
+        ArbolCaminos arbol = dial.arbol(raiz);
+
+        Assert.assertEquals(-1, laberinto.siguiente(raiz));
+        for (int v = 0; v < cuartos.length; v++) {
+            if (v % COLUMNAS + 1 < COLUMNAS)
+                Assert.assertEquals(pared(v, 0), pared(v + 1, 2));
+            if (v + COLUMNAS < cuartos.length)
+                Assert.assertEquals(pared(v, 3), pared(v + COLUMNAS, 1));
+
+            Assert.assertEquals(arbol.getDistancia(v), laberinto.getDistancia(v));
+            if (v == raiz)
+                continue;
+
+            int padre = laberinto.siguiente(v);
+            if (laberinto.getDistancia(v) == -1) {
+                Assert.assertEquals(-1, padre);
+                continue;
+            }
+
+            int d = direccion(v, padre);
+            Assert.assertEquals(padre, vecino(v, d));
+            Assert.assertFalse(pared(v, d));
+            Assert.assertEquals(laberinto.getDistancia(padre) + laberinto.peso(v, padre),
+                                laberinto.getDistancia(v));
+        }
+
+        int[] solucion = laberinto.getSolucion();
+        int inicio = laberinto.getInicio();
+        if (laberinto.getDistancia(inicio) == -1) {
+            Assert.assertEquals(0, solucion.length);
+        } else {
+            Assert.assertEquals(inicio, solucion[0]);
+            Assert.assertEquals(raiz, solucion[solucion.length - 1]);
+            Assert.assertEquals(laberinto.getDistancia(inicio),
+                                LaberintosPrueba.puntaje(laberinto, solucion));
+        }
+    }
+
+    /* Regresa un cuarto que no está en la última fila ni en la última
+       columna. */
+    private int interior() {
+        return random.nextInt(FILAS - 1) * COLUMNAS + random.nextInt(COLUMNAS - 1);
+    }
+
+    /* Nos dice si el cuarto tiene pared en la dirección dada. */
+    private boolean pared(int cuarto, int d) {
+        return (laberinto.getCuartos()[cuarto] & (1 << d)) != 0;
+    }
+
+    /* Regresa el vecino en la dirección dada, o -1 si no está en la
+       cuadrícula. */
+    private static int vecino(int cuarto, int d) {
+        int fila = cuarto / COLUMNAS, columna = cuarto % COLUMNAS;
+        switch (d) {
+        case 0: return columna + 1 < COLUMNAS ? cuarto + 1 : -1;
+        case 1: return fila > 0 ? cuarto - COLUMNAS : -1;
+        case 2: return columna > 0 ? cuarto - 1 : -1;
+        default: return fila + 1 < FILAS ? cuarto + COLUMNAS : -1;
+        }
+    }
+
+    /* Regresa la dirección en la que está un cuarto adyacente. */
+    private static int direccion(int cuarto, int adyacente) {
+        for (int d = 0; d < 4; d++)
+            if (vecino(cuarto, d) == adyacente)
+                return d;
+        Assert.fail("Los cuartos " + cuarto + " y " + adyacente + " no son adyacentes");
+        return -1;
+    }
+}
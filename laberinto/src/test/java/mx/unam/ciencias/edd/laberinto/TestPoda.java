@@ -0,0 +1,67 @@
+package mx.unam.ciencias.edd.laberinto;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la poda de callejones sin salida de
+ * {@link Laberinto}: con cualquier resolvedor, la trayectoria debe ser la
+ * misma con y sin podar, aun cuando hay muchas trayectorias con el mismo
+ * puntaje.
+ */
+public class TestPoda {
+
+    /** Expiración para que ninguna prueba tarde más de 20 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(20);
+
+    /* Número de filas de los laberintos. */
+    private static final int FILAS = 60;
+    /* Número de columnas de los laberintos. */
+    private static final int COLUMNAS = 80;
+
+    /**
+     * Prueba laberintos con ciclos con los puntajes del generador.
+     */
+    @Test public void testPuntajesGenerados() {
+        for (int semilla = 11; semilla <= 18; semilla++) {
+            LaberintoRandom generado = LaberintosPrueba.genera(FILAS, COLUMNAS, semilla);
+            compara(LaberintosPrueba.trenza(generado, new Random(semilla), 4));
+        }
+    }
+
+    /**
+     * Prueba laberintos con ciclos con puntajes de 0 y 1, donde casi todas
+     * las trayectorias empatan con otras.
+     */
+    @Test public void testPuntajesEmpatados() {
+        for (int semilla = 11; semilla <= 18; semilla++) {
+            Random random = new Random(semilla);
+            LaberintoRandom generado = LaberintosPrueba.genera(FILAS, COLUMNAS, semilla);
+            byte[] cuartos = LaberintosPrueba.trenza(generado, random, 6);
+            for (int i = 0; i < cuartos.length; i++)
+                cuartos[i] = (byte)((random.nextInt(2) << 4) | (cuartos[i] & 0xF));
+            compara(cuartos);
+        }
+    }
+
+    /* Verifica que cada resolvedor dé la misma trayectoria con y sin
+       podar, y que la poda haya quitado cuartos. */
+    private static void compara(byte[] cuartos) {
+        for (AlgoritmoResolvedor algoritmo : AlgoritmoResolvedor.values()) {
+            Laberinto completo = new Laberinto(cuartos.clone(), FILAS, COLUMNAS, algoritmo);
+            completo.creaLaberinto();
+
+            Laberinto podado = new Laberinto(cuartos.clone(), FILAS, COLUMNAS, algoritmo);
+            podado.setPodar(true);
+            podado.creaLaberinto();
+
+            Assert.assertTrue(podado.getCuartosPodados() > 0);
+            Assert.assertArrayEquals(algoritmo.getNombre(), completo.getTrayectoria(),
+                                     podado.getTrayectoria());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package mx.unam.ciencias.edd.laberinto;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link ResolvedorDeltaStepping}.
+ * Se compara contra {@link ResolvedorDial} en laberintos con ciclos, donde
+ * hay más de una trayectoria entre dos cuartos.
+ */
+public class TestResolvedorDeltaStepping {
+
+    /** Expiración para que ninguna prueba tarde más de 10 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(10);
+
+    /* Los números de hilos con los que se prueba. */
+    private static final int[] HILOS = { 1, 2, 4 };
+    /* Los anchos de cubeta con los que se prueba. */
+    private static final int[] ANCHOS = { 1, 3, 8, 16, 32, 40 };
+
+    /* Generador de números aleatorios. */
+    private Random random = new Random(24);
+
+    /**
+     * Prueba que con cualquier número de hilos y ancho de cubeta la
+     * trayectoria vaya por puertas del inicio al final, tenga el mismo
+     * puntaje que la de Dial, y sea la misma que con un solo hilo.
+     */
+    @Test public void testResuelve() {
+        int[][] tamanos = { { 2, 2 }, { 2, 40 }, { 17, 3 }, { 40, 40 }, { 120, 90 }, { 400, 400 } };
+        for (int[] tamano : tamanos) {
+            int filas = tamano[0], columnas = tamano[1];
+            LaberintoRandom generado = LaberintosPrueba.genera(filas, columnas, random.nextInt(1000));
+            byte[] cuartos = LaberintosPrueba.trenza(generado, random, 2 + random.nextInt(8));
+            ResolvedorDial dial = new ResolvedorDial(cuartos, filas, columnas);
+
+            for (int i = 0; i < 3; i++) {
+                int inicio = random.nextInt(cuartos.length);
+                int fin = random.nextInt(cuartos.length);
+                long puntaje = LaberintosPrueba.puntaje(dial, dial.resuelve(inicio, fin));
+
+                for (int delta : ANCHOS) {
+                    int[] secuencial = null;
+                    for (int hilos : HILOS) {
+                        ResolvedorDeltaStepping resolvedor =
+                            new ResolvedorDeltaStepping(cuartos, filas, columnas, hilos, delta);
+                        int[] trayectoria = resolvedor.resuelve(inicio, fin);
+                        verificaTrayectoria(resolvedor, trayectoria, inicio, fin, columnas);
+                        Assert.assertEquals(puntaje, LaberintosPrueba.puntaje(resolvedor, trayectoria));
+
+                        if (secuencial == null)
+                            secuencial = trayectoria;
+                        Assert.assertArrayEquals(secuencial, trayectoria);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Prueba que si no se puede llegar al final la trayectoria sea vacía.
+     */
+    @Test public void testDesconectado() {
+        LaberintoRandom generado = LaberintosPrueba.genera(50, 50, 7);
+        byte[] cuartos = LaberintosPrueba.trenza(generado, random, 3);
+
+        int aislado = 25 * 50 + 25;
+        cuartos[aislado] |= 15;
+        cuartos[aislado + 1] |= 4;
+        cuartos[aislado - 1] |= 1;
+        cuartos[aislado - 50] |= 8;
+        cuartos[aislado + 50] |= 2;
+
+        for (int hilos : HILOS) {
+            ResolvedorDeltaStepping resolvedor = new ResolvedorDeltaStepping(cuartos, 50, 50, hilos);
+            Assert.assertEquals(0, resolvedor.resuelve(0, aislado).length);
+            Assert.assertEquals(0, resolvedor.resuelve(aislado, 0).length);
+            Assert.assertArrayEquals(new int[] { aislado }, resolvedor.resuelve(aislado, aislado));
+        }
+    }
+
+    /**
+     * Prueba que no se pueda crear un resolvedor con cubetas de ancho 0.
+     */
+    @Test(expected=ExcepcionParametroInvalido.class) public void testAnchoCero() {
+        new ResolvedorDeltaStepping(new byte[1], 1, 1, 1, 0);
+    }
+
+    /**
+     * Prueba que no se pueda crear un resolvedor con cubetas de ancho
+     * negativo.
+     */
+    @Test(expected=ExcepcionParametroInvalido.class) public void testAnchoNegativo() {
+        new ResolvedorDeltaStepping(new byte[1], 1, 1, 1, -8);
+    }
+
+    /* Verifica que la trayectoria vaya del inicio al final por puertas. */
+    private static void verificaTrayectoria(ResolvedorCuadricula resolvedor, int[] trayectoria,
+                                            int inicio, int fin, int columnas) {
+        Assert.assertEquals(inicio, trayectoria[0]);
+        Assert.assertEquals(fin, trayectoria[trayectoria.length - 1]);
+
+        for (int i = 1; i < trayectoria.length; i++) {
+            int v = trayectoria[i - 1];
+            boolean puerta = false;
+            for (int d = 0; d < 4; d++)
+                if (resolvedor.vecino(v, v / columnas, v % columnas, d) == trayectoria[i])
+                    puerta = true;
+            Assert.assertTrue(puerta);
+        }
+    }
+}